@@ -0,0 +1,188 @@
+package com.example.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of upstream GET responses, shared by the routes using the {@code ResponseCache} filter.
+ * Entries are keyed by route, path, query, caller and the negotiation headers, bounded by total body bytes, and each
+ * expires after its own TTL. The keys are also indexed by route and path, so a write evicts its path without scanning
+ * the cache.
+ * <p>
+ * Each path also has a generation, bumped by {@link #evictPath}. A response is stored only if its path's generation
+ * is still the one read before the request went upstream, so a GET that was in flight while a write evicted the
+ * path cannot store the body from before the write. Generations of recently evicted paths are kept for
+ * {@link #GENERATION_RETENTION}, longer than any upstream exchange lasts.
+ */
+public class GatewayResponseCache {
+
+    public static final String CACHE_NAME = "gateway.responses";
+
+    static final Duration GENERATION_RETENTION = Duration.ofMinutes(10);
+
+    private static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<PathKey, Set<Key>> keysByPath = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Cache<PathKey, Long> generations;
+
+    public GatewayResponseCache(long maximumBytes, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Key key, CachedResponse value) -> value.body().length + ENTRY_OVERHEAD_BYTES)
+                .expireAfter(Expiry.creating((Key key, CachedResponse value) -> value.ttl()))
+                .evictionListener((Key key, CachedResponse value, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maximumBytes / ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(GENERATION_RETENTION)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CachedResponse get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * The path's generation, to be read before the request goes upstream and passed to {@link #put}.
+     */
+    public long generation(String routeId, String path) {
+        Long generation = generations.getIfPresent(new PathKey(routeId, path));
+        return generation != null ? generation : 0;
+    }
+
+    /**
+     * Stores a response unless its path was evicted since {@code generation} was read.
+     */
+    public void put(Key key, CachedResponse response, long generation) {
+        PathKey pathKey = key.pathKey();
+        if (generation(pathKey.routeId(), pathKey.path()) != generation) {
+            return;
+        }
+        keysByPath.compute(pathKey, (path, keys) -> {
+            Set<Key> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+        });
+        cache.put(key, response);
+        // An eviction between the check above and the put may have missed this entry
+        if (generation(pathKey.routeId(), pathKey.path()) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Drops the cached responses of one path on a route, for every caller and query, and bumps its generation.
+     */
+    public void evictPath(String routeId, String path) {
+        PathKey pathKey = new PathKey(routeId, path);
+        generations.put(pathKey, evictions.incrementAndGet());
+        Set<Key> keys = keysByPath.remove(pathKey);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void unindex(Key key) {
+        keysByPath.computeIfPresent(key.pathKey(), (path, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * A strong entity tag: the quoted, truncated SHA-256 of the body bytes.
+     */
+    public static String etag(byte[] body) {
+        byte[] hash = SHA_256.get().digest(body);
+        return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + '"';
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value matches the tag, using the weak comparison RFC 9110 prescribes
+     * for it.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * @param accept         the request's {@code Accept}, since the representation may depend on it
+     * @param acceptEncoding the request's {@code Accept-Encoding}, since the body may be compressed
+     */
+    public record Key(String routeId, String path, String query, String caller, String accept,
+                      String acceptEncoding) {
+
+        private PathKey pathKey() {
+            return new PathKey(routeId, path);
+        }
+    }
+
+    private record PathKey(String routeId, String path) {
+    }
+
+    /**
+     * A 200 response as received from upstream, with the upstream's strong tag or one computed from the body.
+     *
+     * @param storedAtMillis when the response was received, for {@code Age}
+     */
+    public record CachedResponse(HttpHeaders headers, byte[] body, String etag, Duration ttl, long storedAtMillis) {
+
+        public static CachedResponse of(HttpHeaders headers, byte[] body, Duration ttl) {
+            HttpHeaders copy = new HttpHeaders();
+            copy.addAll(headers);
+            String upstream = headers.getETag();
+            String etag = upstream != null && !upstream.startsWith("W/") ? upstream : GatewayResponseCache.etag(body);
+            copy.setETag(etag);
+            return new CachedResponse(HttpHeaders.readOnlyHttpHeaders(copy), body, etag, ttl,
+                    System.currentTimeMillis());
+        }
+
+        public long ageSeconds() {
+            return Math.max(0, (System.currentTimeMillis() - storedAtMillis) / 1000);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.apigateway.cache;
+
+import com.cursor.common.jwt.VerifiedJwt;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of tokens that already passed signature and expiry checks.
+ * Entries are keyed by the SHA-256 digest of the token, so raw bearer tokens are never retained,
+ * and each entry expires at the token's own {@code exp}.
+ */
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(long maximumSize, MeterRegistry meterRegistry) {
+        this(maximumSize, meterRegistry, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(long maximumSize, MeterRegistry meterRegistry, Clock clock, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String key, VerifiedToken value) -> value.remainingTtl(clock.millis())))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached verification result for the token, running {@code verifier} on a miss.
+     * Exceptions thrown by the verifier propagate and nothing is cached.
+     */
+    public VerifiedToken get(String token, Supplier<VerifiedToken> verifier) {
+        return cache.get(digest(token), key -> verifier.get());
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    static String digest(String token) {
+        MessageDigest md = SHA_256.get();
+        byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    /**
+     * Header values extracted from a verified token.
+     *
+     * @param expiresAtMillis token {@code exp} in epoch millis, or {@link VerifiedJwt#NO_EXPIRY} if absent
+     */
+    public record VerifiedToken(String userId, String roles, long expiresAtMillis) {
+
+        Duration remainingTtl(long nowMillis) {
+            if (expiresAtMillis == VerifiedJwt.NO_EXPIRY) {
+                return Duration.ofNanos(Long.MAX_VALUE);
+            }
+            return Duration.ofMillis(Math.max(0, expiresAtMillis - nowMillis));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.apigateway.config;
 
 import com.cursor.common.jwt.JwtService;
+import com.example.apigateway.cache.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,9 +13,17 @@ public class GatewayJwtConfig {
     @Value("${security.jwt.secret-base64}")
     String secret;
 
+    @Value("${security.jwt.token-cache.max-size:100000}")
+    long tokenCacheMaxSize;
+
     @Bean
     JwtService jwtService() {
         return new JwtService(secret, 3600);
     } // ttl not used here
 
+    @Bean
+    VerifiedTokenCache verifiedTokenCache(MeterRegistry meterRegistry) {
+        return new VerifiedTokenCache(tokenCacheMaxSize, meterRegistry);
+    }
+
 }
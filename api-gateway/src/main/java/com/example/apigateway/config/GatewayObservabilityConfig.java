@@ -0,0 +1,32 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.observability.ObservedFilteringWebHandler;
+import com.example.apigateway.observability.UpstreamTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class GatewayObservabilityConfig {
+
+    /**
+     * Replaces the gateway's own filter chain handler, which backs off when one is defined.
+     */
+    @Bean
+    FilteringWebHandler filteringWebHandler(List<GlobalFilter> globalFilters, GatewayProperties properties,
+                                            ObservationRegistry observationRegistry) {
+        return new ObservedFilteringWebHandler(globalFilters, properties.isRouteFilterCacheEnabled(),
+                observationRegistry);
+    }
+
+    @Bean
+    UpstreamTimings upstreamTimings(MeterRegistry meterRegistry) {
+        return new UpstreamTimings(meterRegistry);
+    }
+}
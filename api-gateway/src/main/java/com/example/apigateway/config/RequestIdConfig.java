@@ -0,0 +1,19 @@
+package com.example.apigateway.config;
+
+import com.cursor.common.requestid.RequestIdGenerator;
+import com.cursor.common.requestid.UlidRequestIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RequestIdConfig {
+
+    /**
+     * @param nodeId the node component of the ids; negative derives it from the host name
+     */
+    @Bean
+    RequestIdGenerator requestIdGenerator(@Value("${gateway.request-id.node-id:-1}") int nodeId) {
+        return new UlidRequestIdGenerator(nodeId >= 0 ? nodeId : UlidRequestIdGenerator.hostNodeId());
+    }
+}
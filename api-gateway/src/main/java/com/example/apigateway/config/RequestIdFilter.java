@@ -1,5 +1,9 @@
 package com.example.apigateway.config;
 
+import com.cursor.common.requestid.RequestIdGenerator;
+import com.cursor.common.requestid.RequestIds;
+import io.micrometer.context.ContextRegistry;
+import org.slf4j.MDC;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -7,26 +11,44 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
-import java.util.UUID;
-
+/**
+ * Gives every routed request an {@value RequestIds#HEADER}, keeping a well-formed one sent by the caller, and puts it
+ * in the Reactor context of the rest of the chain. With {@code spring.reactor.context-propagation=auto}, Reactor
+ * copies it into the MDC of whichever thread runs each step, so log lines carry it.
+ */
 @Component
 public class RequestIdFilter implements GlobalFilter, Ordered {
 
-    public static final String HEADER_REQUEST_ID = "X-Request-Id";
+    public static final String HEADER_REQUEST_ID = RequestIds.HEADER;
+
+    static {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(RequestIds.MDC_KEY,
+                () -> MDC.get(RequestIds.MDC_KEY),
+                requestId -> MDC.put(RequestIds.MDC_KEY, requestId),
+                () -> MDC.remove(RequestIds.MDC_KEY));
+    }
+
+    private final RequestIdGenerator generator;
+
+    public RequestIdFilter(RequestIdGenerator generator) {
+        this.generator = generator;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String requestId = request.getHeaders().getFirst(HEADER_REQUEST_ID);
-        if (requestId == null || requestId.isBlank()) {
-            requestId = UUID.randomUUID().toString();
+        String received = request.getHeaders().getFirst(HEADER_REQUEST_ID);
+        String requestId = RequestIds.resolve(received, generator);
+        ServerWebExchange forwarded = exchange;
+        if (!requestId.equals(received)) {
             ServerHttpRequest mutated = request.mutate()
-                    .header(HEADER_REQUEST_ID, requestId)
+                    .headers(headers -> headers.set(HEADER_REQUEST_ID, requestId))
                     .build();
-            return chain.filter(exchange.mutate().request(mutated).build());
+            forwarded = exchange.mutate().request(mutated).build();
         }
-        return chain.filter(exchange);
+        return chain.filter(forwarded).contextWrite(Context.of(RequestIds.MDC_KEY, requestId));
     }
 
     @Override
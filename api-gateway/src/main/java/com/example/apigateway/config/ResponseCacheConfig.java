@@ -0,0 +1,19 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.cache.GatewayResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResponseCacheConfig {
+
+    @Value("${gateway.response-cache.max-bytes:67108864}")
+    long maxBytes;
+
+    @Bean
+    GatewayResponseCache gatewayResponseCache(MeterRegistry meterRegistry) {
+        return new GatewayResponseCache(maxBytes, meterRegistry);
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets concurrent identical GETs on a route share one upstream exchange, configured as the {@code CoalesceRequests}
+ * route filter:
+ * <pre>
+ * filters:
+ *   - name: CoalesceRequests
+ *     args:
+ *       scope: ROLES          # or CALLER
+ *       maxWaiters: 1000      # per upstream exchange
+ *       maxBodyBytes: 262144  # larger responses are not replayed
+ * </pre>
+ * The first request for a key (the leader) goes upstream; requests arriving with the same key before its response
+ * completes wait for it, and the status, headers and body it received are replayed to them. Only requests
+ * {@link JwtAuthFilter} verified are coalesced, and only with requests of the same path, query, {@code Accept},
+ * {@code Accept-Encoding} and either the same user ({@code CALLER}) or the same roles ({@code ROLES}, for routes
+ * whose responses depend on the caller's roles at most). Requests beyond {@code maxWaiters}, and waiters whose
+ * leader failed or received a larger body than {@code maxBodyBytes}, go upstream themselves.
+ * <p>
+ * Every request is counted in {@code gateway.requests.coalesced}, tagged with the route and its {@code result}:
+ * {@code leader}, {@code follower} (served by a leader), {@code overflow} or {@code fallback}.
+ */
+@Component
+public class CoalesceRequestsGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoalesceRequestsGatewayFilterFactory.Config> {
+
+    /**
+     * Inside the response cache, so only misses coalesce, and before the response is written.
+     */
+    static final int ORDER = JwtAuthFilter.ORDER + 3;
+
+    private static final List<String> UNREPLAYED_HEADERS = List.of(HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public CoalesceRequestsGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String caller = caller(exchange, config.getScope());
+            if (request.getMethod() != HttpMethod.GET || caller == null) {
+                return chain.filter(exchange);
+            }
+            String routeId = routeId(exchange);
+            Key key = new Key(routeId, request.getURI().getRawPath(), request.getURI().getRawQuery(), caller,
+                    request.getHeaders().getFirst(HttpHeaders.ACCEPT),
+                    request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+
+            Flight flight = new Flight();
+            Flight leader = inFlight.putIfAbsent(key, flight);
+            if (leader != null) {
+                if (!leader.join(config.getMaxWaiters())) {
+                    count(routeId, "overflow");
+                    return chain.filter(exchange);
+                }
+                return leader.result()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(replay -> {
+                            if (replay.isEmpty()) {
+                                count(routeId, "fallback");
+                                return chain.filter(exchange);
+                            }
+                            count(routeId, "follower");
+                            return replay.get().writeTo(exchange.getResponse());
+                        });
+            }
+
+            count(routeId, "leader");
+            RecordingResponse response = new RecordingResponse(exchange.getResponse(), key, flight,
+                    config.getMaxBodyBytes());
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> response.abandon());
+        }, ORDER);
+    }
+
+    private static String caller(ServerWebExchange exchange, Scope scope) {
+        String userId = exchange.getAttribute(JwtAuthFilter.USER_ID_ATTRIBUTE);
+        if (userId == null) {
+            return null;
+        }
+        if (scope == Scope.CALLER) {
+            return "user:" + userId;
+        }
+        String roles = exchange.getAttribute(JwtAuthFilter.ROLES_ATTRIBUTE);
+        String[] sorted = roles == null || roles.isEmpty() ? new String[0] : roles.split(",");
+        Arrays.sort(sorted);
+        return "roles:" + String.join(",", sorted);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private void count(String routeId, String result) {
+        Counter.builder("gateway.requests.coalesced")
+                .description("GET requests by whether they shared another request's upstream exchange")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public enum Scope {
+        CALLER, ROLES
+    }
+
+    private record Key(String routeId, String path, String query, String caller, String accept,
+                       String acceptEncoding) {
+    }
+
+    private record Replay(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+        private Mono<Void> writeTo(ServerHttpResponse response) {
+            response.setStatusCode(status);
+            response.getHeaders().addAll(headers);
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }
+    }
+
+    /**
+     * One upstream exchange and the requests waiting for its response.
+     */
+    private static final class Flight {
+
+        private final Sinks.One<Replay> result = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private boolean join(int maxWaiters) {
+            return waiters.incrementAndGet() <= maxWaiters;
+        }
+
+        private Mono<Replay> result() {
+            return result.asMono();
+        }
+    }
+
+    /**
+     * Passes the leader's response through while copying it, and hands the copy to the waiters once complete.
+     */
+    private final class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final Key key;
+        private final Flight flight;
+        private final int maxBodyBytes;
+
+        private RecordingResponse(ServerHttpResponse delegate, Key key, Flight flight, int maxBodyBytes) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            // As upstream sent it: outer filters may still rewrite the response for the leader, e.g. into a 304
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = replayedHeaders();
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            Flux<? extends DataBuffer> recorded = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        if (copy.size() + readable > maxBodyBytes) {
+                            abandon();
+                            return;
+                        }
+                        byte[] chunk = new byte[readable];
+                        int position = buffer.readPosition();
+                        buffer.read(chunk);
+                        buffer.readPosition(position);
+                        copy.writeBytes(chunk);
+                    })
+                    .doOnComplete(() -> complete(status, headers, copy.toByteArray()));
+            return super.writeWith(recorded);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            complete(getStatusCode(), replayedHeaders(), new byte[0]);
+            return super.setComplete();
+        }
+
+        private HttpHeaders replayedHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(getHeaders());
+            UNREPLAYED_HEADERS.forEach(headers::remove);
+            return headers;
+        }
+
+        private void complete(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+            // New requests start their own exchange from here on; the waiters get this one's response
+            if (inFlight.remove(key, flight)) {
+                flight.result.tryEmitValue(new Replay(status, headers, body));
+            }
+        }
+
+        /**
+         * Sends the waiters upstream themselves, unless they already got the response.
+         */
+        private void abandon() {
+            if (inFlight.remove(key, flight)) {
+                flight.result.tryEmitEmpty();
+            }
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        private Scope scope = Scope.CALLER;
+
+        private int maxWaiters = 1000;
+
+        private int maxBodyBytes = 256 * 1024;
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.apigateway.filter;
 
 import com.cursor.common.jwt.JwtService;
-import io.jsonwebtoken.Claims;
+import com.cursor.common.jwt.VerifiedJwt;
+import com.example.apigateway.cache.VerifiedTokenCache;
+import com.example.apigateway.cache.VerifiedTokenCache.VerifiedToken;
 import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,8 +23,25 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JwtAuthFilter implements GlobalFilter, Ordered {
 
+    /**
+     * Exchange attribute holding the verified user id, which unlike the {@code X-User-Id} header cannot come from
+     * the client.
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthFilter.class.getName() + ".userId";
+
+    /**
+     * Exchange attribute holding the verified roles, comma separated as in {@code X-Roles}.
+     */
+    public static final String ROLES_ATTRIBUTE = JwtAuthFilter.class.getName() + ".roles";
+
+    /**
+     * Ahead of the route filters that depend on the caller, which run before the response is written.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 4;
+
     private static final String BEARER = "Bearer ";
     private final JwtService jwtService;
+    private final VerifiedTokenCache tokenCache;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -43,14 +63,13 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         String token = auth.substring(BEARER.length());
 
         try {
-            Claims claims = jwtService.parseAndValidate(token);
-            String userId = claims.getSubject();
-            @SuppressWarnings("unchecked")
-            List<String> roles = (List<String>) claims.get("roles");
+            VerifiedToken verified = tokenCache.get(token, () -> verify(token));
             ServerHttpRequest mutated = exchange.getRequest().mutate()
-                    .header("X-User-Id", userId)
-                    .header("X-Roles", String.join(",", roles == null ? List.of() : roles))
+                    .header("X-User-Id", verified.userId())
+                    .header("X-Roles", verified.roles())
                     .build();
+            exchange.getAttributes().put(USER_ID_ATTRIBUTE, verified.userId());
+            exchange.getAttributes().put(ROLES_ATTRIBUTE, verified.roles());
             return chain.filter(exchange.mutate().request(mutated).build());
         }catch (JwtException e) {
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
@@ -58,8 +77,17 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         }
     }
 
+    private VerifiedToken verify(String token) {
+        VerifiedJwt jwt = jwtService.verify(token);
+        List<String> roles = jwt.roles();
+        return new VerifiedToken(
+                jwt.subject(),
+                String.join(",", roles == null ? List.of() : roles),
+                jwt.expiresAtMillis());
+    }
+
     @Override
     public int getOrder() {
-        return -1;
+        return ORDER;
     }
 }
@@ -0,0 +1,126 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.ratelimit.TokenBuckets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route rate limits held in the gateway's memory, configured as the {@code LocalRateLimit} route filter:
+ * <pre>
+ * filters:
+ *   - name: LocalRateLimit
+ *     args:
+ *       userReplenishRate: 20   # tokens per second per authenticated user
+ *       userBurstCapacity: 40
+ *       ipReplenishRate: 50     # tokens per second per client address
+ *       ipBurstCapacity: 100
+ *       maxKeys: 1000000        # buckets kept per limit
+ * </pre>
+ * A request takes a token from its client address's bucket and, when {@link JwtAuthFilter} verified a token, from
+ * its user's bucket; a limit whose rate is not set is not enforced. A request finding either bucket empty is answered
+ * with 429 and a {@code Retry-After} in seconds, and counted in {@code gateway.ratelimit.rejected}, tagged with the
+ * route and the limit ({@code user} or {@code ip}). Limits are per gateway instance, so the effective limit scales
+ * with the number of replicas.
+ */
+@Component
+public class LocalRateLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<LocalRateLimitGatewayFilterFactory.Config> {
+
+    private static final String USER_LIMIT = "user";
+    private static final String IP_LIMIT = "ip";
+
+    /**
+     * After {@link JwtAuthFilter}, and before the response cache so cached responses count too.
+     */
+    static final int ORDER = JwtAuthFilter.ORDER + 1;
+
+    private final MeterRegistry meterRegistry;
+
+    public LocalRateLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        TokenBuckets users = config.getUserReplenishRate() > 0
+                ? new TokenBuckets(config.getUserReplenishRate(), config.getUserBurstCapacity(), config.getMaxKeys())
+                : null;
+        TokenBuckets ips = config.getIpReplenishRate() > 0
+                ? new TokenBuckets(config.getIpReplenishRate(), config.getIpBurstCapacity(), config.getMaxKeys())
+                : null;
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (ips != null) {
+                long wait = ips.tryAcquire(clientAddress(exchange));
+                if (wait > 0) {
+                    return reject(exchange, IP_LIMIT, wait);
+                }
+            }
+            String userId = exchange.getAttribute(JwtAuthFilter.USER_ID_ATTRIBUTE);
+            if (users != null && userId != null) {
+                long wait = users.tryAcquire(userId);
+                if (wait > 0) {
+                    return reject(exchange, USER_LIMIT, wait);
+                }
+            }
+            return chain.filter(exchange);
+        }, ORDER);
+    }
+
+    /**
+     * The address of the connecting peer; {@code X-Forwarded-For} is not trusted since clients can set it.
+     */
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String limit, long waitNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Counter.builder("gateway.ratelimit.rejected")
+                .description("Requests rejected by the local rate limiter")
+                .tag("route", route != null ? route.getId() : "unknown")
+                .tag("limit", limit)
+                .register(meterRegistry)
+                .increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return response.setComplete();
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        private double userReplenishRate;
+
+        private int userBurstCapacity = 1;
+
+        private double ipReplenishRate;
+
+        private int ipBurstCapacity = 1;
+
+        private long maxKeys = 1_000_000;
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.cache.GatewayResponseCache;
+import com.example.apigateway.cache.GatewayResponseCache.CachedResponse;
+import com.example.apigateway.cache.GatewayResponseCache.Key;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches the 200 responses to GETs of selected paths on a route in the gateway, configured as the
+ * {@code ResponseCache} route filter:
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       paths:               # path patterns whose GETs are cached; none by default
+ *         - /users/{id:[0-9]+}
+ *       ttl: 0s              # when upstream sends no max-age; zero caches only what upstream allows
+ *       maxBodyBytes: 262144 # larger responses are not cached
+ * </pre>
+ * Responses are cached per caller (the user id verified by {@link JwtAuthFilter}), path, query, {@code Accept} and
+ * {@code Accept-Encoding}, for the upstream's {@code s-maxage} or {@code max-age}, or {@code ttl} when it sends
+ * neither (by default not at all); responses with
+ * {@code no-store}, {@code no-cache}, {@code Set-Cookie} or {@code Vary: *} are not cached. Only JSON bodies with a
+ * {@code Content-Length} up to {@code maxBodyBytes} are cached, copied as they are sent on; chunked, larger and
+ * attachment responses stream through untouched. A hit is answered from the gateway without an upstream call and
+ * carries a strong {@code ETag}, upstream's or one computed from the body, and a matching {@code If-None-Match} is
+ * answered with 304, as it is on a miss when upstream sent the matching tag. A successful write to a path drops the
+ * cached responses of that path for all callers; other paths it affects, such as lists, stay cached until their TTL.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /**
+     * After {@link JwtAuthFilter}, and before the response is written so the body can be captured.
+     */
+    static final int ORDER = JwtAuthFilter.ORDER + 2;
+
+    private static final List<String> UNCACHED_HEADERS = List.of(HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION, HttpHeaders.DATE, HttpHeaders.AGE);
+
+    private final GatewayResponseCache cache;
+
+    public ResponseCacheGatewayFilterFactory(GatewayResponseCache cache) {
+        super(Config.class);
+        this.cache = cache;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() == HttpMethod.HEAD || request.getMethod() == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+            String routeId = routeId(exchange);
+            String path = request.getURI().getRawPath();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange).doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        cache.evictPath(routeId, path);
+                    }
+                });
+            }
+
+            if (patterns.stream().noneMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()))) {
+                return chain.filter(exchange);
+            }
+
+            Key key = new Key(routeId, path, request.getURI().getRawQuery(),
+                    exchange.getAttribute(JwtAuthFilter.USER_ID_ATTRIBUTE),
+                    request.getHeaders().getFirst(HttpHeaders.ACCEPT),
+                    request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+            String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            CachedResponse cached = revalidate(request) ? null : cache.get(key);
+            if (cached != null) {
+                return writeCached(exchange.getResponse(), cached, ifNoneMatch);
+            }
+
+            // Upstream must send the full body to cache, even when the caller holds a copy
+            ServerHttpRequest upstream = request.mutate()
+                    .headers(headers -> {
+                        headers.remove(HttpHeaders.IF_NONE_MATCH);
+                        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                    })
+                    .build();
+            long generation = cache.generation(routeId, path);
+            CachingResponse response = new CachingResponse(exchange.getResponse(), key, generation, ifNoneMatch,
+                    config);
+            return chain.filter(exchange.mutate().request(upstream).response(response).build());
+        }, ORDER);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private static boolean revalidate(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        String pragma = request.getHeaders().getPragma();
+        return (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-cache"))
+                || (pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache"));
+    }
+
+    private static Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, String ifNoneMatch) {
+        HttpHeaders headers = response.getHeaders();
+        if (GatewayResponseCache.matches(ifNoneMatch, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.setETag(cached.etag());
+            copy(cached.headers(), headers, HttpHeaders.CACHE_CONTROL);
+            copy(cached.headers(), headers, HttpHeaders.VARY);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.addAll(cached.headers());
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds()));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static void copy(HttpHeaders from, HttpHeaders to, String name) {
+        List<String> values = from.get(name);
+        if (values != null) {
+            to.put(name, values);
+        }
+    }
+
+    /**
+     * How long upstream allows the response to be cached; zero when it may not be.
+     */
+    static Duration ttl(HttpHeaders headers, Duration fallback) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getVary().contains("*")) {
+            return Duration.ZERO;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return fallback;
+        }
+        Long maxAge = null;
+        Long sharedMaxAge = null;
+        try {
+            for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+                String name = directive.trim();
+                if (name.equals("no-store") || name.equals("no-cache")) {
+                    return Duration.ZERO;
+                } else if (name.startsWith("s-maxage=")) {
+                    sharedMaxAge = Long.parseLong(name.substring("s-maxage=".length()));
+                } else if (name.startsWith("max-age=")) {
+                    maxAge = Long.parseLong(name.substring("max-age=".length()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return Duration.ZERO;
+        }
+        Long seconds = sharedMaxAge != null ? sharedMaxAge : maxAge;
+        return seconds != null ? Duration.ofSeconds(Math.max(0, seconds)) : fallback;
+    }
+
+    /**
+     * Whether a 200 response may be copied into the cache: a JSON body of known length within {@code maxBodyBytes}
+     * that is not a download. Anything else, such as a streamed export, passes through untouched.
+     */
+    static boolean storable(HttpHeaders headers, int maxBodyBytes) {
+        long length = headers.getContentLength();
+        MediaType contentType = headers.getContentType();
+        return length >= 0 && length <= maxBodyBytes
+                && !headers.getContentDisposition().isAttachment()
+                && contentType != null
+                && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                        || "json".equals(contentType.getSubtypeSuffix()));
+    }
+
+    /**
+     * Copies a cacheable upstream body into the cache as it passes through, and answers an {@code If-None-Match}
+     * matching upstream's tag with 304.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final Key key;
+        private final long generation;
+        private final String ifNoneMatch;
+        private final Config config;
+
+        private CachingResponse(ServerHttpResponse delegate, Key key, long generation, String ifNoneMatch,
+                                Config config) {
+            super(delegate);
+            this.key = key;
+            this.generation = generation;
+            this.ifNoneMatch = ifNoneMatch;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!HttpStatus.OK.equals(getStatusCode())) {
+                return super.writeWith(body);
+            }
+            HttpHeaders headers = getHeaders();
+            String etag = headers.getETag();
+            if (etag != null && GatewayResponseCache.matches(ifNoneMatch, etag)) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then(setComplete());
+            }
+            Duration ttl = storable(headers, config.getMaxBodyBytes()) ? ttl(headers, config.getTtl()) : Duration.ZERO;
+            if (ttl.isZero()) {
+                return super.writeWith(body);
+            }
+
+            HttpHeaders stored = new HttpHeaders();
+            stored.addAll(headers);
+            UNCACHED_HEADERS.forEach(stored::remove);
+            ByteArrayOutputStream copy = new ByteArrayOutputStream((int) headers.getContentLength());
+            AtomicBoolean abandoned = new AtomicBoolean();
+            Flux<? extends DataBuffer> recorded = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        if (abandoned.get() || copy.size() + readable > config.getMaxBodyBytes()) {
+                            abandoned.set(true);
+                            return;
+                        }
+                        byte[] chunk = new byte[readable];
+                        int position = buffer.readPosition();
+                        buffer.read(chunk);
+                        buffer.readPosition(position);
+                        copy.writeBytes(chunk);
+                    })
+                    .doOnComplete(() -> {
+                        if (!abandoned.get()) {
+                            cache.put(key, CachedResponse.of(stored, copy.toByteArray(), ttl), generation);
+                        }
+                    });
+            return super.writeWith(recorded);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        private List<String> paths = List.of();
+
+        private Duration ttl = Duration.ZERO;
+
+        private int maxBodyBytes = 256 * 1024;
+    }
+}
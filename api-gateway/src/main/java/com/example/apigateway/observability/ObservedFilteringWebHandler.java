@@ -0,0 +1,74 @@
+package com.example.apigateway.observability;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.List;
+
+/**
+ * The gateway's filter chain with every global and route filter wrapped in an {@link ObservedGatewayFilter}, tagged
+ * with the filter and route. The route id is also put in the Reactor context under {@link #ROUTE_ID_CONTEXT_KEY}
+ * for instrumentation that only sees the upstream call, such as {@link UpstreamTimings}.
+ */
+public class ObservedFilteringWebHandler extends FilteringWebHandler {
+
+    public static final String ROUTE_ID_CONTEXT_KEY = ObservedFilteringWebHandler.class.getName() + ".routeId";
+
+    private static final String FACTORY_SUFFIX = "GatewayFilterFactory";
+
+    private final ObservationRegistry registry;
+
+    public ObservedFilteringWebHandler(List<GlobalFilter> globalFilters, boolean routeFilterCacheEnabled,
+                                       ObservationRegistry registry) {
+        super(globalFilters, routeFilterCacheEnabled);
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange) {
+        Route route = exchange.getRequiredAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return super.handle(exchange).contextWrite(Context.of(ROUTE_ID_CONTEXT_KEY, route.getId()));
+    }
+
+    /**
+     * Wraps the sorted filters, so their order is unchanged.
+     */
+    @Override
+    protected List<GatewayFilter> getAllFilters(Route route) {
+        return super.getAllFilters(route).stream()
+                .<GatewayFilter>map(filter -> new ObservedGatewayFilter(filter, filterName(filter), route.getId(),
+                        registry))
+                .toList();
+    }
+
+    /**
+     * The simple class name of the filter, or of the factory that created it without the {@code GatewayFilterFactory}
+     * suffix, i.e. the name routes are configured with.
+     */
+    static String filterName(GatewayFilter filter) {
+        Object target = filter;
+        while (target instanceof OrderedGatewayFilter ordered) {
+            target = ordered.getDelegate();
+        }
+        Class<?> type = target instanceof DecoratingProxy proxy ? proxy.getDecoratedClass() : target.getClass();
+        String name = type.getName();
+        name = name.substring(name.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        if (nested > 0) {
+            name = name.substring(0, nested);
+        }
+        if (name.endsWith(FACTORY_SUFFIX) && name.length() > FACTORY_SUFFIX.length()) {
+            name = name.substring(0, name.length() - FACTORY_SUFFIX.length());
+        }
+        return name;
+    }
+}
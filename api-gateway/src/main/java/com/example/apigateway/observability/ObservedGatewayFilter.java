@@ -0,0 +1,78 @@
+package com.example.apigateway.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs one filter of a route's chain inside a {@code gateway.filter} observation. The observation covers the
+ * filter's own work: it starts when the filter is subscribed and stops when the filter hands the exchange to the
+ * next one ({@code outcome=NEXT}), or when it completes without doing so ({@code RESPONDED}, e.g. a 401, a 429 or
+ * a cache hit), fails ({@code ERROR}) or is cancelled ({@code CANCELLED}). What a filter does after the rest of the
+ * chain completes is not included.
+ */
+class ObservedGatewayFilter implements GatewayFilter {
+
+    static final String NAME = "gateway.filter";
+
+    private final GatewayFilter delegate;
+    private final String filterName;
+    private final String routeId;
+    private final ObservationRegistry registry;
+
+    ObservedGatewayFilter(GatewayFilter delegate, String filterName, String routeId, ObservationRegistry registry) {
+        this.delegate = delegate;
+        this.filterName = filterName;
+        this.routeId = routeId;
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return Mono.deferContextual(context -> {
+            Observation observation = Observation.createNotStarted(NAME, registry)
+                    .contextualName("gateway filter " + filterName)
+                    .lowCardinalityKeyValue("filter", filterName)
+                    .lowCardinalityKeyValue("route", routeId)
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .start();
+            AtomicBoolean open = new AtomicBoolean(true);
+            GatewayFilterChain next = nextExchange -> Mono.defer(() -> {
+                stop(observation, open, "NEXT");
+                return chain.filter(nextExchange);
+            });
+            Mono<Void> result;
+            try {
+                result = delegate.filter(exchange, next);
+            } catch (RuntimeException e) {
+                result = Mono.error(e);
+            }
+            return result
+                    .doOnSuccess(done -> stop(observation, open, "RESPONDED"))
+                    .doOnError(error -> {
+                        if (open.get()) {
+                            observation.error(error);
+                        }
+                        stop(observation, open, "ERROR");
+                    })
+                    .doOnCancel(() -> stop(observation, open, "CANCELLED"));
+        });
+    }
+
+    private static void stop(Observation observation, AtomicBoolean open, String outcome) {
+        if (open.compareAndSet(true, false)) {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Observed[" + delegate + "]";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.apigateway.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.AttributeKey;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the two phases of an upstream call that the filter timings cannot separate, per route:
+ * {@code gateway.upstream.connect}, establishing a new connection (calls on a pooled connection record nothing), and
+ * {@code gateway.upstream.ttfb}, from the request being sent to the response headers arriving.
+ */
+public class UpstreamTimings implements HttpClientCustomizer {
+
+    private static final AttributeKey<Long> CONNECT_STARTED = AttributeKey.valueOf("gateway.upstream.connectStarted");
+    private static final AttributeKey<Long> CONNECT_NANOS = AttributeKey.valueOf("gateway.upstream.connectNanos");
+    private static final AttributeKey<Long> REQUEST_SENT = AttributeKey.valueOf("gateway.upstream.requestSent");
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamTimings(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public HttpClient customize(HttpClient httpClient) {
+        return httpClient
+                .doOnChannelInit((observer, channel, remoteAddress) ->
+                        channel.attr(CONNECT_STARTED).set(System.nanoTime()))
+                .doOnConnected(connection -> {
+                    Long started = connection.channel().attr(CONNECT_STARTED).getAndSet(null);
+                    if (started != null) {
+                        connection.channel().attr(CONNECT_NANOS).set(System.nanoTime() - started);
+                    }
+                })
+                // The connection is only matched to a request, and so to its route, once the request starts
+                .doOnRequest((request, connection) -> {
+                    Long connectNanos = connection.channel().attr(CONNECT_NANOS).getAndSet(null);
+                    if (connectNanos != null) {
+                        timer("gateway.upstream.connect", "Time to establish a new connection to an upstream",
+                                request.currentContextView()).record(connectNanos, TimeUnit.NANOSECONDS);
+                    }
+                })
+                .doAfterRequest((request, connection) ->
+                        connection.channel().attr(REQUEST_SENT).set(System.nanoTime()))
+                .doOnResponse((response, connection) -> {
+                    Long sent = connection.channel().attr(REQUEST_SENT).getAndSet(null);
+                    if (sent != null) {
+                        timer("gateway.upstream.ttfb", "Time from sending a request upstream to its response headers",
+                                response.currentContextView()).record(System.nanoTime() - sent, TimeUnit.NANOSECONDS);
+                    }
+                });
+    }
+
+    private Timer timer(String name, String description, ContextView context) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("route", context.getOrDefault(ObservedFilteringWebHandler.ROUTE_ID_CONTEXT_KEY, "unknown"))
+                .register(meterRegistry);
+    }
+}
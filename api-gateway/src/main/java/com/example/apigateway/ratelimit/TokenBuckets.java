@@ -0,0 +1,65 @@
+package com.example.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets keyed by client, one per key, all with the same rate and capacity.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again (the "theoretical
+ * arrival time" of the generic cell rate algorithm), updated with compare-and-set, so taking a token never locks.
+ * The buckets live in a Caffeine cache, whose hash table is striped across its bins. A bucket left alone for the time
+ * it takes to refill completely is full again, indistinguishable from a new one, and expires; {@code maxKeys} bounds
+ * memory when more clients than that are active at once, at the cost of evicted clients starting over with a full
+ * bucket.
+ */
+public class TokenBuckets {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param replenishRate tokens added per second
+     * @param burstCapacity tokens a full bucket holds
+     */
+    public TokenBuckets(double replenishRate, int burstCapacity, long maxKeys) {
+        if (replenishRate <= 0 || burstCapacity < 1) {
+            throw new IllegalArgumentException("replenishRate must be positive and burstCapacity at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / replenishRate));
+        this.burstNanos = intervalNanos * (burstCapacity - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos + intervalNanos))
+                .build();
+    }
+
+    /**
+     * Takes a token from the key's bucket.
+     *
+     * @return {@code 0} when a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            long from = Math.max(fullAt, now);
+            long wait = from - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, from + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.apigateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.apigateway.cache.GatewayResponseCache.CachedResponse;
+import com.example.apigateway.cache.GatewayResponseCache.Key;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class GatewayResponseCacheTest {
+
+    private GatewayResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GatewayResponseCache(1024 * 1024, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void matches_usesWeakComparison_andAcceptsAnyTagForStar() {
+        // When & Then
+        assertTrue(GatewayResponseCache.matches("\"a\"", "\"a\""));
+        assertTrue(GatewayResponseCache.matches("W/\"a\"", "\"a\""));
+        assertTrue(GatewayResponseCache.matches("\"x\", \"a\"", "\"a\""));
+        assertTrue(GatewayResponseCache.matches("*", "\"a\""));
+        assertFalse(GatewayResponseCache.matches("\"b\"", "\"a\""));
+        assertFalse(GatewayResponseCache.matches(null, "\"a\""));
+    }
+
+    @Test
+    void cachedResponse_keepsUpstreamStrongTag_andReplacesWeakOne() {
+        // Given
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        HttpHeaders strong = new HttpHeaders();
+        strong.setETag("\"v1\"");
+        HttpHeaders weak = new HttpHeaders();
+        weak.setETag("W/\"v1\"");
+
+        // When & Then
+        assertEquals("\"v1\"", CachedResponse.of(strong, body, Duration.ofSeconds(1)).etag());
+        assertEquals(GatewayResponseCache.etag(body), CachedResponse.of(weak, body, Duration.ofSeconds(1)).etag());
+    }
+
+    @Test
+    void evictPath_dropsEveryCallerAndQueryOfThatPathOnly() {
+        // Given
+        Key alice = key("/users/1", null, "1");
+        Key bobWithQuery = key("/users/1", "fields=name", "2");
+        Key other = key("/users/2", null, "1");
+        Key otherRoute = new Key("other", "/users/1", null, "1", null, null);
+        for (Key key : new Key[] {alice, bobWithQuery, other, otherRoute}) {
+            cache.put(key, response(), 0);
+        }
+
+        // When
+        cache.evictPath("user-service", "/users/1");
+
+        // Then
+        assertNull(cache.get(alice));
+        assertNull(cache.get(bobWithQuery));
+        assertNotNull(cache.get(other));
+        assertNotNull(cache.get(otherRoute));
+    }
+
+    @Test
+    void evictPath_afterEvictingAgain_cachesTheNextResponse() {
+        // Given
+        Key key = key("/users/1", null, "1");
+        cache.put(key, response(), 0);
+        cache.evictPath("user-service", "/users/1");
+
+        // When
+        cache.put(key, response(), cache.generation("user-service", "/users/1"));
+        cache.evictPath("user-service", "/users/2");
+
+        // Then
+        assertNotNull(cache.get(key));
+        cache.evictPath("user-service", "/users/1");
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void put_afterThePathWasEvicted_isSkipped() {
+        // Given
+        Key key = key("/users/1", null, "1");
+        Key other = key("/users/2", null, "1");
+        long generation = cache.generation("user-service", "/users/1");
+
+        // When
+        cache.evictPath("user-service", "/users/1");
+        cache.put(key, response(), generation);
+        cache.put(other, response(), generation);
+
+        // Then
+        assertNull(cache.get(key));
+        assertNotNull(cache.get(other));
+    }
+
+    private static Key key(String path, String query, String caller) {
+        return new Key("user-service", path, query, caller, "application/json", null);
+    }
+
+    private static CachedResponse response() {
+        return CachedResponse.of(new HttpHeaders(), "{}".getBytes(StandardCharsets.UTF_8), Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.apigateway.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.cursor.common.jwt.VerifiedJwt;
+import com.example.apigateway.cache.VerifiedTokenCache.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private MutableClock clock;
+    private VerifiedTokenCache cache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        cache = new VerifiedTokenCache(100, new SimpleMeterRegistry(), clock,
+                () -> TimeUnit.MILLISECONDS.toNanos(clock.millis()));
+        verifications = new AtomicInteger();
+    }
+
+    @Test
+    void get_expiresTheEntryAtTheTokensExp() {
+        // Given
+        VerifiedToken token = new VerifiedToken("1", "USER", NOW + 1_000);
+        cache.get("token", () -> verified(token));
+
+        // When
+        clock.advance(999);
+        cache.get("token", () -> verified(token));
+        clock.advance(1);
+        cache.get("token", () -> verified(token));
+
+        // Then
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void get_tokenWithoutExp_staysCached() {
+        // Given
+        VerifiedToken token = new VerifiedToken("1", "USER", VerifiedJwt.NO_EXPIRY);
+        cache.get("token", () -> verified(token));
+
+        // When
+        clock.advance(TimeUnit.DAYS.toMillis(365));
+        cache.get("token", () -> verified(token));
+
+        // Then
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void get_isKeyedByTheTokensSha256() throws Exception {
+        // Given
+        VerifiedToken token = new VerifiedToken("1", "USER", NOW + 60_000);
+        String raw = "header.payload.signature";
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.US_ASCII));
+
+        // When
+        cache.get(raw, () -> verified(token));
+        cache.get(new String(raw.toCharArray()), () -> verified(token));
+        cache.get(raw + "x", () -> verified(token));
+
+        // Then
+        assertEquals(Base64.getEncoder().encodeToString(hash), VerifiedTokenCache.digest(raw));
+        assertFalse(VerifiedTokenCache.digest(raw).contains(raw));
+        assertEquals(2, verifications.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void get_neverCachesAVerificationFailure() {
+        // Given
+        VerifiedToken token = new VerifiedToken("1", "USER", NOW + 60_000);
+
+        // When
+        assertThrows(JwtException.class, () -> cache.get("token", () -> {
+            verifications.incrementAndGet();
+            throw new ExpiredJwtException(null, null, "expired");
+        }));
+        VerifiedToken result = cache.get("token", () -> verified(token));
+
+        // Then
+        assertEquals(token, result);
+        assertEquals(2, verifications.get());
+    }
+
+    private VerifiedToken verified(VerifiedToken token) {
+        verifications.incrementAndGet();
+        return token;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
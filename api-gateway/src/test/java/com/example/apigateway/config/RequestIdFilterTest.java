@@ -0,0 +1,77 @@
+package com.example.apigateway.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.cursor.common.requestid.RequestIds;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter(() -> "issued");
+
+    @BeforeAll
+    static void enableContextPropagation() {
+        // What spring.reactor.context-propagation=auto turns on
+        Hooks.enableAutomaticContextPropagation();
+    }
+
+    @AfterAll
+    static void disableContextPropagation() {
+        Hooks.disableAutomaticContextPropagation();
+    }
+
+    @Test
+    void requestId_isInTheMdcOfAnotherThread_andClearedAfterwards() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1")
+                .header(RequestIds.HEADER, "caller-id"));
+        AtomicReference<String> seen = new AtomicReference<>();
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        GatewayFilterChain chain = forwarded -> Mono.just(forwarded)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(ignored -> {
+                    seen.set(MDC.get(RequestIds.MDC_KEY));
+                    thread.set(Thread.currentThread());
+                })
+                .then();
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals("caller-id", seen.get());
+        assertNotEquals(Thread.currentThread(), thread.get());
+        assertNull(MDC.get(RequestIds.MDC_KEY));
+    }
+
+    @Test
+    void missingRequestId_isIssuedAndForwarded() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1"));
+        AtomicReference<String> forwardedHeader = new AtomicReference<>();
+        AtomicReference<String> seen = new AtomicReference<>();
+        GatewayFilterChain chain = forwarded -> Mono.fromRunnable(() -> {
+            forwardedHeader.set(forwarded.getRequest().getHeaders().getFirst(RequestIds.HEADER));
+            seen.set(MDC.get(RequestIds.MDC_KEY));
+        }).subscribeOn(Schedulers.parallel()).then();
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals("issued", forwardedHeader.get());
+        assertEquals("issued", seen.get());
+    }
+}
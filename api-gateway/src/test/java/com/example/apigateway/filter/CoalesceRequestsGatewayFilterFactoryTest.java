@@ -0,0 +1,198 @@
+package com.example.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.apigateway.cache.GatewayResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CoalesceRequestsGatewayFilterFactoryTest {
+
+    private static final Duration UPSTREAM_DELAY = Duration.ofMillis(200);
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalesceRequestsGatewayFilterFactory.Config config;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new CoalesceRequestsGatewayFilterFactory.Config();
+        config.setScope(CoalesceRequestsGatewayFilterFactory.Scope.ROLES);
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void concurrentIdenticalGets_shareOneDelayedUpstreamCall() {
+        // Given
+        GatewayFilter filter = filter();
+        MockServerWebExchange leader = exchange("/users/1", "1", "USER,ADMIN");
+        MockServerWebExchange follower = exchange("/users/1", "2", "ADMIN,USER");
+
+        // When
+        StepVerifier.create(Mono.when(filter.filter(leader, upstream("{\"id\":1}")),
+                        filter.filter(follower, upstream("{\"id\":1}"))))
+                .verifyComplete();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, follower.getResponse().getHeaders().getContentType());
+        assertEquals("{\"id\":1}", follower.getResponse().getBodyAsString().block());
+        assertEquals("{\"id\":1}", leader.getResponse().getBodyAsString().block());
+        assertEquals(1, count("leader"));
+        assertEquals(1, count("follower"));
+    }
+
+    @Test
+    void differentRolesOrPaths_goUpstreamSeparately() {
+        // Given
+        GatewayFilter filter = filter();
+
+        // When
+        StepVerifier.create(Mono.when(filter.filter(exchange("/users/1", "1", "USER"), upstream("{}")),
+                        filter.filter(exchange("/users/1", "2", "ADMIN"), upstream("{}")),
+                        filter.filter(exchange("/users/2", "1", "USER"), upstream("{}"))))
+                .verifyComplete();
+
+        // Then
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(3, count("leader"));
+    }
+
+    @Test
+    void waitersBeyondMaxWaiters_goUpstreamThemselves() {
+        // Given
+        config.setMaxWaiters(1);
+        GatewayFilter filter = filter();
+
+        // When
+        StepVerifier.create(Mono.when(filter.filter(exchange("/users/1", "1", "USER"), upstream("{}")),
+                        filter.filter(exchange("/users/1", "2", "USER"), upstream("{}")),
+                        filter.filter(exchange("/users/1", "3", "USER"), upstream("{}"))))
+                .verifyComplete();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, count("follower"));
+        assertEquals(1, count("overflow"));
+    }
+
+    @Test
+    void bodyLargerThanMaxBodyBytes_sendsTheWaiterUpstream() {
+        // Given
+        config.setMaxBodyBytes(4);
+        GatewayFilter filter = filter();
+        MockServerWebExchange follower = exchange("/users/1", "2", "USER");
+
+        // When
+        StepVerifier.create(Mono.when(filter.filter(exchange("/users/1", "1", "USER"), upstream("{\"id\":1}")),
+                        filter.filter(follower, upstream("{\"id\":1}"))))
+                .verifyComplete();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("{\"id\":1}", follower.getResponse().getBodyAsString().block());
+        assertEquals(1, count("fallback"));
+    }
+
+    @Test
+    void leaderAnswered304ByTheResponseCache_stillReplaysTheFullResponse() {
+        // Given
+        ResponseCacheGatewayFilterFactory.Config cacheConfig = new ResponseCacheGatewayFilterFactory.Config();
+        cacheConfig.setPaths(List.of("/users/{id:[0-9]+}"));
+        GatewayFilter responseCache = new ResponseCacheGatewayFilterFactory(
+                new GatewayResponseCache(1024 * 1024, meterRegistry)).apply(cacheConfig);
+        GatewayFilter coalesce = filter();
+        GatewayFilterChain upstream = upstream("{\"id\":1}", "\"v1\"");
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get("/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""), "1", "USER");
+        MockServerWebExchange follower = exchange("/users/1", "2", "USER");
+
+        // When
+        StepVerifier.create(Mono.when(
+                        responseCache.filter(leader, exchange -> coalesce.filter(exchange, upstream)),
+                        responseCache.filter(follower, exchange -> coalesce.filter(exchange, upstream))))
+                .verifyComplete();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, leader.getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+        assertEquals("\"v1\"", follower.getResponse().getHeaders().getETag());
+        assertEquals(8, follower.getResponse().getHeaders().getContentLength());
+        assertEquals("{\"id\":1}", follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void unauthenticatedRequests_areNotCoalesced() {
+        // Given
+        GatewayFilter filter = filter();
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1"));
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1"));
+
+        // When
+        StepVerifier.create(Mono.when(filter.filter(first, upstream("{}")), filter.filter(second, upstream("{}"))))
+                .verifyComplete();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private GatewayFilter filter() {
+        return new CoalesceRequestsGatewayFilterFactory(meterRegistry).apply(config);
+    }
+
+    /**
+     * An upstream that answers after {@link #UPSTREAM_DELAY}, so requests arriving meanwhile find it in flight.
+     */
+    private GatewayFilterChain upstream(String body) {
+        return upstream(body, null);
+    }
+
+    private GatewayFilterChain upstream(String body, String etag) {
+        return exchange -> Mono.delay(UPSTREAM_DELAY).then(Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(body.getBytes(StandardCharsets.UTF_8).length);
+            if (etag != null) {
+                response.getHeaders().setETag(etag);
+            }
+            return response.writeWith(Mono.fromSupplier(
+                    () -> response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }));
+    }
+
+    private static MockServerWebExchange exchange(String path, String userId, String roles) {
+        return exchange(MockServerHttpRequest.get(path), userId, roles);
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, String userId,
+                                                  String roles) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(JwtAuthFilter.USER_ID_ATTRIBUTE, userId);
+        exchange.getAttributes().put(JwtAuthFilter.ROLES_ATTRIBUTE, roles);
+        return exchange;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.requests.coalesced").tag("result", result).counter().count();
+    }
+}
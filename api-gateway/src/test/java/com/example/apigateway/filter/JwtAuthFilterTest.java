@@ -0,0 +1,120 @@
+package com.example.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.cursor.common.jwt.JwtService;
+import com.cursor.common.jwt.VerifiedJwt;
+import com.example.apigateway.cache.VerifiedTokenCache;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class JwtAuthFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private JwtService jwtService;
+    private JwtAuthFilter filter;
+    private AtomicReference<ServerWebExchange> forwarded;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        filter = new JwtAuthFilter(jwtService, new VerifiedTokenCache(100, new SimpleMeterRegistry()));
+        forwarded = new AtomicReference<>();
+    }
+
+    @Test
+    void cachedToken_skipsVerification_andSetsTheCallerOnTheExchange() {
+        // Given
+        when(jwtService.verify(TOKEN)).thenReturn(
+                new VerifiedJwt("42", List.of("USER", "ADMIN"), System.currentTimeMillis() + 60_000));
+        filter.filter(exchange(TOKEN), chain()).block();
+
+        // When
+        MockServerWebExchange hit = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .header("X-User-Id", "1")
+                .header("X-Roles", "ADMIN"));
+        filter.filter(hit, chain()).block();
+
+        // Then
+        verify(jwtService, times(1)).verify(TOKEN);
+        ServerWebExchange exchange = forwarded.get();
+        assertEquals(List.of("42"), exchange.getRequest().getHeaders().get("X-User-Id"));
+        assertEquals(List.of("USER,ADMIN"), exchange.getRequest().getHeaders().get("X-Roles"));
+        assertEquals("42", exchange.getAttribute(JwtAuthFilter.USER_ID_ATTRIBUTE));
+        assertEquals("USER,ADMIN", exchange.getAttribute(JwtAuthFilter.ROLES_ATTRIBUTE));
+    }
+
+    @Test
+    void tokenWithoutRoles_forwardsEmptyRoles() {
+        // Given
+        when(jwtService.verify(TOKEN)).thenReturn(new VerifiedJwt("42", null, VerifiedJwt.NO_EXPIRY));
+
+        // When
+        filter.filter(exchange(TOKEN), chain()).block();
+
+        // Then
+        assertEquals("", forwarded.get().getRequest().getHeaders().getFirst("X-Roles"));
+        assertEquals("", forwarded.get().getAttribute(JwtAuthFilter.ROLES_ATTRIBUTE));
+    }
+
+    @Test
+    void invalidToken_isRejectedEveryTime_andNeverCached() {
+        // Given
+        when(jwtService.verify(TOKEN)).thenThrow(new SignatureException("bad signature"));
+        MockServerWebExchange first = exchange(TOKEN);
+        MockServerWebExchange second = exchange(TOKEN);
+
+        // When
+        filter.filter(first, chain()).block();
+        filter.filter(second, chain()).block();
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, first.getResponse().getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, second.getResponse().getStatusCode());
+        verify(jwtService, times(2)).verify(TOKEN);
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void missingBearer_isRejectedWithoutVerification() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1"));
+
+        // When
+        filter.filter(exchange, chain()).block();
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        verify(jwtService, times(0)).verify(TOKEN);
+    }
+
+    private GatewayFilterChain chain() {
+        return exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/users/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class LocalRateLimitGatewayFilterFactoryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+    private AtomicInteger upstreamCalls;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LocalRateLimitGatewayFilterFactory.Config config = new LocalRateLimitGatewayFilterFactory.Config();
+        config.setUserReplenishRate(1);
+        config.setUserBurstCapacity(1);
+        config.setIpReplenishRate(1);
+        config.setIpBurstCapacity(2);
+        filter = new LocalRateLimitGatewayFilterFactory(meterRegistry).apply(config);
+        upstreamCalls = new AtomicInteger();
+        chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.empty();
+        };
+    }
+
+    @Test
+    void userOverLimit_isRejectedWith429AndRetryAfter() {
+        // Given
+        MockServerWebExchange first = exchange("10.0.0.1", "7");
+        MockServerWebExchange second = exchange("10.0.0.1", "7");
+
+        // When
+        filter.filter(first, chain).block();
+        filter.filter(second, chain).block();
+
+        // Then
+        assertNull(first.getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, second.getResponse().getStatusCode());
+        assertEquals("1", second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, meterRegistry.get("gateway.ratelimit.rejected").tag("limit", "user").counter().count());
+    }
+
+    @Test
+    void addressOverLimit_isRejectedWhateverTheUser() {
+        // When
+        filter.filter(exchange("10.0.0.2", "1"), chain).block();
+        filter.filter(exchange("10.0.0.2", "2"), chain).block();
+        MockServerWebExchange third = exchange("10.0.0.2", "3");
+        filter.filter(third, chain).block();
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, third.getResponse().getStatusCode());
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, meterRegistry.get("gateway.ratelimit.rejected").tag("limit", "ip").counter().count());
+    }
+
+    private static MockServerWebExchange exchange(String address, String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1")
+                .remoteAddress(new InetSocketAddress(address, 40000)));
+        exchange.getAttributes().put(JwtAuthFilter.USER_ID_ATTRIBUTE, userId);
+        return exchange;
+    }
+}
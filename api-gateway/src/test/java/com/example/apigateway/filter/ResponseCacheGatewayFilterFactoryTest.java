@@ -0,0 +1,240 @@
+package com.example.apigateway.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.apigateway.cache.GatewayResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"id\":1}";
+
+    private GatewayResponseCache cache;
+    private GatewayFilter filter;
+    private AtomicInteger upstreamCalls;
+    private HttpHeaders upstreamHeaders;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setPaths(List.of("/users/{id:[0-9]+}"));
+        cache = new GatewayResponseCache(1024 * 1024, new SimpleMeterRegistry());
+        filter = new ResponseCacheGatewayFilterFactory(cache).apply(config);
+        upstreamCalls = new AtomicInteger();
+        upstreamHeaders = new HttpHeaders();
+        upstreamHeaders.setContentType(MediaType.APPLICATION_JSON);
+        upstreamHeaders.setContentLength(BODY.length());
+        upstreamHeaders.setCacheControl("max-age=0, s-maxage=30");
+    }
+
+    @Test
+    void ttl_prefersSharedMaxAge_andRefusesPrivateMarkers() {
+        // Given
+        Duration fallback = Duration.ofSeconds(30);
+
+        // When & Then
+        assertEquals(fallback, ResponseCacheGatewayFilterFactory.ttl(new HttpHeaders(), fallback));
+        assertEquals(Duration.ofSeconds(10),
+                ResponseCacheGatewayFilterFactory.ttl(cacheControl("max-age=10"), fallback));
+        assertEquals(Duration.ofSeconds(5),
+                ResponseCacheGatewayFilterFactory.ttl(cacheControl("max-age=10, s-maxage=5"), fallback));
+        assertEquals(Duration.ZERO, ResponseCacheGatewayFilterFactory.ttl(cacheControl("no-store"), fallback));
+        assertEquals(Duration.ZERO, ResponseCacheGatewayFilterFactory.ttl(cacheControl("max-age=abc"), fallback));
+        HttpHeaders cookie = new HttpHeaders();
+        cookie.add(HttpHeaders.SET_COOKIE, "session=1");
+        assertEquals(Duration.ZERO, ResponseCacheGatewayFilterFactory.ttl(cookie, fallback));
+        HttpHeaders varyAll = new HttpHeaders();
+        varyAll.setVary(List.of("*"));
+        assertEquals(Duration.ZERO, ResponseCacheGatewayFilterFactory.ttl(varyAll, fallback));
+    }
+
+    @Test
+    void storable_onlyJsonOfKnownLengthWithinLimit_thatIsNotADownload() {
+        // Given
+        HttpHeaders chunked = new HttpHeaders();
+        chunked.setContentType(MediaType.APPLICATION_JSON);
+        HttpHeaders problem = json(10);
+        problem.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        HttpHeaders attachment = json(10);
+        attachment.setContentDisposition(ContentDisposition.attachment().filename("users.json").build());
+        HttpHeaders ndjson = json(10);
+        ndjson.setContentType(MediaType.APPLICATION_NDJSON);
+
+        // When & Then
+        assertTrue(ResponseCacheGatewayFilterFactory.storable(json(10), 10));
+        assertTrue(ResponseCacheGatewayFilterFactory.storable(problem, 10));
+        assertFalse(ResponseCacheGatewayFilterFactory.storable(json(11), 10));
+        assertFalse(ResponseCacheGatewayFilterFactory.storable(chunked, 10));
+        assertFalse(ResponseCacheGatewayFilterFactory.storable(attachment, 10));
+        assertFalse(ResponseCacheGatewayFilterFactory.storable(ndjson, 10));
+    }
+
+    @Test
+    void secondGet_isServedFromTheGateway_withATag() {
+        // Given
+        filter.filter(get("/users/1"), upstream()).block();
+
+        // When
+        MockServerWebExchange hit = get("/users/1");
+        filter.filter(hit, upstream()).block();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, hit.getResponse().getStatusCode());
+        assertEquals(BODY, hit.getResponse().getBodyAsString().block());
+        assertNotNull(hit.getResponse().getHeaders().getETag());
+        assertNotNull(hit.getResponse().getHeaders().getFirst(HttpHeaders.AGE));
+    }
+
+    @Test
+    void hitWithMatchingIfNoneMatch_isAnswered304() {
+        // Given
+        filter.filter(get("/users/1"), upstream()).block();
+        MockServerWebExchange hit = get("/users/1");
+        filter.filter(hit, upstream()).block();
+        String etag = hit.getResponse().getHeaders().getETag();
+
+        // When
+        MockServerWebExchange conditional = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        filter.filter(conditional, upstream()).block();
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(etag, conditional.getResponse().getHeaders().getETag());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void missWithIfNoneMatchOfUpstreamsTag_isAnswered304() {
+        // Given
+        upstreamHeaders.setETag("\"v1\"");
+        MockServerWebExchange conditional = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+
+        // When
+        filter.filter(conditional, upstream()).block();
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertFalse(conditional.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void successfulWrite_evictsThePath() {
+        // Given
+        filter.filter(get("/users/1"), upstream()).block();
+
+        // When
+        MockServerWebExchange put = MockServerWebExchange.from(MockServerHttpRequest.put("/users/1"));
+        filter.filter(put, exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().setComplete();
+        }).block();
+        filter.filter(get("/users/1"), upstream()).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void evictionWhileTheGetIsInFlight_isNotOverwrittenByItsResponse() {
+        // Given
+        GatewayFilterChain evictedInFlight = exchange -> {
+            cache.evictPath("unknown", "/users/1");
+            return upstream().filter(exchange);
+        };
+
+        // When
+        filter.filter(get("/users/1"), evictedInFlight).block();
+        filter.filter(get("/users/1"), upstream()).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void responseWithoutFreshness_isNotCachedByDefault() {
+        // Given
+        upstreamHeaders.remove(HttpHeaders.CACHE_CONTROL);
+
+        // When
+        filter.filter(get("/users/1"), upstream()).block();
+        filter.filter(get("/users/1"), upstream()).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void pathsNotListed_areNeverCached() {
+        // When
+        filter.filter(get("/users/batch"), upstream()).block();
+        filter.filter(get("/users/batch"), upstream()).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void attachment_passesThroughUncached() {
+        // Given
+        upstreamHeaders.setContentDisposition(ContentDisposition.attachment().filename("user.json").build());
+
+        // When
+        MockServerWebExchange first = get("/users/1");
+        filter.filter(first, upstream()).block();
+        filter.filter(get("/users/1"), upstream()).block();
+
+        // Then
+        assertEquals(BODY, first.getResponse().getBodyAsString().block());
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().addAll(upstreamHeaders);
+            return response.writeWith(Mono.fromSupplier(
+                    () -> response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private static HttpHeaders cacheControl(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(value);
+        return headers;
+    }
+
+    private static HttpHeaders json(long length) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(length);
+        return headers;
+    }
+}
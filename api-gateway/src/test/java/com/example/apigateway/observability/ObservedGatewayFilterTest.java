@@ -0,0 +1,136 @@
+package com.example.apigateway.observability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.apigateway.filter.LocalRateLimitGatewayFilterFactory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ObservedGatewayFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservationRegistry observationRegistry;
+    private MockServerWebExchange exchange;
+    private AtomicBoolean nextCalled;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users/1"));
+        nextCalled = new AtomicBoolean();
+        chain = next -> Mono.fromRunnable(() -> nextCalled.set(true));
+    }
+
+    @Test
+    void filterPassingTheRequestOn_isTimedAsNext() {
+        // Given
+        GatewayFilter filter = observed((exchange, chain) -> chain.filter(exchange));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        // Then
+        assertTrue(nextCalled.get());
+        assertEquals(1, timer("NEXT").count());
+    }
+
+    @Test
+    void filterAnsweringItself_isTimedAsResponded() {
+        // Given
+        GatewayFilter filter = observed((exchange, chain) -> {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        });
+
+        // When
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        // Then
+        assertEquals(1, timer("RESPONDED").count());
+    }
+
+    @Test
+    void failingFilter_isTimedAsError_whetherItSignalsOrThrows() {
+        // Given
+        GatewayFilter signalling = observed((exchange, chain) -> Mono.error(new IllegalStateException("boom")));
+        GatewayFilter throwing = observed((exchange, chain) -> {
+            throw new IllegalStateException("boom");
+        });
+
+        // When
+        StepVerifier.create(signalling.filter(exchange, chain)).verifyError(IllegalStateException.class);
+        StepVerifier.create(throwing.filter(exchange, chain)).verifyError(IllegalStateException.class);
+
+        // Then
+        assertEquals(2, meterRegistry.get(ObservedGatewayFilter.NAME).tag("outcome", "ERROR")
+                .tag("error", "IllegalStateException").timer().count());
+    }
+
+    @Test
+    void cancelledFilter_isTimedAsCancelled() {
+        // Given
+        GatewayFilter filter = observed((exchange, chain) -> Mono.never());
+
+        // When
+        Disposable subscription = filter.filter(exchange, chain).subscribe();
+        subscription.dispose();
+
+        // Then
+        assertEquals(1, timer("CANCELLED").count());
+    }
+
+    @Test
+    void errorFromLaterFilters_doesNotChangeTheOutcome() {
+        // Given
+        GatewayFilter filter = observed((exchange, chain) -> chain.filter(exchange));
+        GatewayFilterChain failing = next -> Mono.delay(Duration.ofMillis(10))
+                .then(Mono.error(new IllegalStateException("upstream")));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, failing)).verifyError(IllegalStateException.class);
+
+        // Then
+        assertEquals(1, timer("NEXT").count());
+        assertEquals(1, meterRegistry.get(ObservedGatewayFilter.NAME).timers().size());
+    }
+
+    @Test
+    void filterName_isTheRouteConfigName() {
+        // Given
+        GatewayFilter rateLimit = new LocalRateLimitGatewayFilterFactory(meterRegistry)
+                .apply(new LocalRateLimitGatewayFilterFactory.Config());
+
+        // When & Then
+        assertEquals("LocalRateLimit", ObservedFilteringWebHandler.filterName(rateLimit));
+    }
+
+    private GatewayFilter observed(GatewayFilter delegate) {
+        return new ObservedGatewayFilter(delegate, "Test", "user-service", observationRegistry);
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get(ObservedGatewayFilter.NAME)
+                .tag("filter", "Test")
+                .tag("route", "user-service")
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
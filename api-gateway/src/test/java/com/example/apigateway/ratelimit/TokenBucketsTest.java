@@ -0,0 +1,66 @@
+package com.example.apigateway.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketsTest {
+
+    @Test
+    void fullBucket_allowsABurstOfItsCapacity_thenReportsTheWait() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(1, 3, 100);
+
+        // When
+        long first = buckets.tryAcquire("client");
+        long second = buckets.tryAcquire("client");
+        long third = buckets.tryAcquire("client");
+        long fourth = buckets.tryAcquire("client");
+
+        // Then
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertTrue(fourth > TimeUnit.MILLISECONDS.toNanos(900) && fourth <= TimeUnit.SECONDS.toNanos(1),
+                "wait was " + fourth);
+    }
+
+    @Test
+    void emptyBucket_refillsAtTheReplenishRate() throws InterruptedException {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(100, 2, 100);
+        buckets.tryAcquire("client");
+        buckets.tryAcquire("client");
+        long wait = buckets.tryAcquire("client");
+        assertTrue(wait > 0);
+
+        // When
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(2));
+
+        // Then
+        assertEquals(0, buckets.tryAcquire("client"));
+        assertTrue(buckets.tryAcquire("client") > 0);
+    }
+
+    @Test
+    void buckets_areIndependentPerKey() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(1, 1, 100);
+        buckets.tryAcquire("a");
+
+        // When & Then
+        assertTrue(buckets.tryAcquire("a") > 0);
+        assertEquals(0, buckets.tryAcquire("b"));
+        assertEquals(2, buckets.size());
+    }
+
+    @Test
+    void invalidRateOrCapacity_isRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(0, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(1, 0, 100));
+    }
+}
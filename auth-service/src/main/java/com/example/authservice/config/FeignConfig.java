@@ -1,6 +1,9 @@
 package com.example.authservice.config;
 
+import com.cursor.common.requestid.RequestIds;
 import feign.Logger;
+import feign.RequestInterceptor;
+import org.slf4j.MDC;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,4 +15,17 @@ public class FeignConfig {
         return Logger.Level.FULL;
     }
 
+    /**
+     * Passes the current request id on to user-service. Feign calls run on the request thread, whose MDC holds it.
+     */
+    @Bean
+    public RequestInterceptor requestIdInterceptor() {
+        return template -> {
+            String requestId = MDC.get(RequestIds.MDC_KEY);
+            if (requestId != null && !template.headers().containsKey(RequestIds.HEADER)) {
+                template.header(RequestIds.HEADER, requestId);
+            }
+        };
+    }
+
 }
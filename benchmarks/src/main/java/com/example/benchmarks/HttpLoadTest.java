@@ -0,0 +1,171 @@
+package com.example.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load against a running service, for comparing the platform- and virtual-thread modes of the same
+ * deployment. {@code concurrency} workers each send the request back to back; after {@code warmup}, every response
+ * is timed for {@code duration}. One line with throughput and latency percentiles is printed per run, so runs
+ * against both modes can be compared directly.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.example.benchmarks.HttpLoadTest \
+ *     --url=http://localhost:8082/auth/login --method=POST \
+ *     --body='{"username":"admin","password":"admin123"}' --concurrency=400 --duration=60s --label=virtual
+ * </pre>
+ * Being closed-loop, a saturated server lowers the request rate rather than queueing requests, so compare throughput
+ * and percentiles together.
+ */
+public final class HttpLoadTest {
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI url = URI.create(required(options, "url"));
+        String method = options.getOrDefault("method", "GET").toUpperCase(Locale.ROOT);
+        String body = options.get("body");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "15s").toUpperCase(Locale.ROOT));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "60s").toUpperCase(Locale.ROOT));
+        String label = options.getOrDefault("label", "run");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder template = HttpRequest.newBuilder(url)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> results = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(client, template.copy().build(), measureFrom, measureUntil);
+            results.add(workers.submit(worker::call));
+        }
+
+        LatencySamples all = new LatencySamples();
+        long errors = 0;
+        for (Future<Worker> result : results) {
+            Worker worker = result.get();
+            all.addAll(worker.samples);
+            errors += worker.errors;
+        }
+        workers.shutdown();
+
+        long[] sorted = all.sorted();
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf(Locale.ROOT,
+                "%s: %d requests, %d errors, %.1f req/s, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                label, sorted.length, errors, sorted.length / seconds, millis(sorted, 0.50), millis(sorted, 0.99),
+                millis(sorted, 0.999), sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name + "=...");
+        }
+        return value;
+    }
+
+    private static final class Worker {
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final LatencySamples samples = new LatencySamples();
+        private long errors;
+
+        private Worker(HttpClient client, HttpRequest request, long measureFrom, long measureUntil) {
+            this.client = client;
+            this.request = request;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        private Worker call() {
+            long start;
+            while ((start = System.nanoTime()) < measureUntil) {
+                boolean ok;
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    ok = status < 400;
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long end = System.nanoTime();
+                if (start >= measureFrom && end <= measureUntil) {
+                    if (ok) {
+                        samples.add(end - start);
+                    } else {
+                        errors++;
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class LatencySamples {
+        private long[] values = new long[1024];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(LatencySamples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        private long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.benchmarks;
+
+import com.cursor.common.jwt.JwtService;
+import com.example.apigateway.cache.VerifiedTokenCache;
+import com.example.apigateway.filter.JwtAuthFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path matching, token lookup and header mutation in the gateway's {@link JwtAuthFilter}.
+ * Exchanges are built once and the downstream chain is a no-op, so only the filter's own work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private static final GatewayFilterChain NO_OP_CHAIN = exchange -> Mono.empty();
+
+    private JwtAuthFilter filter;
+    private ServerWebExchange publicRequest;
+    private ServerWebExchange authorizedRequest;
+    private ServerWebExchange anonymousRequest;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(JwtServiceBenchmark.SECRET, 3600);
+        filter = new JwtAuthFilter(jwtService, new VerifiedTokenCache(10_000, new SimpleMeterRegistry()));
+        String bearer = "Bearer " + jwtService.generateToken("42", List.of("ADMIN", "USER"), null);
+
+        publicRequest = MockServerWebExchange.from(MockServerHttpRequest.get("/auth/login"));
+        authorizedRequest = MockServerWebExchange.from(MockServerHttpRequest.get("/users/42")
+                .header(HttpHeaders.AUTHORIZATION, bearer));
+        anonymousRequest = MockServerWebExchange.from(MockServerHttpRequest.get("/users/42"));
+    }
+
+    @Benchmark
+    public Mono<Void> publicPath() {
+        return filter.filter(publicRequest, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public Mono<Void> authorizedCachedToken() {
+        return filter.filter(authorizedRequest, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public Mono<Void> missingAuthorization() {
+        return filter.filter(anonymousRequest, NO_OP_CHAIN);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.benchmarks;
+
+import com.cursor.common.jwt.JwtService;
+import com.cursor.common.jwt.VerifiedJwt;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "2OhDTRAUQm3JIQ5oqDQJ7A5+wlkN63Wm2WeN8hLLhZY=";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3600);
+        token = jwtService.generateToken("42", List.of("ADMIN", "USER"), null);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("42", List.of("ADMIN", "USER"), null);
+    }
+
+    @Benchmark
+    public Claims parseAndValidate() {
+        return jwtService.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public VerifiedJwt verify() {
+        return jwtService.verify(token);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.benchmarks;
+
+import com.example.userservice.dto.RoleDto;
+import com.example.userservice.dto.RoleRequest;
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserRequest;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.mapper.RoleMapper;
+import com.example.userservice.mapper.UserMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MapStruct-generated {@link UserMapper} and {@link RoleMapper} implementations used on every user-service call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private UserMapper userMapper;
+    private RoleMapper roleMapper;
+    private User user;
+    private UserRequest userRequest;
+    private Role role;
+    private RoleRequest roleRequest;
+
+    @Setup
+    public void setUp() {
+        userMapper = Mappers.getMapper(UserMapper.class);
+        roleMapper = Mappers.getMapper(RoleMapper.class);
+
+        user = new User();
+        user.setId(42L);
+        user.setUsername("john_doe");
+        user.setEmail("john@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setStatus(User.Status.ACTIVE);
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
+
+        userRequest = new UserRequest();
+        userRequest.setUsername("john_doe");
+        userRequest.setEmail("john@example.com");
+        userRequest.setPassword("password123");
+
+        role = new Role();
+        role.setId(1L);
+        role.setName("ADMIN");
+
+        roleRequest = new RoleRequest();
+        roleRequest.setName("ADMIN");
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userRequest);
+    }
+
+    @Benchmark
+    public RoleDto roleToDto() {
+        return roleMapper.toDto(role);
+    }
+
+    @Benchmark
+    public Role roleToEntity() {
+        return roleMapper.toEntity(roleRequest);
+    }
+}
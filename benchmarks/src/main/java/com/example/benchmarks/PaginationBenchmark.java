@@ -0,0 +1,57 @@
+package com.example.benchmarks;
+
+import com.cursor.common.pagination.PageResponse;
+import com.cursor.common.pagination.PageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginationBenchmark {
+
+    private Page<String> page;
+
+    @Setup
+    public void setUp() {
+        List<String> content = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            content.add("user-" + i);
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, 20), 10_000);
+    }
+
+    @Benchmark
+    public Pageable buildPageableUnsorted() {
+        return PageUtils.buildPageable(1, 20, null, null);
+    }
+
+    @Benchmark
+    public Pageable buildPageableSorted() {
+        return PageUtils.buildPageable(3, 20, "username", "desc");
+    }
+
+    @Benchmark
+    public PageResponse<String> pageResponseFrom() {
+        return PageResponse.from(page);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.benchmarks;
+
+import com.example.userservice.config.RedisConfig;
+import com.example.userservice.dto.RoleDto;
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value serializers from {@link RedisConfig}: the default-typing JSON format and the compact binary format.
+ * Entry sizes are printed once per trial so bytes-per-entry can be compared alongside latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"json", "compact"})
+    private String format;
+
+    private RedisSerializer<Object> serializer;
+    private UserDto user;
+    private RoleDto role;
+    private byte[] userBytes;
+    private byte[] roleBytes;
+
+    @Setup
+    public void setUp() {
+        serializer = "json".equals(format) ? RedisConfig.jsonValueSerializer() : RedisConfig.compactValueSerializer();
+        user = new UserDto(42L, "john_doe", "john@example.com", "$2a$10$abcdefghijklmnopqrstuv", User.Status.ACTIVE);
+        role = new RoleDto(1L, "ADMIN");
+        userBytes = serializer.serialize(user);
+        roleBytes = serializer.serialize(role);
+        System.out.printf("%n[%s] UserDto entry: %d bytes, RoleDto entry: %d bytes%n",
+                format, userBytes.length, roleBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() {
+        return serializer.serialize(user);
+    }
+
+    @Benchmark
+    public Object deserializeUser() {
+        return serializer.deserialize(userBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeRole() {
+        return serializer.serialize(role);
+    }
+
+    @Benchmark
+    public Object deserializeRole() {
+        return serializer.deserialize(roleBytes);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.benchmarks;
+
+import com.cursor.common.requestid.RequestIdGenerator;
+import com.cursor.common.requestid.UlidRequestIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request id generation as done by the gateway and the services for requests without an {@code X-Request-Id}:
+ * random UUIDs against {@link UlidRequestIdGenerator}, on one thread and on eight sharing one generator, which is
+ * how a gateway's event loop threads use it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestIdBenchmark {
+
+    private final RequestIdGenerator uuid = RequestIdGenerator.uuid();
+    private final RequestIdGenerator ulid = new UlidRequestIdGenerator(1);
+
+    @Benchmark
+    public String uuid() {
+        return uuid.nextId();
+    }
+
+    @Benchmark
+    public String ulid() {
+        return ulid.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String uuidContended() {
+        return uuid.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String ulidContended() {
+        return ulid.nextId();
+    }
+}
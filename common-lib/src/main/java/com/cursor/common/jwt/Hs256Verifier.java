@@ -0,0 +1,287 @@
+package com.cursor.common.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.crypto.Mac;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Allocation-light HS256 verifier for compact JWS tokens.
+ * <p>
+ * Each thread keeps its own initialised {@link Mac} and scratch buffers, base64url segments are decoded in place,
+ * and only {@code sub}, {@code roles}, {@code exp} and {@code nbf} are read from the payload; every other claim is
+ * skipped without being materialised.
+ * <p>
+ * The verifier only accepts tokens jjwt would accept. Anything it cannot vouch for (non-canonical encoding,
+ * unexpected header fields, bad signature, expired, unusual claim types) yields {@code null} so the caller can
+ * fall back to jjwt, which then produces the authoritative result or exception.
+ */
+final class Hs256Verifier {
+
+    static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final ThreadLocal<Scratch> scratch;
+
+    Hs256Verifier(Key key) {
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(key));
+    }
+
+    VerifiedJwt tryVerify(String token, long nowMillis) {
+        int length = token.length();
+        if (length > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        Scratch s = scratch.get();
+        byte[] input = s.input;
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return null;
+                }
+            } else if (c >= 128 || BASE64URL[c] < 0) {
+                return null;
+            }
+            input[i] = (byte) c;
+        }
+        if (firstDot <= 0 || secondDot <= firstDot + 1
+                || length - secondDot - 1 != ENCODED_SIGNATURE_LENGTH) {
+            return null;
+        }
+
+        if (decode(input, secondDot + 1, length, s.provided, 0) != SIGNATURE_LENGTH) {
+            return null;
+        }
+        try {
+            s.mac.update(input, 0, secondDot);
+            s.mac.doFinal(s.computed, 0);
+        } catch (GeneralSecurityException e) {
+            s.mac.reset();
+            return null;
+        }
+        if (!constantTimeEquals(s.computed, s.provided)) {
+            return null;
+        }
+
+        int headerLength = decode(input, 0, firstDot, s.decoded, 0);
+        if (headerLength < 0 || !isHs256Header(s.decoded, headerLength)) {
+            return null;
+        }
+        int payloadLength = decode(input, firstDot + 1, secondDot, s.decoded, 0);
+        if (payloadLength < 0) {
+            return null;
+        }
+        return readClaims(s.decoded, payloadLength, nowMillis);
+    }
+
+    private static boolean isHs256Header(byte[] json, int length) {
+        if (!isObject(json, length)) {
+            return false;
+        }
+        boolean hs256 = false;
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("alg".equals(name)) {
+                    if (value != JsonToken.VALUE_STRING) {
+                        return false;
+                    }
+                    hs256 = "HS256".equals(parser.getText());
+                } else if ("typ".equals(name)) {
+                    parser.skipChildren();
+                } else {
+                    return false;
+                }
+            }
+            return hs256;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static VerifiedJwt readClaims(byte[] json, int length, long nowMillis) {
+        if (!isObject(json, length)) {
+            return null;
+        }
+        String subject = null;
+        List<String> roles = null;
+        long expiresAt = VerifiedJwt.NO_EXPIRY;
+        long notBefore = Long.MIN_VALUE;
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "sub" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            subject = parser.getText();
+                        } else if (value == JsonToken.VALUE_NULL) {
+                            subject = null;
+                        } else {
+                            return null;
+                        }
+                    }
+                    case VerifiedJwt.ROLES_CLAIM -> {
+                        if (value == JsonToken.VALUE_NULL) {
+                            roles = null;
+                        } else if (value == JsonToken.START_ARRAY) {
+                            roles = readStringArray(parser);
+                            if (roles == null) {
+                                return null;
+                            }
+                        } else {
+                            return null;
+                        }
+                    }
+                    case "exp" -> {
+                        if (value == JsonToken.VALUE_NULL) {
+                            expiresAt = VerifiedJwt.NO_EXPIRY;
+                        } else if (isLong(parser, value)) {
+                            expiresAt = parser.getLongValue() * 1000;
+                        } else {
+                            return null;
+                        }
+                    }
+                    case "nbf" -> {
+                        if (value == JsonToken.VALUE_NULL) {
+                            notBefore = Long.MIN_VALUE;
+                        } else if (isLong(parser, value)) {
+                            notBefore = parser.getLongValue() * 1000;
+                        } else {
+                            return null;
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        if (expiresAt != VerifiedJwt.NO_EXPIRY && nowMillis > expiresAt) {
+            return null;
+        }
+        if (nowMillis < notBefore) {
+            return null;
+        }
+        return new VerifiedJwt(subject, roles, expiresAt);
+    }
+
+    private static List<String> readStringArray(JsonParser parser) throws IOException {
+        List<String> values = new ArrayList<>(4);
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.VALUE_STRING) {
+            values.add(parser.getText());
+        }
+        return token == JsonToken.END_ARRAY ? List.copyOf(values) : null;
+    }
+
+    private static boolean isLong(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.VALUE_NUMBER_INT) {
+            return false;
+        }
+        JsonParser.NumberType type = parser.getNumberType();
+        return type == JsonParser.NumberType.INT || type == JsonParser.NumberType.LONG;
+    }
+
+    /**
+     * jjwt only treats a payload as claims when it starts with '{' and ends with '}'.
+     */
+    private static boolean isObject(byte[] json, int length) {
+        return length >= 2 && json[0] == '{' && json[length - 1] == '}';
+    }
+
+    /**
+     * Decodes unpadded, canonical base64url from {@code src[from, to)} into {@code dst}.
+     * The input must already have been checked against the base64url alphabet.
+     *
+     * @return number of bytes written, or -1 if the input is not canonical or does not fit
+     */
+    static int decode(byte[] src, int from, int to, byte[] dst, int offset) {
+        int length = to - from;
+        int remainder = length & 3;
+        if (remainder == 1 || offset + (length / 4) * 3 + Math.max(0, remainder - 1) > dst.length) {
+            return -1;
+        }
+        int out = offset;
+        int i = from;
+        int fullEnd = to - remainder;
+        while (i < fullEnd) {
+            int bits = BASE64URL[src[i]] << 18 | BASE64URL[src[i + 1]] << 12
+                    | BASE64URL[src[i + 2]] << 6 | BASE64URL[src[i + 3]];
+            dst[out++] = (byte) (bits >> 16);
+            dst[out++] = (byte) (bits >> 8);
+            dst[out++] = (byte) bits;
+            i += 4;
+        }
+        if (remainder == 2) {
+            int bits = BASE64URL[src[i]] << 6 | BASE64URL[src[i + 1]];
+            if ((bits & 0xF) != 0) {
+                return -1;
+            }
+            dst[out++] = (byte) (bits >> 4);
+        } else if (remainder == 3) {
+            int bits = BASE64URL[src[i]] << 12 | BASE64URL[src[i + 1]] << 6 | BASE64URL[src[i + 2]];
+            if ((bits & 0x3) != 0) {
+                return -1;
+            }
+            dst[out++] = (byte) (bits >> 10);
+            dst[out++] = (byte) (bits >> 2);
+        }
+        return out - offset;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    private static final class Scratch {
+        private final Mac mac;
+        private final byte[] input = new byte[MAX_TOKEN_LENGTH];
+        private final byte[] decoded = new byte[MAX_TOKEN_LENGTH * 3 / 4];
+        private final byte[] provided = new byte[SIGNATURE_LENGTH];
+        private final byte[] computed = new byte[SIGNATURE_LENGTH];
+
+        private Scratch(Key key) {
+            try {
+                this.mac = Mac.getInstance(ALGORITHM);
+                this.mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Unable to initialise " + ALGORITHM, e);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cursor.common.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -17,10 +18,16 @@ public class JwtService {
 
     private final Key signingKey;
     private final long accessTtlSeconds;
+    private final JwtParser parser;
+    private final Hs256Verifier verifier;
 
     public JwtService(String base64Secret, long accessTtlSeconds) {
         this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
         this.accessTtlSeconds = accessTtlSeconds;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifier = new Hs256Verifier(signingKey);
     }
 
     public String generateToken(String userId, List<String> roles, Map<String, Object> extraClaims) {
@@ -39,12 +46,16 @@ public class JwtService {
     }
 
     public Claims parseAndValidate(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
-}
-
 
+    /**
+     * Verifies a token and returns only its subject, roles and expiry.
+     * Well-formed HS256 tokens are checked on an allocation-light path; anything else goes through
+     * {@link #parseAndValidate(String)}, so results and exceptions are the same as jjwt's.
+     */
+    public VerifiedJwt verify(String token) {
+        VerifiedJwt verified = token == null ? null : verifier.tryVerify(token, System.currentTimeMillis());
+        return verified != null ? verified : VerifiedJwt.from(parseAndValidate(token));
+    }
+}
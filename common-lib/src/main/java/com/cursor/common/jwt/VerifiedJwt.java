@@ -0,0 +1,40 @@
+package com.cursor.common.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of the claims a verified token is trusted for.
+ *
+ * @param subject         the {@code sub} claim, may be null
+ * @param roles           the {@code roles} claim, null when absent
+ * @param expiresAtMillis the {@code exp} claim in epoch millis, {@link #NO_EXPIRY} when absent
+ */
+public record VerifiedJwt(String subject, List<String> roles, long expiresAtMillis) {
+
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    public static final String ROLES_CLAIM = "roles";
+
+    static VerifiedJwt from(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new VerifiedJwt(
+                claims.getSubject(),
+                toRoles(claims.get(ROLES_CLAIM)),
+                expiration == null ? NO_EXPIRY : expiration.getTime());
+    }
+
+    private static List<String> toRoles(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        List<String> roles = new ArrayList<>(list.size());
+        for (Object role : list) {
+            roles.add(String.valueOf(role));
+        }
+        return List.copyOf(roles);
+    }
+}
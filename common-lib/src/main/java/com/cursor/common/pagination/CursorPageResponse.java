@@ -0,0 +1,31 @@
+package com.cursor.common.pagination;
+
+import lombok.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean last;
+
+    public static <T> CursorPageResponse<T> from(Window<T> window, Sort sort) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? KeysetCursor.of(sort, window.positionAt(window.size() - 1)).encode()
+                : null;
+        return CursorPageResponse.<T>builder()
+                .content(window.getContent())
+                .size(window.size())
+                .nextCursor(nextCursor)
+                .last(nextCursor == null)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.cursor.common.pagination;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A keyset page request: the sort order, where to resume and how many rows to return. Pass all three to a Spring
+ * Data repository method returning {@link org.springframework.data.domain.Window}.
+ */
+public record CursorRequest(Sort sort, ScrollPosition position, Limit limit) {
+
+    /**
+     * Rejects sort properties outside {@code allowed}, so clients can only page over indexed columns.
+     */
+    public CursorRequest requireSortedBy(Set<String> allowed) {
+        for (Sort.Order order : sort) {
+            if (!allowed.contains(order.getProperty())) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                        "Unsupported sort property: " + order.getProperty());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Drops the {@code id} tie-breaker when the first sort property is in {@code unique}, which already orders rows
+     * totally. The keyset condition then compares one column instead of expanding to
+     * {@code a > ? or (a = ? and id > ?)}, and the column's unique index serves it as a single range scan.
+     */
+    public CursorRequest withUniqueSortProperties(Set<String> unique) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() < 2 || !unique.contains(orders.get(0).getProperty())) {
+            return this;
+        }
+        Sort first = Sort.by(orders.get(0));
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return new CursorRequest(first, position, limit);
+        }
+        String property = orders.get(0).getProperty();
+        if (!keyset.getKeys().containsKey(property)) {
+            return this;
+        }
+        return new CursorRequest(first, ScrollPosition.forward(Map.of(property, keyset.getKeys().get(property))),
+                limit);
+    }
+}
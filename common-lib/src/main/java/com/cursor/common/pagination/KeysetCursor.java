@@ -0,0 +1,142 @@
+package com.cursor.common.pagination;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The position after the last row of a keyset page: the sort order and that row's sort key values, including its id.
+ * <p>
+ * Cursors are encoded as URL-safe base64 of a small versioned binary format so clients treat them as opaque. Key
+ * values may be strings, longs, ints, booleans or instants; anything else is a programming error.
+ */
+public record KeysetCursor(Sort sort, Map<String, Object> keys) {
+
+    private static final byte VERSION = 1;
+    private static final int MAX_ENTRIES = 16;
+
+    private static final byte STRING = 's';
+    private static final byte LONG = 'l';
+    private static final byte INT = 'i';
+    private static final byte BOOLEAN = 'b';
+    private static final byte INSTANT = 't';
+
+    public static KeysetCursor of(Sort sort, ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Not a keyset position: " + position);
+        }
+        return new KeysetCursor(sort, keyset.getKeys());
+    }
+
+    public ScrollPosition position() {
+        return ScrollPosition.forward(keys);
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            List<Sort.Order> orders = sort.toList();
+            out.writeByte(orders.size());
+            for (Sort.Order order : orders) {
+                out.writeUTF(order.getProperty());
+                out.writeBoolean(order.isAscending());
+            }
+            out.writeByte(keys.size());
+            for (Map.Entry<String, Object> entry : keys.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @throws BusinessException with {@link ErrorCode#VALIDATION_ERROR} if the cursor was not produced by
+     *                           {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw invalid();
+            }
+            List<Sort.Order> orders = new ArrayList<>();
+            for (int i = readCount(in); i > 0; i--) {
+                String property = in.readUTF();
+                orders.add(in.readBoolean() ? Sort.Order.asc(property) : Sort.Order.desc(property));
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = readCount(in); i > 0; i--) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            if (orders.isEmpty() || keys.isEmpty() || in.available() > 0) {
+                throw invalid();
+            }
+            return new KeysetCursor(Sort.by(orders), keys);
+        } catch (IOException | IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String s) {
+            out.writeByte(STRING);
+            out.writeUTF(s);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Instant t) {
+            out.writeByte(INSTANT);
+            out.writeLong(t.getEpochSecond());
+            out.writeInt(t.getNano());
+        } else {
+            throw new IllegalArgumentException("Unsupported keyset value type: "
+                    + (value == null ? "null" : value.getClass().getName()));
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case STRING -> in.readUTF();
+            case LONG -> in.readLong();
+            case INT -> in.readInt();
+            case BOOLEAN -> in.readBoolean();
+            case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            default -> throw invalid();
+        };
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readUnsignedByte();
+        if (count > MAX_ENTRIES) {
+            throw invalid();
+        }
+        return count;
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(ErrorCode.VALIDATION_ERROR, "Invalid cursor");
+    }
+}
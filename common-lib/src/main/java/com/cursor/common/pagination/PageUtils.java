@@ -1,11 +1,20 @@
 package com.cursor.common.pagination;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
 
 public class PageUtils {
 
+    /**
+     * Largest keyset page; larger requested sizes are capped to it.
+     */
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final String ID = "id";
+
     private PageUtils() {}
 
     public static Pageable buildPageable(Integer page, Integer size, String sortBy, String direction) {
@@ -19,4 +28,30 @@ public class PageUtils {
         Sort.Direction dir = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         return PageRequest.of(p, s, Sort.by(dir, sortBy));
     }
+
+    /**
+     * Builds a keyset page request. The first page is sorted by {@code sortBy} (default {@code id}) with {@code id} as
+     * tie-breaker in the same direction; later pages take their sort order from the cursor and ignore
+     * {@code sortBy} and {@code direction}. {@code size} defaults to 10 and is capped at {@link #MAX_CURSOR_PAGE_SIZE}.
+     */
+    public static CursorRequest buildCursorRequest(String cursor, Integer size, String sortBy, String direction) {
+        Limit limit = Limit.of((size != null && size > 0) ? Math.min(size, MAX_CURSOR_PAGE_SIZE) : 10);
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            return new CursorRequest(keysetCursor.sort(), keysetCursor.position(), limit);
+        }
+
+        return new CursorRequest(buildSort(sortBy, direction), ScrollPosition.keyset(), limit);
+    }
+
+    /**
+     * Sorts by {@code sortBy} (default {@code id}) with {@code id} as tie-breaker in the same direction, giving a total
+     * order.
+     */
+    public static Sort buildSort(String sortBy, String direction) {
+        Sort.Direction dir = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return (sortBy == null || sortBy.isBlank() || ID.equals(sortBy))
+                ? Sort.by(dir, ID)
+                : Sort.by(dir, sortBy, ID);
+    }
 }
@@ -0,0 +1,34 @@
+package com.cursor.common.requestid;
+
+import jakarta.servlet.Filter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Request ids in the MDC of every request of a servlet service, issued there for requests that did not come through
+ * the gateway. Outgoing calls pass the id on from the MDC, as auth-service's Feign interceptor does.
+ */
+@AutoConfiguration
+@ConditionalOnClass(Filter.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestIdAutoConfiguration {
+
+    /**
+     * @param nodeId the node component of the ids; negative derives it from the host name
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RequestIdGenerator requestIdGenerator(@Value("${app.request-id.node-id:-1}") int nodeId) {
+        return new UlidRequestIdGenerator(nodeId >= 0 ? nodeId : UlidRequestIdGenerator.hostNodeId());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RequestIdServletFilter requestIdServletFilter(RequestIdGenerator requestIdGenerator) {
+        return new RequestIdServletFilter(requestIdGenerator);
+    }
+}
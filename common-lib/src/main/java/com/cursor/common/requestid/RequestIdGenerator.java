@@ -0,0 +1,18 @@
+package com.cursor.common.requestid;
+
+import java.util.UUID;
+
+/**
+ * Issues the ids that tag a request in logs and on calls between services. Implementations are thread-safe.
+ */
+public interface RequestIdGenerator {
+
+    String nextId();
+
+    /**
+     * Random version 4 UUIDs, drawing on the JVM's shared {@link java.security.SecureRandom}.
+     */
+    static RequestIdGenerator uuid() {
+        return () -> UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.cursor.common.requestid;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts the request id of an incoming request in the MDC for the request thread, taking it from the
+ * {@value RequestIds#HEADER} header the gateway sets, or issuing one for requests that did not come through it.
+ * Runs first, so every log line of the request carries it.
+ */
+public class RequestIdServletFilter extends OncePerRequestFilter implements Ordered {
+
+    private final RequestIdGenerator generator;
+
+    public RequestIdServletFilter(RequestIdGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        MDC.put(RequestIds.MDC_KEY, RequestIds.resolve(request.getHeader(RequestIds.HEADER), generator));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestIds.MDC_KEY);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
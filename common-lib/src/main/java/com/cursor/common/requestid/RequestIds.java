@@ -0,0 +1,39 @@
+package com.cursor.common.requestid;
+
+/**
+ * Where a request id travels: the {@value #HEADER} header between services, and the MDC entry of the same name in
+ * logs ({@code %X{X-Request-Id}}).
+ */
+public final class RequestIds {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = HEADER;
+
+    static final int MAX_LENGTH = 64;
+
+    private RequestIds() {
+    }
+
+    /**
+     * The id a caller sent, or a new one when it sent none or one that is not safe to log: longer than
+     * {@value #MAX_LENGTH} characters or containing anything but letters, digits, {@code -}, {@code _} and {@code .}.
+     */
+    public static String resolve(String received, RequestIdGenerator generator) {
+        return isWellFormed(received) ? received : generator.nextId();
+    }
+
+    static boolean isWellFormed(String id) {
+        if (id == null || id.isEmpty() || id.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+package com.cursor.common.requestid;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered ids in the ULID format: 26 Crockford base32 characters encoding 128 bits, of which the first 48 are
+ * the creation time in milliseconds, so ids sort by creation time as plain strings.
+ * <p>
+ * The remaining 80 bits are not random per id: they are a 16-bit node id followed by a 64-bit counter, seeded once
+ * from {@link SecureRandom} and incremented for every id. Issuing an id is a clock read and one atomic increment, with
+ * no lock and no shared random source. Two ids only collide when two nodes with the same node id issue the same
+ * counter value in the same millisecond. Within a millisecond, ids of one node sort in the order their counter values
+ * were taken.
+ */
+public class UlidRequestIdGenerator implements RequestIdGenerator {
+
+    static final int LENGTH = 26;
+    static final int MAX_NODE_ID = 0xFFFF;
+
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final int TIME_CHARS = 10;
+
+    private final long node;
+    private final Clock clock;
+    private final AtomicLong counter;
+
+    /**
+     * @param nodeId between 0 and 65535, distinct per running instance where possible
+     */
+    public UlidRequestIdGenerator(int nodeId) {
+        // The top bit is cleared so the counter runs for 2^63 ids before its unsigned value wraps
+        this(nodeId, Clock.systemUTC(), new SecureRandom().nextLong() & Long.MAX_VALUE);
+    }
+
+    UlidRequestIdGenerator(int nodeId, Clock clock, long seed) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+        this.counter = new AtomicLong(seed);
+    }
+
+    /**
+     * A node id derived from the host name, which is the pod name on Kubernetes.
+     */
+    public static int hostNodeId() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isBlank()) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "";
+            }
+        }
+        int hash = host.hashCode();
+        return (hash ^ (hash >>> 16)) & MAX_NODE_ID;
+    }
+
+    @Override
+    public String nextId() {
+        long time = clock.millis();
+        long sequence = counter.getAndIncrement();
+        byte[] id = new byte[LENGTH];
+        for (int i = TIME_CHARS - 1; i >= 0; i--) {
+            id[i] = ALPHABET[(int) (time & 31)];
+            time >>>= 5;
+        }
+        // The 80 bits after the time: the node id, then the counter
+        for (int i = 0, shift = 75; shift >= 0; i++, shift -= 5) {
+            long bits;
+            if (shift >= 64) {
+                bits = node >>> (shift - 64);
+            } else if (shift > 59) {
+                bits = (node << (64 - shift)) | (sequence >>> shift);
+            } else {
+                bits = sequence >>> shift;
+            }
+            id[TIME_CHARS + i] = ALPHABET[(int) (bits & 31)];
+        }
+        return new String(id, StandardCharsets.ISO_8859_1);
+    }
+}
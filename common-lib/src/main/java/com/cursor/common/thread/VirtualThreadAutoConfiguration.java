@@ -0,0 +1,34 @@
+package com.cursor.common.thread;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * With {@code spring.threads.virtual.enabled} on a Java 21+ runtime, Boot runs Tomcat, {@code @Async} and
+ * {@code @Scheduled} work on virtual threads; this adds the {@link VirtualThreadPinningMonitor} that reports where
+ * they get pinned. Work that must stay bounded, such as password hashing, keeps its own platform pools.
+ */
+// After the meter registry is defined, when actuator is present
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics"
+        + ".CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnBean(MeterRegistry.class)
+public class VirtualThreadAutoConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.threads.pinning-threshold:20ms}") Duration threshold,
+            @Value("${app.threads.pinning-max-sites:50}") int maxSites) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold, maxSites);
+    }
+}
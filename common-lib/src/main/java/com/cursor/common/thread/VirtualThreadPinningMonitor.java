@@ -0,0 +1,120 @@
+package com.cursor.common.thread;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread for longer than a threshold, typically because
+ * they block inside a {@code synchronized} block or under a native frame.
+ * <p>
+ * Listens to the JDK's {@code jdk.VirtualThreadPinned} flight recorder event in-process. Every event is recorded in
+ * the {@code virtual.threads.pinned} timer, tagged with the pinning site: the innermost frame outside the JDK. The
+ * first event from each site is logged with its stack. At most {@code maxSites} sites get their own tag; later ones
+ * are counted under {@code other}. The event only exists on Java 21+; on older runtimes the monitor runs but never
+ * reports anything.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String OTHER_SITE = "other";
+    static final String UNKNOWN_SITE = "unknown";
+
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+    private static final int LOGGED_FRAMES = 24;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final int maxSites;
+    private final Set<String> sites = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold, int maxSites) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.maxSites = maxSites;
+    }
+
+    /**
+     * Starts listening. Failing to start the flight recorder (e.g. when it is disabled in the JVM) is logged and
+     * leaves the monitor inactive instead of failing the application.
+     */
+    public void start() {
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::onPinned);
+            recording.startAsync();
+            stream = recording;
+            log.info("[start] Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+        } catch (RuntimeException e) {
+            log.warn("[start] Virtual thread pinning is not monitored: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            stream = null;
+            recording.close();
+        }
+    }
+
+    boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        List<String> methods = new ArrayList<>(frames.size());
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : frames) {
+            String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+            methods.add(method);
+            if (methods.size() <= LOGGED_FRAMES) {
+                stack.append("\n\tat ").append(method).append(':').append(frame.getLineNumber());
+            }
+        }
+        record(site(methods), event.getDuration(), stack);
+    }
+
+    void record(String site, Duration duration, CharSequence stack) {
+        boolean firstFromSite = !sites.contains(site) && sites.size() < maxSites && sites.add(site);
+        String tag = sites.contains(site) ? site : OTHER_SITE;
+        Timer.builder("virtual.threads.pinned")
+                .description("Virtual threads pinned to their carrier for longer than the reporting threshold")
+                .tag("site", tag)
+                .register(meterRegistry)
+                .record(duration);
+        if (firstFromSite) {
+            log.warn("[record] Virtual thread pinned for {} ms at {}{}", duration.toMillis(), site, stack);
+        } else {
+            log.debug("[record] Virtual thread pinned for {} ms at {}", duration.toMillis(), site);
+        }
+    }
+
+    /**
+     * The innermost method outside the JDK, i.e. the application or library code that blocked while pinned; the top
+     * frame when the whole stack is JDK code.
+     */
+    static String site(List<String> methods) {
+        for (String method : methods) {
+            if (JDK_PACKAGES.stream().noneMatch(method::startsWith)) {
+                return method;
+            }
+        }
+        return methods.isEmpty() ? UNKNOWN_SITE : methods.get(0);
+    }
+}
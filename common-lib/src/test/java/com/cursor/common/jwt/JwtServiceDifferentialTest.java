@@ -0,0 +1,270 @@
+package com.cursor.common.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javax.crypto.Mac;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Runs the same tokens through jjwt and {@link JwtService#verify(String)} and asserts identical outcomes:
+ * equal claim views on success, the same exception type on failure.
+ */
+class JwtServiceDifferentialTest {
+
+    private static final String SECRET = "2OhDTRAUQm3JIQ5oqDQJ7A5+wlkN63Wm2WeN8hLLhZY=";
+    private static final String OTHER_SECRET = "ZGVmZ2hpamtsbW5vcHFyc3R1dnd4eXp7fH1+f4CBgoM=";
+
+    private Key key;
+    private JwtService jwtService;
+    private Hs256Verifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        jwtService = new JwtService(SECRET, 3600);
+        verifier = new Hs256Verifier(key);
+    }
+
+    // ========== FAST PATH ==========
+
+    @Test
+    void generatedToken_takesFastPath_andMatchesJjwt() {
+        String token = jwtService.generateToken("42", List.of("ADMIN", "USER"), null);
+
+        assertNotNull(verifier.tryVerify(token, System.currentTimeMillis()));
+        VerifiedJwt verified = assertSameOutcome(token);
+
+        assertEquals("42", verified.subject());
+        assertEquals(List.of("ADMIN", "USER"), verified.roles());
+    }
+
+    @Test
+    void generatedToken_withoutRoles_takesFastPath() {
+        String token = jwtService.generateToken("7", null, null);
+
+        assertNotNull(verifier.tryVerify(token, System.currentTimeMillis()));
+        VerifiedJwt verified = assertSameOutcome(token);
+
+        assertNull(verified.roles());
+    }
+
+    @Test
+    void typHeader_andNestedUnknownClaims_takeFastPath() {
+        String token = sign("{\"alg\":\"HS256\",\"typ\":\"JWT\"}",
+                "{\"sub\":\"1\",\"x\":{\"y\":[1,2,{\"z\":null}]},\"roles\":[],\"exp\":" + future() + "}");
+
+        assertNotNull(verifier.tryVerify(token, System.currentTimeMillis()));
+        assertSameOutcome(token);
+    }
+
+    @Test
+    void tokenWithoutExpiry_takesFastPath() {
+        String token = sign("{\"alg\":\"HS256\"}", "{\"sub\":\"1\"}");
+
+        assertNotNull(verifier.tryVerify(token, System.currentTimeMillis()));
+        assertEquals(VerifiedJwt.NO_EXPIRY, assertSameOutcome(token).expiresAtMillis());
+    }
+
+    // ========== FALLBACK CASES ==========
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"alg\":\"hs256\"}",
+            "{\"alg\":\"none\"}",
+            "{\"alg\":\"HS512\"}",
+            "{\"alg\":\"HS256\",\"zip\":\"DEF\"}",
+            "{\"alg\":{\"alg\":\"HS256\"}}",
+            "{\"alg\":\"HS256\",\"alg\":\"none\"}",
+            "{\"alg\":\"none\",\"alg\":\"HS256\"}",
+            " {\"alg\":\"HS256\"}",
+            "{\"typ\":\"JWT\"}",
+            "[\"HS256\"]",
+            "{\"alg\":\"HS256\""
+    })
+    void unusualHeaders_matchJjwt(String header) {
+        assertSameOutcome(sign(header, "{\"sub\":\"1\",\"exp\":" + future() + "}"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"sub\":42}",
+            "{\"sub\":null,\"roles\":null}",
+            "{\"sub\":{\"id\":1}}",
+            "{\"roles\":[\"A\",1,null]}",
+            "{\"roles\":\"ADMIN\"}",
+            "{\"roles\":{\"a\":1}}",
+            "{\"exp\":\"9999999999\"}",
+            "{\"exp\":9999999999.5}",
+            "{\"exp\":99999999999999999999}",
+            "{\"exp\":1000}",
+            "{\"exp\":null}",
+            "{\"nbf\":9999999999}",
+            "{\"nbf\":1000,\"exp\":9999999999}",
+            " {\"sub\":\"1\"}",
+            "{\"sub\":\"1\"} ",
+            "{\"sub\":\"1\",\"sub\":\"2\"}",
+            "{\"sub\":\"caf\\u00e9\"}",
+            "{\"sub\":\"1\"",
+            "{}",
+            "not json"
+    })
+    void unusualPayloads_matchJjwt(String payload) {
+        assertSameOutcome(sign("{\"alg\":\"HS256\"}", payload));
+    }
+
+    @Test
+    void expiredToken_matchesJjwt() {
+        String token = Jwts.builder()
+                .setSubject("1")
+                .setExpiration(Date.from(Instant.now().minusSeconds(5)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(verifier.tryVerify(token, System.currentTimeMillis()));
+        assertSameOutcome(token);
+    }
+
+    @Test
+    void tokenSignedWithOtherKey_matchesJjwt() {
+        String token = new JwtService(OTHER_SECRET, 3600).generateToken("1", List.of("USER"), null);
+
+        assertNull(verifier.tryVerify(token, System.currentTimeMillis()));
+        assertSameOutcome(token);
+    }
+
+    @Test
+    void oversizedToken_fallsBackToJjwt() {
+        String token = Jwts.builder()
+                .setSubject("1")
+                .claim("blob", "x".repeat(Hs256Verifier.MAX_TOKEN_LENGTH))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertNull(verifier.tryVerify(token, System.currentTimeMillis()));
+        assertEquals("1", assertSameOutcome(token).subject());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "..", "a.b", "a.b.c.d", "a.b.c", "eyJhbGciOiJIUzI1NiJ9..sig"})
+    void malformedTokens_matchJjwt(String token) {
+        assertSameOutcome(token);
+    }
+
+    @Test
+    void nullToken_matchesJjwt() {
+        assertSameOutcome(null);
+    }
+
+    @Test
+    void paddedOrWhitespaceSignature_matchesJjwt() {
+        String token = jwtService.generateToken("1", List.of("USER"), null);
+
+        assertSameOutcome(token + "=");
+        assertSameOutcome(token + " ");
+        assertSameOutcome(" " + token);
+    }
+
+    // ========== MUTATION FUZZING ==========
+
+    @Test
+    void everySingleCharacterMutation_matchesJjwt() {
+        String token = jwtService.generateToken("42", List.of("ADMIN"), Map.of("k", "v"));
+        char[] replacements = {'A', 'B', 'a', '0', '-', '_', '.', '+', '/', '='};
+
+        for (int i = 0; i < token.length(); i++) {
+            for (char replacement : replacements) {
+                if (token.charAt(i) != replacement) {
+                    char[] mutated = token.toCharArray();
+                    mutated[i] = replacement;
+                    assertSameOutcome(new String(mutated));
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomClaimSets_matchJjwt() {
+        Random random = new Random(20240101L);
+        for (int i = 0; i < 500; i++) {
+            List<String> roles = new ArrayList<>();
+            for (int r = random.nextInt(4); r > 0; r--) {
+                roles.add("ROLE_" + random.nextInt(100));
+            }
+            String token = Jwts.builder()
+                    .setSubject(random.nextBoolean() ? String.valueOf(random.nextLong()) : null)
+                    .setExpiration(Date.from(Instant.now().plusSeconds(random.nextInt(7200) - 600)))
+                    .claim("roles", random.nextBoolean() ? roles : null)
+                    .claim("n", random.nextInt())
+                    .signWith(key, SignatureAlgorithm.HS256)
+                    .compact();
+            assertSameOutcome(token);
+        }
+    }
+
+    // ========== BASE64URL ==========
+
+    @Test
+    void decode_rejectsNonCanonicalTrailingBits() {
+        byte[] out = new byte[8];
+
+        assertEquals(1, Hs256Verifier.decode(ascii("QQ"), 0, 2, out, 0));
+        assertEquals(-1, Hs256Verifier.decode(ascii("QR"), 0, 2, out, 0));
+        assertEquals(-1, Hs256Verifier.decode(ascii("Q"), 0, 1, out, 0));
+    }
+
+    private VerifiedJwt assertSameOutcome(String token) {
+        Object expected;
+        try {
+            expected = VerifiedJwt.from(jwtService.parseAndValidate(token));
+        } catch (RuntimeException e) {
+            expected = e.getClass();
+        }
+        Object actual;
+        try {
+            actual = jwtService.verify(token);
+        } catch (RuntimeException e) {
+            actual = e.getClass();
+        }
+        assertEquals(expected, actual, () -> "Outcome differs for token: " + token);
+        return actual instanceof VerifiedJwt verified ? verified : null;
+    }
+
+    private String sign(String headerJson, String payloadJson) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signingInput = encoder.encodeToString(headerJson.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return signingInput + "." + encoder.encodeToString(mac.doFinal(ascii(signingInput)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long future() {
+        return Instant.now().plusSeconds(3600).getEpochSecond();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
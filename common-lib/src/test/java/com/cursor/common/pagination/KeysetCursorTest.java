@@ -0,0 +1,141 @@
+package com.cursor.common.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+class KeysetCursorTest {
+
+    @Test
+    void encode_roundTripsSortAndTypedKeys() {
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", Instant.parse("2024-01-01T12:00:00.123456789Z"));
+        keys.put("id", 42L);
+        keys.put("name", "a|b;c é");
+        keys.put("rank", 7);
+        keys.put("active", true);
+
+        String cursor = KeysetCursor.of(sort, ScrollPosition.forward(keys)).encode();
+        KeysetCursor decoded = KeysetCursor.decode(cursor);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(sort, decoded.sort());
+        assertEquals(keys, decoded.keys());
+        assertEquals(keys, ((KeysetScrollPosition) decoded.position()).getKeys());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "x", "not-a-cursor", "AQ", "AgEAAmlkAQ", "!!!"})
+    void decode_malformedCursor_throwsValidationError(String cursor) {
+        BusinessException ex = assertThrows(BusinessException.class, () -> KeysetCursor.decode(cursor));
+
+        assertEquals(ErrorCode.VALIDATION_ERROR, ex.getErrorCode());
+    }
+
+    @Test
+    void decode_trailingBytes_throwsValidationError() {
+        String cursor = new KeysetCursor(Sort.by("id"), Map.of("id", 1L)).encode();
+
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode(cursor + "AA"));
+    }
+
+    @Test
+    void encode_unsupportedValue_throwsException() {
+        KeysetCursor cursor = new KeysetCursor(Sort.by("id"), Map.of("id", new Object()));
+
+        assertThrows(IllegalArgumentException.class, cursor::encode);
+    }
+
+    @Test
+    void buildCursorRequest_firstPage_addsIdTieBreaker() {
+        CursorRequest request = PageUtils.buildCursorRequest(null, null, "username", "DESC");
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "username", "id"), request.sort());
+        assertTrue(request.position().isInitial());
+        assertEquals(10, request.limit().max());
+        assertEquals(Sort.by("id"), PageUtils.buildCursorRequest(" ", 5, null, null).sort());
+    }
+
+    @Test
+    void buildCursorRequest_withCursor_takesSortFromCursor() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "username", "id");
+        String cursor = new KeysetCursor(sort, Map.of("username", "bob", "id", 3L)).encode();
+
+        CursorRequest request = PageUtils.buildCursorRequest(cursor, 20, "email", "asc");
+
+        assertEquals(sort, request.sort());
+        assertEquals(Map.of("username", "bob", "id", 3L), ((KeysetScrollPosition) request.position()).getKeys());
+        assertEquals(20, request.limit().max());
+    }
+
+    @Test
+    void buildCursorRequest_capsSize() {
+        CursorRequest request = PageUtils.buildCursorRequest(null, 10_000, null, null);
+
+        assertEquals(PageUtils.MAX_CURSOR_PAGE_SIZE, request.limit().max());
+    }
+
+    @Test
+    void withUniqueSortProperties_dropsIdTieBreakerOfUniqueColumnOnly() {
+        CursorRequest username = PageUtils.buildCursorRequest(null, 10, "username", "desc");
+        CursorRequest createdAt = PageUtils.buildCursorRequest(null, 10, "createdAt", "desc");
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "username"),
+                username.withUniqueSortProperties(Set.of("username")).sort());
+        assertEquals(createdAt, createdAt.withUniqueSortProperties(Set.of("username")));
+    }
+
+    @Test
+    void withUniqueSortProperties_cursorWithTieBreaker_keepsOnlyTheUniqueKey() {
+        String cursor = new KeysetCursor(Sort.by("username", "id"), Map.of("username", "bob", "id", 3L)).encode();
+
+        CursorRequest request = PageUtils.buildCursorRequest(cursor, 10, null, null)
+                .withUniqueSortProperties(Set.of("username"));
+
+        assertEquals(Sort.by("username"), request.sort());
+        assertEquals(Map.of("username", "bob"), ((KeysetScrollPosition) request.position()).getKeys());
+    }
+
+    @Test
+    void requireSortedBy_rejectsOtherProperties() {
+        CursorRequest request = PageUtils.buildCursorRequest(null, 10, "password", "asc");
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> request.requireSortedBy(Set.of("id", "username")));
+
+        assertEquals(ErrorCode.VALIDATION_ERROR, ex.getErrorCode());
+    }
+
+    @Test
+    void cursorPageResponse_encodesLastPositionOnlyWhenMoreRowsExist() {
+        Sort sort = Sort.by("id");
+        Window<String> more = Window.from(List.of("a", "b"), i -> ScrollPosition.forward(Map.of("id", (long) i)), true);
+        Window<String> done = Window.from(List.of("c"), i -> ScrollPosition.forward(Map.of("id", 9L)), false);
+
+        CursorPageResponse<String> first = CursorPageResponse.from(more, sort);
+        CursorPageResponse<String> last = CursorPageResponse.from(done, sort);
+
+        assertFalse(first.isLast());
+        assertEquals(Map.of("id", 1L), KeysetCursor.decode(first.getNextCursor()).keys());
+        assertTrue(last.isLast());
+        assertNull(last.getNextCursor());
+    }
+}
@@ -0,0 +1,44 @@
+package com.cursor.common.requestid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+class RequestIdAutoConfigurationTest {
+
+    private static final AutoConfigurations CONFIGURATION = AutoConfigurations.of(RequestIdAutoConfiguration.class);
+
+    @Test
+    void servletApplication_getsTheGeneratorAndFilter() {
+        new WebApplicationContextRunner()
+                .withConfiguration(CONFIGURATION)
+                .withPropertyValues("app.request-id.node-id=7")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(RequestIdServletFilter.class);
+                    assertThat(context).hasSingleBean(RequestIdGenerator.class);
+                });
+    }
+
+    @Test
+    void ownGenerator_isKept() {
+        RequestIdGenerator own = () -> "fixed";
+
+        new WebApplicationContextRunner()
+                .withConfiguration(CONFIGURATION)
+                .withBean(RequestIdGenerator.class, () -> own)
+                .run(context -> assertThat(context.getBean(RequestIdGenerator.class)).isSameAs(own));
+    }
+
+    @Test
+    void reactiveApplication_isLeftAlone() {
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(CONFIGURATION)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(RequestIdServletFilter.class);
+                    assertThat(context).doesNotHaveBean(RequestIdGenerator.class);
+                });
+    }
+}
@@ -0,0 +1,163 @@
+package com.cursor.common.requestid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class UlidRequestIdGeneratorTest {
+
+    private static final String CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    @Test
+    void nextId_encodesTimeNodeAndCounter() {
+        Instant now = Instant.parse("2024-05-01T10:15:30.123Z");
+        UlidRequestIdGenerator generator = new UlidRequestIdGenerator(0xABCD,
+                Clock.fixed(now, ZoneOffset.UTC), 0x0123456789ABCDEFL);
+
+        String id = generator.nextId();
+
+        assertEquals(UlidRequestIdGenerator.LENGTH, id.length());
+        assertTrue(id.chars().allMatch(c -> CROCKFORD.indexOf(c) >= 0));
+        assertEquals(now.toEpochMilli(), decode(id.substring(0, 10)));
+        BigInteger rest = decodeRest(id);
+        assertEquals(0xABCD, rest.shiftRight(64).intValueExact());
+        assertEquals(0x0123456789ABCDEFL, rest.longValue());
+        assertEquals(0x0123456789ABCDF0L, decodeRest(generator.nextId()).longValue());
+    }
+
+    @Test
+    void nextId_sortsByTimeThenIssueOrder() {
+        MutableClock clock = new MutableClock(1_700_000_000_000L);
+        UlidRequestIdGenerator generator = new UlidRequestIdGenerator(7, clock, Long.MAX_VALUE - 1);
+
+        String first = generator.nextId();
+        String second = generator.nextId();
+        // The counter passes 2^63 here, which must not break the order
+        String third = generator.nextId();
+        clock.millis = 1_700_000_000_001L;
+        String later = generator.nextId();
+
+        assertTrue(first.compareTo(second) < 0);
+        assertTrue(second.compareTo(third) < 0);
+        assertTrue(third.compareTo(later) < 0);
+    }
+
+    @Test
+    void nextId_isUniqueAcrossThreads() throws Exception {
+        UlidRequestIdGenerator generator = new UlidRequestIdGenerator(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void nodeIds_areDistinguished() {
+        Clock clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+        String a = new UlidRequestIdGenerator(1, clock, 42).nextId();
+        String b = new UlidRequestIdGenerator(2, clock, 42).nextId();
+
+        assertNotEquals(a, b);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0x10000})
+    void constructor_rejectsNodeIdOutOfRange(int nodeId) {
+        assertThrows(IllegalArgumentException.class, () -> new UlidRequestIdGenerator(nodeId));
+    }
+
+    @Test
+    void resolve_keepsWellFormedIdsAndReplacesOthers() {
+        RequestIdGenerator generator = () -> "generated";
+
+        assertEquals("01HV6Z-abc_1.2", RequestIds.resolve("01HV6Z-abc_1.2", generator));
+        assertEquals("generated", RequestIds.resolve(null, generator));
+        assertEquals("generated", RequestIds.resolve("", generator));
+        assertEquals("generated", RequestIds.resolve("id\nforged log line", generator));
+        assertEquals("generated", RequestIds.resolve("x".repeat(RequestIds.MAX_LENGTH + 1), generator));
+        assertFalse(RequestIds.isWellFormed("a b"));
+    }
+
+    private static long decode(String chars) {
+        long value = 0;
+        for (char c : chars.toCharArray()) {
+            value = (value << 5) | CROCKFORD.indexOf(c);
+        }
+        return value;
+    }
+
+    /**
+     * The 80 bits after the time.
+     */
+    private static BigInteger decodeRest(String id) {
+        BigInteger value = BigInteger.ZERO;
+        for (char c : id.substring(10).toCharArray()) {
+            value = value.shiftLeft(5).or(BigInteger.valueOf(CROCKFORD.indexOf(c)));
+        }
+        return value;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
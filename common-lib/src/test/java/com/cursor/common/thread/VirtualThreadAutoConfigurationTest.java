@@ -0,0 +1,38 @@
+package com.cursor.common.thread;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class VirtualThreadAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(VirtualThreadAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void platformThreads_getNoMonitor() {
+        runner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreads_getAStartedMonitor() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true", "app.threads.pinning-threshold=5ms")
+                .run(context -> assertThat(context.getBean(VirtualThreadPinningMonitor.class).isRunning()).isTrue());
+    }
+
+    @Test
+    void virtualThreadsWithoutMeterRegistry_getNoMonitor() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(VirtualThreadAutoConfiguration.class))
+                .withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+    }
+}
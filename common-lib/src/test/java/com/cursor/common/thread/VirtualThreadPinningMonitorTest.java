@@ -0,0 +1,66 @@
+package com.cursor.common.thread;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void site_isInnermostFrameOutsideTheJdk() {
+        List<String> methods = List.of(
+                "java.lang.Object.wait0",
+                "java.lang.Object.wait",
+                "sun.nio.ch.SocketImpl.read",
+                "org.postgresql.core.PGStream.receive",
+                "com.example.userservice.repository.UserRepository.findById");
+
+        assertEquals("org.postgresql.core.PGStream.receive", VirtualThreadPinningMonitor.site(methods));
+    }
+
+    @Test
+    void site_onlyJdkFrames_isTopFrame() {
+        assertEquals("java.lang.Thread.sleep",
+                VirtualThreadPinningMonitor.site(List.of("java.lang.Thread.sleep", "jdk.internal.misc.Unsafe.park")));
+        assertEquals(VirtualThreadPinningMonitor.UNKNOWN_SITE, VirtualThreadPinningMonitor.site(List.of()));
+    }
+
+    @Test
+    void record_tagsBySite_andFoldsSitesBeyondTheLimit() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(20), 2);
+
+        monitor.record("a.A.run", Duration.ofMillis(30), "");
+        monitor.record("a.A.run", Duration.ofMillis(50), "");
+        monitor.record("b.B.run", Duration.ofMillis(40), "");
+        monitor.record("c.C.run", Duration.ofMillis(60), "");
+        monitor.record("d.D.run", Duration.ofMillis(70), "");
+
+        assertEquals(2, pinned("a.A.run").count());
+        assertEquals(80, pinned("a.A.run").totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, pinned("b.B.run").count());
+        assertEquals(2, pinned(VirtualThreadPinningMonitor.OTHER_SITE).count());
+    }
+
+    @Test
+    void startAndClose_onAnyRuntime_doNotFail() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(20), 10);
+
+        monitor.start();
+        monitor.close();
+        monitor.close();
+
+        assertFalse(monitor.isRunning());
+    }
+
+    private Timer pinned(String site) {
+        return meterRegistry.get("virtual.threads.pinned").tag("site", site).timer();
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.userservice.bloom;
+
+import com.example.userservice.repository.UserKeys;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters over existing user ids, usernames and emails, used to answer "definitely absent" without
+ * a database round-trip.
+ * <p>
+ * The filters are rebuilt from the database when the application is ready and then periodically, which also resizes
+ * them and drops keys of renamed users. In between, {@link #add} records new keys locally and broadcasts them on a
+ * Redis channel so the other replicas learn them at once. Keys are recorded before the caller's transaction commits,
+ * and again after commit, so a rebuild whose snapshot predates the commit cannot drop them.
+ * <p>
+ * The broadcast is best effort: a message can be lost, or fail to be sent. Every replica therefore also catches up
+ * from the database every {@code sync-interval}, adding the keys of users written since its previous catch-up (less
+ * {@code sync-overlap}, for clock skew between replicas and transactions still open). A key is only reported absent
+ * while the last catch-up started within {@code max-staleness}; when catching up fails, every key is reported as
+ * possibly present until it succeeds again. A user whose broadcast was lost is thus missed for at most one
+ * {@code sync-interval}. Until the first build completes, or when disabled, every key is reported as possibly present.
+ */
+@Slf4j
+@Component
+public class UserLookupFilter implements MessageListener {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.user-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.user-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.user-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.user-filter.channel:user-service:user-keys}")
+    private String channel;
+
+    @Value("${app.user-filter.sync-overlap:5s}")
+    private Duration syncOverlap;
+
+    @Value("${app.user-filter.max-staleness:5s}")
+    private Duration maxStaleness;
+
+    private volatile Filters current;
+    private volatile Filters building;
+    /**
+     * When the last successful rebuild or catch-up started; keys written before it are in the filters.
+     */
+    private volatile Instant syncedAt;
+
+    public UserLookupFilter(UserRepository userRepository, StringRedisTemplate redisTemplate) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    public boolean mightContainId(Long id) {
+        Filters filters = trusted();
+        return filters == null || id == null || filters.ids.mightContain(id);
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters filters = trusted();
+        return filters == null || username == null || filters.usernames.mightContain(username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = trusted();
+        return filters == null || email == null || filters.emails.mightContain(email);
+    }
+
+    /**
+     * The filters, or {@code null} when they are not known to be caught up with the database.
+     */
+    private Filters trusted() {
+        Instant synced = syncedAt;
+        if (synced == null || Duration.between(synced, Instant.now()).compareTo(maxStaleness) > 0) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Records the keys of a created or renamed user on every replica, now and again after the current transaction
+     * commits.
+     */
+    public void add(Long id, String username, String email) {
+        UserKeys keys = new UserKeys(id, username, email);
+        record(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(keys);
+                }
+            });
+        }
+    }
+
+    /**
+     * Like {@link #add}, for many users with one broadcast.
+     */
+    public void addAll(List<UserKeys> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        recordAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordAll(keys);
+                }
+            });
+        }
+    }
+
+    private void record(UserKeys keys) {
+        addLocal(keys);
+        try {
+            redisTemplate.convertAndSend(channel, MAPPER.writeValueAsString(
+                    new KeysMessage(instanceId, keys.id(), keys.username(), keys.email(), null)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Other replicas pick the keys up on their next rebuild.
+            log.warn("[record] Failed to broadcast keys of user {}: {}", keys.id(), e.getMessage());
+        }
+    }
+
+    private void recordAll(List<UserKeys> keys) {
+        keys.forEach(this::addLocal);
+        try {
+            redisTemplate.convertAndSend(channel, MAPPER.writeValueAsString(
+                    new KeysMessage(instanceId, null, null, null, keys)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("[recordAll] Failed to broadcast keys of {} users: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reads from the primary: a lagging replica could miss users created just before the rebuild started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.user-filter.rebuild-interval:30m}",
+            fixedDelayString = "${app.user-filter.rebuild-interval:30m}")
+    @Transactional
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Instant started = Instant.now();
+        long start = System.currentTimeMillis();
+        long capacity = Math.max(expectedInsertions, userRepository.count() * 2);
+        Filters next = new Filters(capacity, falsePositiveRate);
+        building = next;
+        try (Stream<UserKeys> keys = userRepository.streamAllKeys()) {
+            keys.forEach(next::add);
+            current = next;
+            syncedAt = started;
+            log.info("[rebuild] User lookup filter rebuilt for capacity {} in {} ms",
+                    capacity, System.currentTimeMillis() - start);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Adds the keys of users written since the previous rebuild or catch-up, on this replica or any other. Reads from
+     * the primary, like {@link #rebuild}.
+     */
+    @Scheduled(fixedDelayString = "${app.user-filter.sync-interval:1s}")
+    @Transactional
+    public void sync() {
+        Instant since = syncedAt;
+        if (!enabled || current == null || since == null) {
+            return;
+        }
+        Instant started = Instant.now();
+        try {
+            userRepository.findKeysUpdatedSince(since.minus(syncOverlap)).forEach(this::addLocal);
+            syncedAt = started;
+        } catch (RuntimeException e) {
+            // Negatives stop being trusted once max-staleness passes without a successful catch-up.
+            log.warn("[sync] Failed to catch up the user lookup filter: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            KeysMessage keys = MAPPER.readValue(message.getBody(), KeysMessage.class);
+            if (instanceId.equals(keys.origin())) {
+                return;
+            }
+            if (keys.batch() != null) {
+                keys.batch().forEach(this::addLocal);
+            } else {
+                addLocal(new UserKeys(keys.id(), keys.username(), keys.email()));
+            }
+        } catch (IOException e) {
+            log.warn("[onMessage] Ignoring malformed user keys message: {}", e.getMessage());
+        }
+    }
+
+    private void addLocal(UserKeys keys) {
+        // Keys added while a rebuild is streaming go into both generations so the swap cannot lose them.
+        Filters filters = current;
+        if (filters != null) {
+            filters.add(keys);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.add(keys);
+        }
+    }
+
+    private record KeysMessage(String origin, Long id, String username, String email, List<UserKeys> batch) {
+    }
+
+    private static final class Filters {
+        private final BloomFilter ids;
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(long capacity, double falsePositiveRate) {
+            this.ids = new BloomFilter(capacity, falsePositiveRate);
+            this.usernames = new BloomFilter(capacity, falsePositiveRate);
+            this.emails = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        private void add(UserKeys keys) {
+            if (keys.id() != null) {
+                ids.put(keys.id());
+            }
+            if (keys.username() != null) {
+                usernames.put(keys.username());
+            }
+            if (keys.email() != null) {
+                emails.put(keys.email());
+            }
+        }
+    }
+}
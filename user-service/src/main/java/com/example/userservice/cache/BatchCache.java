@@ -0,0 +1,19 @@
+package com.example.userservice.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A {@link Cache} that can read and write many keys in one round-trip.
+ */
+public interface BatchCache extends Cache {
+
+    /**
+     * @return the cached values of {@code keys} that are present, keyed by the requested key
+     */
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    void putAll(Map<?, ?> entries);
+}
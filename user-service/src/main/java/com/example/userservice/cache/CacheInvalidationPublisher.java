@@ -0,0 +1,11 @@
+package com.example.userservice.cache;
+
+/**
+ * Broadcasts L1 invalidations to the other replicas sharing the same L2.
+ */
+public interface CacheInvalidationPublisher {
+
+    void publishEvict(String cacheName, String key);
+
+    void publishClear(String cacheName);
+}
@@ -0,0 +1,37 @@
+package com.example.userservice.cache;
+
+/**
+ * Cross-replica coordination for cache loads: a short lease so only one replica runs the loader for a key, and
+ * the remaining L2 time-to-live that drives early refresh.
+ */
+public interface CacheLoadCoordinator {
+
+    long UNKNOWN_TTL = -1;
+
+    /**
+     * @return true if this replica may load the key; also true when the lease store is unavailable
+     */
+    boolean tryAcquireLease(String cacheName, String key);
+
+    void releaseLease(String cacheName, String key);
+
+    /**
+     * Reads a key from L2 together with its remaining time-to-live, in a single round trip.
+     *
+     * @return the entry, whose value is never {@code null}, or {@code null} when L2 holds no value for the key or
+     * one that cannot be decoded
+     */
+    RemoteEntry getWithTtl(String cacheName, Object key);
+
+    /**
+     * @return the time-to-live L2 gives {@code value} when it is written now, in milliseconds, or
+     * {@link #UNKNOWN_TTL}; known locally, without asking L2
+     */
+    long writeTtlMillis(String cacheName, Object key, Object value);
+
+    /**
+     * @param ttlMillis remaining L2 time-to-live, or {@link #UNKNOWN_TTL}
+     */
+    record RemoteEntry(Object value, long ttlMillis) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.userservice.cache;
+
+import java.time.Duration;
+
+/**
+ * Tuning for loads through {@link TwoLevelCache#get(Object, java.util.concurrent.Callable)}.
+ *
+ * @param leaseTtl             how long a replica holds the load lease, and how long other replicas wait for it
+ * @param earlyRefreshBeta     XFetch aggressiveness; higher refreshes earlier, {@code 0} disables early refresh
+ * @param earlyRefreshMinDelta lower bound for the expected load time used by early refresh
+ */
+public record CacheLoadSettings(Duration leaseTtl, double earlyRefreshBeta, Duration earlyRefreshMinDelta) {
+
+    public static final CacheLoadSettings DEFAULTS =
+            new CacheLoadSettings(Duration.ofSeconds(3), 1.0, Duration.ofMillis(100));
+}
@@ -0,0 +1,38 @@
+package com.example.userservice.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Explicit mapping between cacheable value types and the small numeric ids written into cache entries,
+ * so entries never carry class names. Ids must stay stable across releases; retire an id rather than reuse it.
+ */
+public class CacheTypeRegistry {
+
+    private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+    private final Map<Integer, Class<?>> typesById = new HashMap<>();
+
+    public CacheTypeRegistry register(int id, Class<?> type) {
+        if (id <= 0 || id > 127) {
+            throw new IllegalArgumentException("Type id must be between 1 and 127: " + id);
+        }
+        if (typesById.containsKey(id) || idsByType.containsKey(type)) {
+            throw new IllegalArgumentException("Duplicate registration for id " + id + " or " + type.getName());
+        }
+        idsByType.put(type, id);
+        typesById.put(id, type);
+        return this;
+    }
+
+    /**
+     * @return the id of {@code type}, or -1 if it is not registered
+     */
+    public int idOf(Class<?> type) {
+        Integer id = idsByType.get(type);
+        return id != null ? id : -1;
+    }
+
+    public Class<?> typeOf(int id) {
+        return typesById.get(id);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.userservice.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+/**
+ * Binary cache value format: {@code [MAGIC][version][typeId][Smile payload]}.
+ * <p>
+ * The type id comes from an explicit {@link CacheTypeRegistry}, so no class names are stored. Entries that do not
+ * start with {@link #MAGIC} are handed to the legacy serializer (the JSON format written by earlier releases).
+ * Entries with an unknown version or type id, or that fail to decode, are returned as {@code null}, which the cache
+ * treats as a miss and overwrites with a fresh value, so a format bump never fails a request.
+ * <p>
+ * Releases that predate this class only read JSON; keep {@code app.cache.value-format=json} until they are gone.
+ */
+@Slf4j
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 3;
+
+    private final CacheTypeRegistry registry;
+    private final RedisSerializer<Object> legacySerializer;
+    private final ObjectMapper mapper;
+
+    public CompactCacheSerializer(CacheTypeRegistry registry, RedisSerializer<Object> legacySerializer) {
+        this.registry = registry;
+        this.legacySerializer = legacySerializer;
+        SmileFactory smileFactory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        this.mapper = new ObjectMapper(smileFactory);
+        this.mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        this.mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        this.mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.mapper.registerModule(new JavaTimeModule());
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        int typeId = registry.idOf(value.getClass());
+        if (typeId < 0) {
+            throw new SerializationException("Type not registered for caching: " + value.getClass().getName());
+        }
+        try {
+            byte[] payload = mapper.writeValueAsBytes(value);
+            byte[] entry = new byte[HEADER_LENGTH + payload.length];
+            entry[0] = MAGIC;
+            entry[1] = VERSION;
+            entry[2] = (byte) typeId;
+            System.arraycopy(payload, 0, entry, HEADER_LENGTH, payload.length);
+            return entry;
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache entry", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return readLegacy(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[1] != VERSION) {
+            log.debug("[deserialize] Skipping cache entry with unsupported format version");
+            return null;
+        }
+        Class<?> type = registry.typeOf(bytes[2]);
+        if (type == null) {
+            log.debug("[deserialize] Skipping cache entry with unknown type id {}", bytes[2]);
+            return null;
+        }
+        try {
+            return mapper.readerFor(type).readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        } catch (IOException e) {
+            log.debug("[deserialize] Skipping undecodable {} cache entry: {}", type.getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Object readLegacy(byte[] bytes) {
+        try {
+            return legacySerializer.deserialize(bytes);
+        } catch (SerializationException e) {
+            log.debug("[deserialize] Skipping undecodable legacy cache entry: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.userservice.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link RedisCacheManager} that binds the Redis-level statistics of every cache it creates (gets, hits, misses, puts,
+ * deletes) to the standard {@code cache.*} meters, and records the serialized size of every value written in
+ * {@code cache.value.size}. Statistics are only collected when the cache writer has a statistics collector.
+ */
+public class MeasuredRedisCacheManager extends RedisCacheManager {
+
+    private final MeterRegistry meterRegistry;
+
+    public MeasuredRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                     MeterRegistry meterRegistry) {
+        super(cacheWriter, defaultCacheConfiguration);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        RedisCacheConfiguration config = cacheConfiguration != null
+                ? cacheConfiguration
+                : getDefaultCacheConfiguration();
+        DistributionSummary valueSize = DistributionSummary.builder("cache.value.size")
+                .description("Serialized size of values written to Redis")
+                .baseUnit("bytes")
+                .tag("cache", name)
+                .register(meterRegistry);
+        SerializationPair<Object> values = config.getValueSerializationPair();
+        RedisCache cache = super.createRedisCache(name, config.serializeValuesWith(SerializationPair.just(
+                values.getReader(),
+                value -> {
+                    ByteBuffer serialized = values.write(value);
+                    valueSize.record(serialized.remaining());
+                    return serialized;
+                })));
+        new RedisCacheMetrics(cache, Tags.empty()).bindTo(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.userservice.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Multi-key access to the shared L2, used by {@link BatchCache} implementations.
+ */
+public interface RemoteCacheBatch {
+
+    /**
+     * @return the values of {@code keys} present in L2, keyed by the requested key
+     */
+    Map<Object, Object> multiGet(String cacheName, Collection<?> keys);
+
+    void multiPut(String cacheName, Map<?, ?> entries);
+}
@@ -0,0 +1,90 @@
+package com.example.userservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Times every call into an L2 cache in {@code cache.remote.latency}, tagged with the cache and the operation.
+ */
+final class TimedCache implements Cache {
+
+    private final Cache delegate;
+    private final Timer gets;
+    private final Timer puts;
+    private final Timer evictions;
+    private final Timer clears;
+
+    TimedCache(Cache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.gets = timer(delegate.getName(), "get", meterRegistry);
+        this.puts = timer(delegate.getName(), "put", meterRegistry);
+        this.evictions = timer(delegate.getName(), "evict", meterRegistry);
+        this.clears = timer(delegate.getName(), "clear", meterRegistry);
+    }
+
+    static Timer timer(String cacheName, String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("cache.remote.latency")
+                .description("Latency of calls into the L2 cache")
+                .tag("cache", cacheName)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return gets.record(() -> delegate.get(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return gets.record(() -> delegate.get(key, type));
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return gets.record(() -> delegate.get(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        puts.record(() -> delegate.put(key, value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return puts.record(() -> delegate.putIfAbsent(key, value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.record(() -> delegate.evict(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return Boolean.TRUE.equals(evictions.record(() -> delegate.evictIfPresent(key)));
+    }
+
+    @Override
+    public void clear() {
+        clears.record(delegate::clear);
+    }
+
+    @Override
+    public boolean invalidate() {
+        return Boolean.TRUE.equals(clears.record(delegate::invalidate));
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.userservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.example.userservice.cache.CacheLoadCoordinator.RemoteEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} backed by an in-process Caffeine L1 in front of a shared L2
+ * (Redis). Reads fall through L1 to L2 and back-fill L1; writes and evictions go to both levels, and evictions are
+ * handed to the {@link CacheInvalidationPublisher} so other replicas drop their L1 copies.
+ * <p>
+ * L1 entries are keyed by {@code String.valueOf(key)}, the same form Redis uses, so remote invalidations match.
+ * <p>
+ * {@link #get(Object, Callable)} (used by {@code @Cacheable(sync = true)}) protects the loader from stampedes:
+ * <ul>
+ *     <li>within a replica, concurrent misses for a key share one in-flight load;</li>
+ *     <li>across replicas, the loading thread takes a lease from the {@link CacheLoadCoordinator}; replicas that
+ *     lose the race poll L2 for the winner's value, and load themselves only if the lease expires first;</li>
+ *     <li>hits close to the L2 expiry refresh the entry early with an XFetch-style probability
+ *     ({@code now - delta * beta * ln(rand) >= expiry}), so hot keys are reloaded before they go cold.</li>
+ * </ul>
+ * <p>
+ * Single-key L2 reads go through the {@link CacheLoadCoordinator}, which returns the remaining L2 time-to-live with
+ * the value in the same round trip; writes take it from the configured TTL, so filling L1 costs no extra L2 call.
+ * <p>
+ * {@link #getAll} and {@link #putAll} serve L1 hits locally and send everything else to L2 in one
+ * {@link RemoteCacheBatch} call. L1 entries they create carry no L2 expiry, so they are not refreshed early.
+ */
+@Slf4j
+public class TwoLevelCache implements BatchCache {
+
+    private static final long LEASE_POLL_MILLIS = 25;
+    private static final long REWRITE_TOLERANCE_MILLIS = 1000;
+
+    private final String name;
+    private final Cache<String, LocalEntry> local;
+    private final org.springframework.cache.Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    private final CacheLoadCoordinator coordinator;
+    private final RemoteCacheBatch remoteBatch;
+    private final CacheLoadSettings settings;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    final LongAdder localHits = new LongAdder();
+    final LongAdder localMisses = new LongAdder();
+    final LongAdder remoteHits = new LongAdder();
+    final LongAdder remoteMisses = new LongAdder();
+    final LongAdder loads = new LongAdder();
+    final LongAdder loadNanos = new LongAdder();
+    final LongAdder localWaits = new LongAdder();
+    final LongAdder localWaitNanos = new LongAdder();
+    final LongAdder remoteWaits = new LongAdder();
+    final LongAdder remoteWaitNanos = new LongAdder();
+    final LongAdder localCoalesced = new LongAdder();
+    final LongAdder remoteCoalesced = new LongAdder();
+    final LongAdder earlyRefreshes = new LongAdder();
+
+    TwoLevelCache(String name, Cache<String, LocalEntry> local, org.springframework.cache.Cache remote,
+                  CacheInvalidationPublisher publisher, CacheLoadCoordinator coordinator, RemoteCacheBatch remoteBatch,
+                  CacheLoadSettings settings) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.coordinator = coordinator;
+        this.remoteBatch = remoteBatch;
+        this.settings = settings;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(entry.value());
+        }
+        localMisses.increment();
+        return getRemote(key, localKey);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null) {
+            localHits.increment();
+            if (shouldRefreshEarly(entry)) {
+                return (T) refreshEarly(key, localKey, entry, valueLoader);
+            }
+            return (T) entry.value();
+        }
+        localMisses.increment();
+
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> pending = inFlight.putIfAbsent(localKey, own);
+        if (pending != null) {
+            return (T) awaitLocal(pending);
+        }
+        try {
+            Object value = loadThroughRemote(key, localKey, valueLoader);
+            own.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, own);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            long ttl = coordinator.writeTtlMillis(name, key, value);
+            local.put(localKey(key), new LocalEntry(value, expiresAt(ttl)));
+        }
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            LocalEntry entry = local.getIfPresent(localKey(key));
+            if (entry != null) {
+                localHits.increment();
+                found.put(key, entry.value());
+            } else {
+                localMisses.increment();
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+        Map<Object, Object> remoteValues = remoteBatch.multiGet(name, remoteKeys);
+        for (Object key : remoteKeys) {
+            Object value = remoteValues.get(key);
+            if (value == null) {
+                remoteMisses.increment();
+                continue;
+            }
+            remoteHits.increment();
+            found.put(key, value);
+            local.put(localKey(key), new LocalEntry(value, LocalEntry.NO_EXPIRY));
+        }
+        return found;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        remoteBatch.multiPut(name, entries);
+        entries.forEach((key, value) -> {
+            if (value != null) {
+                local.put(localKey(key), new LocalEntry(value, LocalEntry.NO_EXPIRY));
+            }
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        publisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        publisher.publishClear(name);
+    }
+
+    private ValueWrapper getRemote(Object key, String localKey) {
+        ValueWrapper wrapper = getRemoteAndFillLocal(key, localKey);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        return wrapper;
+    }
+
+    /**
+     * Reads L2 and, on a hit, fills L1 with the value and the L2 expiry read along with it.
+     */
+    private ValueWrapper getRemoteAndFillLocal(Object key, String localKey) {
+        RemoteEntry entry = coordinator.getWithTtl(name, key);
+        if (entry == null || entry.value() == null) {
+            return null;
+        }
+        local.put(localKey, new LocalEntry(entry.value(), expiresAt(entry.ttlMillis())));
+        return new SimpleValueWrapper(entry.value());
+    }
+
+    private Object loadThroughRemote(Object key, String localKey, Callable<?> valueLoader) {
+        ValueWrapper wrapper = getRemote(key, localKey);
+        if (wrapper != null) {
+            return wrapper.get();
+        }
+        if (coordinator.tryAcquireLease(name, localKey)) {
+            try {
+                return loadAndPut(key, valueLoader);
+            } finally {
+                coordinator.releaseLease(name, localKey);
+            }
+        }
+        wrapper = awaitRemote(key, localKey);
+        if (wrapper != null) {
+            return wrapper.get();
+        }
+        log.debug("[loadThroughRemote] Lease for {}:{} expired before a value appeared, loading locally",
+                name, localKey);
+        return loadAndPut(key, valueLoader);
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.increment();
+            loadNanos.add(System.nanoTime() - start);
+        }
+        put(key, value);
+        return value;
+    }
+
+    private Object awaitLocal(CompletableFuture<Object> pending) {
+        long start = System.nanoTime();
+        try {
+            Object value = pending.join();
+            localCoalesced.increment();
+            return value;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            localWaits.increment();
+            localWaitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private ValueWrapper awaitRemote(Object key, String localKey) {
+        long start = System.nanoTime();
+        long deadline = start + settings.leaseTtl().toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(LEASE_POLL_MILLIS);
+                ValueWrapper wrapper = getRemoteAndFillLocal(key, localKey);
+                if (wrapper != null) {
+                    remoteCoalesced.increment();
+                    return wrapper;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            remoteWaits.increment();
+            remoteWaitNanos.add(System.nanoTime() - start);
+        }
+        return null;
+    }
+
+    private boolean shouldRefreshEarly(LocalEntry entry) {
+        if (entry.remoteExpiresAtMillis() == LocalEntry.NO_EXPIRY || settings.earlyRefreshBeta() <= 0) {
+            return false;
+        }
+        double delta = Math.max(meanLoadMillis(), settings.earlyRefreshMinDelta().toMillis());
+        double gap = -delta * settings.earlyRefreshBeta() * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= entry.remoteExpiresAtMillis();
+    }
+
+    /**
+     * Reloads a still-valid entry. Gives up and serves the current value if another thread or replica is already
+     * loading the key, if another replica has refreshed it in the meantime, or if the loader fails.
+     */
+    private Object refreshEarly(Object key, String localKey, LocalEntry current, Callable<?> valueLoader) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, own) != null) {
+            return current.value();
+        }
+        Object value = current.value();
+        try {
+            if (coordinator.tryAcquireLease(name, localKey)) {
+                try {
+                    value = refreshIfUnchanged(key, localKey, current, valueLoader);
+                } finally {
+                    coordinator.releaseLease(name, localKey);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("[refreshEarly] Early refresh of {}:{} failed, serving cached value: {}",
+                    name, localKey, e.getMessage());
+        } finally {
+            own.complete(value);
+            inFlight.remove(localKey, own);
+        }
+        return value;
+    }
+
+    private Object refreshIfUnchanged(Object key, String localKey, LocalEntry current, Callable<?> valueLoader) {
+        RemoteEntry remoteEntry = coordinator.getWithTtl(name, key);
+        if (remoteEntry != null && remoteEntry.value() != null) {
+            long remoteExpiresAt = expiresAt(remoteEntry.ttlMillis());
+            if (remoteExpiresAt > current.remoteExpiresAtMillis() + REWRITE_TOLERANCE_MILLIS) {
+                // Another replica already rewrote L2; adopt its value instead of loading again.
+                local.put(localKey, new LocalEntry(remoteEntry.value(), remoteExpiresAt));
+                return remoteEntry.value();
+            }
+        }
+        earlyRefreshes.increment();
+        return loadAndPut(key, valueLoader);
+    }
+
+    private static long expiresAt(long ttlMillis) {
+        return ttlMillis < 0 ? LocalEntry.NO_EXPIRY : System.currentTimeMillis() + ttlMillis;
+    }
+
+    private double meanLoadMillis() {
+        long count = loads.sum();
+        return count == 0 ? 0 : loadNanos.sum() / 1_000_000.0 / count;
+    }
+
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    long localSize() {
+        return local.estimatedSize();
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * L1 value together with the L2 expiry it was read with, used to decide on early refresh.
+     */
+    record LocalEntry(Object value, long remoteExpiresAtMillis) {
+
+        static final long NO_EXPIRY = Long.MAX_VALUE;
+    }
+}
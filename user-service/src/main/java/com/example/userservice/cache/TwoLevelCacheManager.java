@@ -0,0 +1,366 @@
+package com.example.userservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link CacheManager} that layers a size- and TTL-bounded Caffeine L1 over a shared L2 cache manager.
+ * <p>
+ * Evictions are published on a Redis pub/sub channel as {@code instanceId|op|cache|key}; each replica subscribes
+ * through {@link #onMessage} and drops the matching L1 entries, ignoring its own messages. The L1 TTL bounds
+ * staleness if a message is lost.
+ * <p>
+ * Load leases are {@code SET NX PX} keys ({@code cache::lease::key}) holding the instance id, released with a
+ * compare-and-delete script so an expired lease taken over by another replica is never removed. Single-key reads
+ * pipeline {@code GET} with {@code PTTL} on the {@link RedisCache} key, so L1 learns the remaining L2 time-to-live
+ * without an extra round trip; after a write it is the configured TTL. Redis failures never block a load: the lease
+ * is treated as granted.
+ * <p>
+ * Batch reads are a single {@code MGET}, batch writes one pipeline of {@code SET ... PX}, both using the
+ * {@link RedisCache}'s key prefix, value serializer and TTL so entries are interchangeable with single-key ones.
+ * They are counted in the Redis cache statistics like single-key calls, and every L2 call is timed in
+ * {@code cache.remote.latency}.
+ */
+@Slf4j
+public class TwoLevelCacheManager
+        implements CacheManager, CacheInvalidationPublisher, CacheLoadCoordinator, RemoteCacheBatch, MessageListener {
+
+    static final String OP_EVICT = "evict";
+    static final String OP_CLEAR = "clear";
+
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final CacheLoadSettings loadSettings;
+    private final MeterRegistry meterRegistry;
+    private final CacheStatisticsCollector remoteStatistics;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, RedisCache> redisCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate, String channel,
+                                long localMaximumSize, Duration localTtl, CacheLoadSettings loadSettings,
+                                MeterRegistry meterRegistry, CacheStatisticsCollector remoteStatistics) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.loadSettings = loadSettings;
+        this.meterRegistry = meterRegistry;
+        this.remoteStatistics = remoteStatistics;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            throw new IllegalStateException("No L2 cache named " + name);
+        }
+        if (remote instanceof RedisCache redisCache) {
+            redisCaches.put(name, redisCache);
+        }
+        TwoLevelCache cache = new TwoLevelCache(name,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaximumSize)
+                        .expireAfterWrite(localTtl)
+                        .build(),
+                new TimedCache(remote, meterRegistry), this, this, this, loadSettings);
+        bindMetrics(cache);
+        return cache;
+    }
+
+    private void bindMetrics(TwoLevelCache cache) {
+        Tags tags = Tags.of("cache", cache.getName());
+        registerLevel(cache, tags.and("level", "l1"), c -> c.localHits, c -> c.localMisses);
+        registerLevel(cache, tags.and("level", "l2"), c -> c.remoteHits, c -> c.remoteMisses);
+        Gauge.builder("cache.level.size", cache, TwoLevelCache::localSize)
+                .tags(tags.and("level", "l1"))
+                .description("Estimated number of entries in the in-process L1")
+                .register(meterRegistry);
+
+        FunctionTimer.builder("cache.loads", cache, c -> c.loads.sum(), c -> c.loadNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Loader executions after a miss or early refresh")
+                .register(meterRegistry);
+        registerWait(cache, tags.and("scope", "local"), c -> c.localWaits, c -> c.localWaitNanos,
+                c -> c.localCoalesced);
+        registerWait(cache, tags.and("scope", "remote"), c -> c.remoteWaits, c -> c.remoteWaitNanos,
+                c -> c.remoteCoalesced);
+        FunctionCounter.builder("cache.early.refreshes", cache, c -> c.earlyRefreshes.sum())
+                .tags(tags)
+                .description("Entries reloaded before their L2 expiry")
+                .register(meterRegistry);
+    }
+
+    private void registerWait(TwoLevelCache cache, Tags tags,
+                              Function<TwoLevelCache, LongAdder> waits,
+                              Function<TwoLevelCache, LongAdder> waitNanos,
+                              Function<TwoLevelCache, LongAdder> coalesced) {
+        FunctionTimer.builder("cache.load.wait", cache, c -> waits.apply(c).sum(), c -> waitNanos.apply(c).sum(),
+                        TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Time spent waiting for a load running in another thread (local) or replica (remote)")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.load.coalesced", cache, c -> coalesced.apply(c).sum())
+                .tags(tags)
+                .description("Requests answered by another thread's or replica's load instead of their own")
+                .register(meterRegistry);
+    }
+
+    private void registerLevel(TwoLevelCache cache, Tags tags,
+                               Function<TwoLevelCache, LongAdder> hits,
+                               Function<TwoLevelCache, LongAdder> misses) {
+        FunctionCounter.builder("cache.level.gets", cache, c -> hits.apply(c).sum())
+                .tags(tags.and("result", "hit"))
+                .description("Lookups answered at this cache level")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.level.gets", cache, c -> misses.apply(c).sum())
+                .tags(tags.and("result", "miss"))
+                .description("Lookups that fell through this cache level")
+                .register(meterRegistry);
+        ToDoubleFunction<TwoLevelCache> ratio = c -> {
+            double hit = hits.apply(c).sum();
+            double total = hit + misses.apply(c).sum();
+            return total == 0 ? 0 : hit / total;
+        };
+        Gauge.builder("cache.level.hit.ratio", cache, ratio)
+                .tags(tags)
+                .description("Hit ratio of this cache level since startup")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publishEvict(String cacheName, String key) {
+        publish(OP_EVICT, cacheName, key);
+    }
+
+    @Override
+    public void publishClear(String cacheName) {
+        publish(OP_CLEAR, cacheName, "");
+    }
+
+    private void publish(String op, String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, String.join("|", instanceId, op, cacheName, key));
+        } catch (RuntimeException e) {
+            // Other replicas fall back to their L1 TTL.
+            log.warn("[publish] Failed to broadcast {} of {}:{}: {}", op, cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean tryAcquireLease(String cacheName, String key) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey(cacheName, key), instanceId, loadSettings.leaseTtl()));
+        } catch (RuntimeException e) {
+            log.warn("[tryAcquireLease] Loading {}:{} without a lease: {}", cacheName, key, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void releaseLease(String cacheName, String key) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(leaseKey(cacheName, key)), instanceId);
+        } catch (RuntimeException e) {
+            // The lease expires on its own.
+            log.warn("[releaseLease] Failed to release lease on {}:{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Pipelines {@code GET} and {@code PTTL} on the {@link RedisCache} key, so the expiry costs no extra round trip.
+     * Failures propagate like those of a {@link RedisCache} read.
+     */
+    @Override
+    public RemoteEntry getWithTtl(String cacheName, Object key) {
+        Timer latency = TimedCache.timer(cacheName, "get", meterRegistry);
+        RedisCache redisCache = redisCaches.get(cacheName);
+        if (redisCache == null) {
+            Cache.ValueWrapper wrapper = latency.record(() -> remoteCacheManager.getCache(cacheName).get(key));
+            return wrapper != null && wrapper.get() != null ? new RemoteEntry(wrapper.get(), UNKNOWN_TTL) : null;
+        }
+        byte[] rawKey = redisKey(redisCache, TwoLevelCache.localKey(key)).getBytes(StandardCharsets.UTF_8);
+        RedisCallback<Object> getWithTtl = connection -> {
+            connection.stringCommands().get(rawKey);
+            connection.keyCommands().pTtl(rawKey);
+            return null;
+        };
+        List<Object> results = latency.record(
+                () -> redisTemplate.executePipelined(getWithTtl, RedisSerializer.byteArray()));
+        remoteStatistics.incGets(cacheName);
+        byte[] raw = results != null && !results.isEmpty() ? (byte[]) results.get(0) : null;
+        // The serializer reads a payload it cannot decode (unknown type id, older format) as null: a miss, so the
+        // caller loads the value and overwrites the entry.
+        Object value = raw != null
+                ? redisCache.getCacheConfiguration().getValueSerializationPair().read(ByteBuffer.wrap(raw))
+                : null;
+        if (value == null) {
+            remoteStatistics.incMisses(cacheName);
+            return null;
+        }
+        remoteStatistics.incHits(cacheName);
+        Long ttl = results.size() > 1 && results.get(1) instanceof Long millis ? millis : null;
+        return new RemoteEntry(value, ttl != null && ttl >= 0 ? ttl : UNKNOWN_TTL);
+    }
+
+    @Override
+    public long writeTtlMillis(String cacheName, Object key, Object value) {
+        RedisCache redisCache = redisCaches.get(cacheName);
+        if (redisCache == null) {
+            return UNKNOWN_TTL;
+        }
+        Duration ttl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+        return ttl != null && !ttl.isZero() && !ttl.isNegative() ? ttl.toMillis() : UNKNOWN_TTL;
+    }
+
+    @Override
+    public Map<Object, Object> multiGet(String cacheName, Collection<?> keys) {
+        RedisCache redisCache = redisCaches.get(cacheName);
+        Map<Object, Object> found = new HashMap<>();
+        if (redisCache == null) {
+            Cache remote = remoteCacheManager.getCache(cacheName);
+            for (Object key : keys) {
+                Cache.ValueWrapper wrapper = remote.get(key);
+                if (wrapper != null && wrapper.get() != null) {
+                    found.put(key, wrapper.get());
+                }
+            }
+            return found;
+        }
+        List<Object> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = new byte[keyList.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = redisKey(redisCache, TwoLevelCache.localKey(keyList.get(i))).getBytes(StandardCharsets.UTF_8);
+        }
+        Timer latency = TimedCache.timer(cacheName, "get_all", meterRegistry);
+        List<byte[]> rawValues = latency.record(() -> redisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys)));
+        if (rawValues == null) {
+            return found;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        for (int i = 0; i < rawValues.size(); i++) {
+            byte[] raw = rawValues.get(i);
+            Object value = raw != null ? config.getValueSerializationPair().read(ByteBuffer.wrap(raw)) : null;
+            // Counted like single-key reads through the RedisCache
+            remoteStatistics.incGets(cacheName);
+            if (value != null) {
+                remoteStatistics.incHits(cacheName);
+                found.put(keyList.get(i), value);
+            } else {
+                remoteStatistics.incMisses(cacheName);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void multiPut(String cacheName, Map<?, ?> entries) {
+        RedisCache redisCache = redisCaches.get(cacheName);
+        if (redisCache == null) {
+            Cache remote = remoteCacheManager.getCache(cacheName);
+            entries.forEach(remote::put);
+            return;
+        }
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        RedisCallback<Object> writeAll = connection -> {
+            entries.forEach((key, value) -> {
+                if (value == null) {
+                    return;
+                }
+                byte[] rawKey = redisKey(redisCache, TwoLevelCache.localKey(key)).getBytes(StandardCharsets.UTF_8);
+                ByteBuffer buffer = config.getValueSerializationPair().write(value);
+                byte[] rawValue = new byte[buffer.remaining()];
+                buffer.get(rawValue);
+                Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                        ? Expiration.persistent()
+                        : Expiration.from(ttl);
+                connection.stringCommands().set(rawKey, rawValue, expiration, RedisStringCommands.SetOption.upsert());
+                remoteStatistics.incPuts(cacheName);
+            });
+            return null;
+        };
+        TimedCache.timer(cacheName, "put_all", meterRegistry).record(() -> redisTemplate.executePipelined(writeAll));
+    }
+
+    private static String redisKey(RedisCache redisCache, String key) {
+        return redisCache.getCacheConfiguration().getKeyPrefixFor(redisCache.getName()) + key;
+    }
+
+    private static String leaseKey(String cacheName, String key) {
+        return cacheName + "::lease::" + key;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length != 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (OP_CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else if (OP_EVICT.equals(parts[1])) {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
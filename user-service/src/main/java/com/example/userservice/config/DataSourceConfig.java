@@ -0,0 +1,87 @@
+package com.example.userservice.config;
+
+import com.example.userservice.datasource.ReadReplicaDataSource;
+import com.example.userservice.datasource.Replica;
+import com.example.userservice.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to replicas and everything else to the primary, when
+ * {@code app.datasource.replica-urls} lists at least one replica. Otherwise Spring Boot's single datasource is used.
+ * <p>
+ * Routing happens when a transaction first runs a statement: the primary's pool is wrapped in a
+ * {@link LazyConnectionDataSourceProxy} whose read-only target is a {@link ReadReplicaDataSource}, so the
+ * {@code readOnly} flag set at transaction begin decides where the one physical connection comes from.
+ * <p>
+ * Every pool takes the {@code spring.datasource.hikari.*} settings, as Boot's own pool would, except its name, URL
+ * and, for replicas, read-only flag.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource", name = "replica-urls")
+public class DataSourceConfig {
+
+    /** Seconds since the last replayed transaction, or 0 when the replica has replayed everything it received. */
+    static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()"
+            + " THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    @Bean(defaultCandidate = false)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment,
+                                              MeterRegistry meterRegistry) {
+        return pool(properties, environment, properties.determineUrl(), "primary", meterRegistry);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties, Environment environment,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${app.datasource.replica-urls}") String[] urls,
+                                               @Value("${app.datasource.replica-lag-query:}") String lagQuery,
+                                               @Value("${app.datasource.replica-max-lag:5s}") Duration maxLag) {
+        List<Replica> replicas = new ArrayList<>(urls.length);
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource dataSource = pool(properties, environment, urls[i].trim(), "replica-" + (i + 1),
+                    meterRegistry);
+            dataSource.setReadOnly(true);
+            replicas.add(new Replica(dataSource.getPoolName(), dataSource));
+        }
+        return new ReplicaLagMonitor(replicas, lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery, maxLag,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReadReplicaDataSource(replicaLagMonitor, primary, meterRegistry));
+        return proxy;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url,
+                                         String poolName, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+        dataSource.setJdbcUrl(url);
+        dataSource.setPoolName(poolName);
+        dataSource.setMetricRegistry(meterRegistry);
+        return dataSource;
+    }
+}
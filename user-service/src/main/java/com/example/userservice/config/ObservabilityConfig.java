@@ -0,0 +1,54 @@
+package com.example.userservice.config;
+
+import com.example.userservice.datasource.StatementCountFilter;
+import com.example.userservice.datasource.StatementMetricsDataSource;
+import com.example.userservice.repository.ObservedRepositoryPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Per-repository-method observations, JDBC statement counts per HTTP request and the slow statement log.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    @Bean
+    public static ObservedRepositoryPostProcessor observedRepositoryPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new ObservedRepositoryPostProcessor(observationRegistry);
+    }
+
+    /**
+     * Wraps the application's {@code dataSource} bean, i.e. the one behind JPA, so statements on the primary and on
+     * read replicas are counted once.
+     */
+    @Bean
+    public static BeanPostProcessor statementMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        // Read directly: placeholders in @Value are not resolved yet when post-processors are created
+        Duration slowThreshold = environment.getProperty(
+                "app.jdbc.slow-statement-threshold", Duration.class, Duration.ofMillis(200));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new StatementMetricsDataSource(dataSource, slowThreshold, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public StatementCountFilter statementCountFilter(MeterRegistry meterRegistry) {
+        return new StatementCountFilter(meterRegistry);
+    }
+}
@@ -1,20 +1,37 @@
 package com.example.userservice.config;
 
+import com.example.userservice.bloom.UserLookupFilter;
+import com.example.userservice.cache.CacheLoadSettings;
+import com.example.userservice.cache.CacheTypeRegistry;
+import com.example.userservice.cache.CompactCacheSerializer;
+import com.example.userservice.cache.MeasuredRedisCacheManager;
+import com.example.userservice.cache.TwoLevelCacheManager;
+import com.example.userservice.dto.RoleDto;
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.permission.PermissionCatalog;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.cache.CacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -29,13 +46,7 @@ public class RedisConfig {
                 template.setConnectionFactory(connectionFactory);
 
                 // JSON serializer
-                ObjectMapper objectMapper = new ObjectMapper();
-                objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-                objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
-                                ObjectMapper.DefaultTyping.NON_FINAL);
-                objectMapper.registerModule(new JavaTimeModule());
-                Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer<>(
-                                objectMapper, Object.class);
+                Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = jsonValueSerializer();
 
                 // String serializer
                 StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
@@ -52,16 +63,33 @@ public class RedisConfig {
                 return template;
         }
 
+        @Value("${app.cache.l1.maximum-size:10000}")
+        private long localMaximumSize;
+
+        @Value("${app.cache.l1.ttl:60s}")
+        private Duration localTtl;
+
+        @Value("${app.cache.invalidation-channel:user-service:cache-invalidation}")
+        private String invalidationChannel;
+
+        @Value("${app.cache.value-format:json}")
+        private String valueFormat;
+
+        @Value("${app.cache.load.lease-ttl:3s}")
+        private Duration loadLeaseTtl;
+
+        @Value("${app.cache.load.early-refresh-beta:1.0}")
+        private double earlyRefreshBeta;
+
+        @Value("${app.cache.load.early-refresh-min-delta:100ms}")
+        private Duration earlyRefreshMinDelta;
+
         @Bean
-        public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-                // JSON serializer for cache values
-                ObjectMapper objectMapper = new ObjectMapper();
-                objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-                objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
-                                ObjectMapper.DefaultTyping.NON_FINAL);
-                objectMapper.registerModule(new JavaTimeModule());
-                Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer<>(
-                                objectMapper, Object.class);
+        public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry) {
+                // Cache value serializer: the previous JSON format by default, "compact" for the binary one
+                RedisSerializer<Object> valueSerializer = "compact".equalsIgnoreCase(valueFormat)
+                                ? compactValueSerializer()
+                                : jsonValueSerializer();
 
                 // Cache configuration
                 RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
@@ -71,11 +99,70 @@ public class RedisConfig {
                                                                 .fromSerializer(new StringRedisSerializer()))
                                 .serializeValuesWith(
                                                 RedisSerializationContext.SerializationPair
-                                                                .fromSerializer(jackson2JsonRedisSerializer))
+                                                                .fromSerializer(valueSerializer))
                                 .disableCachingNullValues();
 
-                return RedisCacheManager.builder(connectionFactory)
-                                .cacheDefaults(config)
-                                .build();
+                // Redis-level statistics, also fed by the L1's batch reads and writes
+                CacheStatisticsCollector statistics = CacheStatisticsCollector.create();
+                RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory)
+                                .withStatisticsCollector(statistics);
+                RedisCacheManager redisCacheManager = new MeasuredRedisCacheManager(cacheWriter, config, meterRegistry);
+                redisCacheManager.afterPropertiesSet();
+
+                // In-process L1 in front of Redis, kept coherent across replicas through pub/sub;
+                // loads are single-flight per key and leased across replicas
+                return new TwoLevelCacheManager(redisCacheManager, new StringRedisTemplate(connectionFactory),
+                                invalidationChannel, localMaximumSize, localTtl,
+                                new CacheLoadSettings(loadLeaseTtl, earlyRefreshBeta, earlyRefreshMinDelta),
+                                meterRegistry, statistics);
+        }
+
+        /**
+         * Utilisation of the Lettuce connection pools ({@code commons.pool2.*}), found through their JMX registration.
+         */
+        @Bean(destroyMethod = "close")
+        public CommonsObjectPool2Metrics redisPoolMetrics() {
+                return new CommonsObjectPool2Metrics();
+        }
+
+        @Value("${app.user-filter.channel:user-service:user-keys}")
+        private String userFilterChannel;
+
+        @Value("${app.permission-catalog.channel:user-service:permission-catalog}")
+        private String permissionCatalogChannel;
+
+        @Bean
+        public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                        TwoLevelCacheManager cacheManager, UserLookupFilter userLookupFilter,
+                        PermissionCatalog permissionCatalog) {
+                RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                container.setConnectionFactory(connectionFactory);
+                container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+                container.addMessageListener(userLookupFilter, new ChannelTopic(userFilterChannel));
+                container.addMessageListener(permissionCatalog, new ChannelTopic(permissionCatalogChannel));
+                return container;
+        }
+
+        /**
+         * Jackson serializer with default typing, shared by the template and the cache manager.
+         */
+        public static Jackson2JsonRedisSerializer<Object> jsonValueSerializer() {
+                ObjectMapper objectMapper = new ObjectMapper();
+                objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+                objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+                                ObjectMapper.DefaultTyping.NON_FINAL);
+                objectMapper.registerModule(new JavaTimeModule());
+                return new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+        }
+
+        /**
+         * Compact binary serializer for cache values; entries written by {@link #jsonValueSerializer()} stay readable.
+         * Type ids are persisted in Redis and must never be reused for a different class.
+         */
+        public static CompactCacheSerializer compactValueSerializer() {
+                CacheTypeRegistry registry = new CacheTypeRegistry()
+                                .register(1, UserDto.class)
+                                .register(2, RoleDto.class);
+                return new CompactCacheSerializer(registry, jsonValueSerializer());
         }
 }
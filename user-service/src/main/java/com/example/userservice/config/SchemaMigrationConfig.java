@@ -0,0 +1,28 @@
+package com.example.userservice.config;
+
+import com.example.userservice.datasource.UserIdSequenceMigration;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Schema changes that {@code ddl-auto: update} does not make. They are checked on every start, on the primary, before
+ * the entity manager factory is built.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SchemaMigrationConfig {
+
+    static final String USER_ID_SEQUENCE_MIGRATION = "userIdSequenceMigration";
+
+    @Bean(USER_ID_SEQUENCE_MIGRATION)
+    public UserIdSequenceMigration userIdSequenceMigration(DataSource dataSource) {
+        return new UserIdSequenceMigration(dataSource);
+    }
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrations() {
+        return new EntityManagerFactoryDependsOnPostProcessor(USER_ID_SEQUENCE_MIGRATION);
+    }
+}
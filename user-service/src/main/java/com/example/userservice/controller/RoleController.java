@@ -1,5 +1,7 @@
 package com.example.userservice.controller;
 
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
 import com.cursor.common.pagination.PageUtils;
 import com.example.userservice.dto.RoleDto;
@@ -57,7 +59,7 @@ public class RoleController {
         public ResponseEntity<RoleDto> getById(
                         @Parameter(description = "Role ID", required = true, example = "1") @PathVariable Long id) {
                 RoleDto roleDto = roleService.getById(id);
-                return ResponseEntity.ok(roleDto);
+                return ResponseEntity.ok().cacheControl(SharedCaching.SINGLE_RESOURCE).body(roleDto);
         }
 
         @Operation(summary = "Update role", description = "Updates an existing role with the provided information")
@@ -101,4 +103,20 @@ public class RoleController {
                 return ResponseEntity.ok(pageResponse);
         }
 
+        @Operation(summary = "List roles with a cursor", description = "Retrieves roles page by page after an opaque cursor, without a total count; pass nextCursor to get the next page")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Roles retrieved successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort property")
+        })
+        @GetMapping("/scroll")
+        public ResponseEntity<CursorPageResponse<RoleDto>> scroll(
+                        @Parameter(description = "cursor from the previous page") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "size", example = "10") @RequestParam(required = false) Integer size,
+                        @Parameter(description = "sortBy: id or name") @RequestParam(required = false) String sortBy,
+                        @Parameter(description = "direction") @RequestParam(required = false) String direction) {
+                CursorRequest request = PageUtils.buildCursorRequest(cursor, size, sortBy, direction);
+                CursorPageResponse<RoleDto> pageResponse = roleService.getAll(request);
+                return ResponseEntity.ok(pageResponse);
+        }
+
 }
@@ -0,0 +1,18 @@
+package com.example.userservice.controller;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Freshness of single-resource responses for shared caches such as the gateway's {@code ResponseCache}: fresh there
+ * for {@code s-maxage}, while browsers revalidate every time ({@code max-age=0}). A write through the gateway evicts
+ * the gateway's copy at once; one made elsewhere is seen within {@code s-maxage}.
+ */
+final class SharedCaching {
+
+    static final CacheControl SINGLE_RESOURCE = CacheControl.maxAge(Duration.ZERO).sMaxAge(Duration.ofSeconds(30));
+
+    private SharedCaching() {
+    }
+}
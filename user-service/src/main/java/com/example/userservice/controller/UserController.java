@@ -1,9 +1,20 @@
 package com.example.userservice.controller;
 
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
 import com.cursor.common.pagination.PageUtils;
+import com.example.userservice.dto.UserBatchResponse;
+import com.example.userservice.dto.UserImportReport;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.entity.User;
+import com.example.userservice.exporter.ExportFormat;
+import com.example.userservice.importer.ImportFormat;
+import com.example.userservice.service.UserExportService;
+import com.example.userservice.service.UserImportService;
 import com.example.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,11 +24,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
 @RestController
 @RequestMapping("/users")
 @Tag(name = "User Management", description = "APIs for managing users")
@@ -25,8 +45,17 @@ public class UserController {
 
         private final UserService userService;
 
-        public UserController(UserService userService) {
+        private final UserImportService userImportService;
+        private final UserExportService userExportService;
+
+        @Value("${app.users.batch.max-size:100}")
+        private int batchMaxSize;
+
+        public UserController(UserService userService, UserImportService userImportService,
+                        UserExportService userExportService) {
                 this.userService = userService;
+                this.userImportService = userImportService;
+                this.userExportService = userExportService;
         }
 
         @Operation(summary = "Create a new user", description = "Creates a new user with the provided information")
@@ -54,6 +83,41 @@ public class UserController {
                 return ResponseEntity.ok(response);
         }
 
+        @Operation(summary = "Bulk import users", description = "Streams NDJSON or CSV (header: username,email,password) from the request body and creates one user per valid row; invalid and conflicting rows are reported per line")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Import finished; see imported, failed and errors"),
+                        @ApiResponse(responseCode = "400", description = "CSV header without username, email and password columns")
+        })
+        @PostMapping(value = "/import", consumes = { ImportFormat.NDJSON_VALUE, "text/csv" })
+        public ResponseEntity<UserImportReport> importUsers(
+                        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                        @Parameter(hidden = true) InputStream body) throws IOException {
+                UserImportReport report = userImportService.importUsers(body, ImportFormat.of(contentType));
+                return ResponseEntity.ok(report);
+        }
+
+        @Operation(summary = "Export users", description = "Streams all users, optionally filtered by status, as NDJSON or CSV (header: id,username,email,status,createdAt,updatedAt) straight from a database cursor; passwords are never exported")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Users streamed in sort order"),
+                        @ApiResponse(responseCode = "400", description = "Unsupported format, status or sort property")
+        })
+        @GetMapping("/export")
+        public void export(
+                        @Parameter(description = "format: ndjson or csv", example = "ndjson") @RequestParam(defaultValue = "ndjson") String format,
+                        @Parameter(description = "status: ACTIVE or INACTIVE; all users when omitted") @RequestParam(required = false) String status,
+                        @Parameter(description = "sortBy: id, username, email or createdAt") @RequestParam(required = false) String sortBy,
+                        @Parameter(description = "direction") @RequestParam(required = false) String direction,
+                        @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+                ExportFormat exportFormat = ExportFormat.of(format);
+                User.Status userStatus = parseStatus(status);
+                response.setContentType(exportFormat.contentType());
+                response.setCharacterEncoding("UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"users." + exportFormat.extension() + "\"");
+                userExportService.export(userStatus, PageUtils.buildSort(sortBy, direction), exportFormat,
+                                response.getOutputStream());
+        }
+
         @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique identifier")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "User found successfully"),
@@ -63,6 +127,22 @@ public class UserController {
         public ResponseEntity<UserDto> getById(
                         @Parameter(description = "User ID", required = true, example = "1") @PathVariable Long id) {
                 UserDto response = userService.getById(id);
+                return ResponseEntity.ok().cacheControl(SharedCaching.SINGLE_RESOURCE).body(response);
+        }
+
+        @Operation(summary = "Get users by IDs", description = "Retrieves up to app.users.batch.max-size users in one call; ids with no user are listed in missingIds")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Users found, in request order, plus the missing IDs"),
+                        @ApiResponse(responseCode = "400", description = "No IDs or more than the allowed batch size")
+        })
+        @GetMapping("/batch")
+        public ResponseEntity<UserBatchResponse> getBatch(
+                        @Parameter(description = "Comma-separated user IDs", required = true, example = "1,2,3") @RequestParam(required = false) List<Long> ids) {
+                if (ids == null || ids.isEmpty() || ids.size() > batchMaxSize) {
+                        throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                                        "Between 1 and " + batchMaxSize + " ids are required");
+                }
+                UserBatchResponse response = userService.getByIds(ids);
                 return ResponseEntity.ok(response);
         }
 
@@ -81,6 +161,22 @@ public class UserController {
                 return ResponseEntity.ok(pageResponse);
         }
 
+        @Operation(summary = "List users with a cursor", description = "Retrieves users page by page after an opaque cursor, without a total count; pass nextCursor to get the next page")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or unsupported sort property")
+        })
+        @GetMapping("/scroll")
+        public ResponseEntity<CursorPageResponse<UserDto>> scroll(
+                        @Parameter(description = "cursor from the previous page") @RequestParam(required = false) String cursor,
+                        @Parameter(description = "size", example = "10") @RequestParam(required = false) Integer size,
+                        @Parameter(description = "sortBy: id, username, email or createdAt") @RequestParam(required = false) String sortBy,
+                        @Parameter(description = "direction") @RequestParam(required = false) String direction) {
+                CursorRequest request = PageUtils.buildCursorRequest(cursor, size, sortBy, direction);
+                CursorPageResponse<UserDto> pageResponse = userService.list(request);
+                return ResponseEntity.ok(pageResponse);
+        }
+
         @Operation(summary = "Update user", description = "Updates an existing user with the provided information")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "User updated successfully"),
@@ -106,4 +202,15 @@ public class UserController {
                 userService.delete(id);
                return ResponseEntity.ok().build();
         }
+
+        private static User.Status parseStatus(String status) {
+                if (status == null || status.isBlank()) {
+                        return null;
+                }
+                try {
+                        return User.Status.valueOf(status.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                        throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Unsupported status: " + status);
+                }
+        }
 }
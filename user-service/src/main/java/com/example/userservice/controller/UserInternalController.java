@@ -2,9 +2,14 @@ package com.example.userservice.controller;
 
 import com.cursor.common.dto.UserResponse;
 import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.UserPermissionsDto;
+import com.example.userservice.service.PermissionService;
 import com.example.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,9 +22,26 @@ public class UserInternalController {
 
     private final UserService userService;
 
+    private final PermissionService permissionService;
+
     @PostMapping("/validate")
     public ResponseEntity<UserResponse> validate(@RequestBody LoginRequest loginRequest) {
         UserResponse userResponse = userService.validateUser(loginRequest);
         return ResponseEntity.ok(userResponse);
     }
+
+    @GetMapping("/{id}/permissions")
+    public ResponseEntity<UserPermissionsDto> getPermissions(@PathVariable Long id) {
+        return ResponseEntity.ok(permissionService.getUserPermissions(id));
+    }
+
+    /**
+     * 204 when the user has the permission, 403 otherwise.
+     */
+    @GetMapping("/{id}/permissions/{code}")
+    public ResponseEntity<Void> checkPermission(@PathVariable Long id, @PathVariable String code) {
+        return permissionService.hasPermission(id, code)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
 }
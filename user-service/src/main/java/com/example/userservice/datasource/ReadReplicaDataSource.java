@@ -0,0 +1,54 @@
+package com.example.userservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out connections to a replica chosen by {@link ReplicaLagMonitor}, or to the primary when every replica is
+ * lagging or unreachable. Used as the read-only target of a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so a read-only transaction keeps the
+ * one connection it was given.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource {
+
+    private final ReplicaLagMonitor monitor;
+    private final DataSource primary;
+    private final Counter replicaConnections;
+    private final Counter primaryConnections;
+
+    public ReadReplicaDataSource(ReplicaLagMonitor monitor, DataSource primary, MeterRegistry meterRegistry) {
+        this.monitor = monitor;
+        this.primary = primary;
+        this.replicaConnections = Counter.builder("datasource.read.connections").tag("target", "replica")
+                .description("Connections handed to read-only transactions")
+                .register(meterRegistry);
+        this.primaryConnections = Counter.builder("datasource.read.connections").tag("target", "primary")
+                .description("Connections handed to read-only transactions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+
+    private DataSource target() {
+        Replica replica = monitor.pick();
+        if (replica == null) {
+            primaryConnections.increment();
+            return primary;
+        }
+        replicaConnections.increment();
+        return replica.dataSource();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.userservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A replica's pool and its last measured replication lag.
+ */
+public final class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    /** Seconds behind the primary; {@code NaN} until measured or while the replica is unreachable. */
+    private volatile double lagSeconds = Double.NaN;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    String name() {
+        return name;
+    }
+
+    HikariDataSource dataSource() {
+        return dataSource;
+    }
+
+    double lagSeconds() {
+        return lagSeconds;
+    }
+
+    void lagSeconds(double lagSeconds) {
+        this.lagSeconds = lagSeconds;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.userservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures each replica's replication lag and picks, round-robin, a replica that is within {@code max-lag}.
+ * Replicas that cannot be reached, or whose lag is unknown, are skipped until the next successful check.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaLagMonitor(List<Replica> replicas, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, Replica::lagSeconds)
+                    .tag("replica", replica.name())
+                    .baseUnit("seconds")
+                    .description("Replication lag of the replica at its last check; NaN while unreachable")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * A replica within the allowed lag, or {@code null} when there is none.
+     */
+    Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagSeconds() <= maxLagSeconds) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.datasource.replica-lag-check-interval:5s}",
+            fixedDelayString = "${app.datasource.replica-lag-check-interval:5s}")
+    public void refresh() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                replica.lagSeconds(resultSet.next() ? resultSet.getDouble(1) : Double.NaN);
+            } catch (SQLException e) {
+                replica.lagSeconds(Double.NaN);
+                log.warn("[refresh] Replica {} is unavailable for reads: {}", replica.name(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource().close());
+    }
+}
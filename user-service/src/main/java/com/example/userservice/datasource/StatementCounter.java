@@ -0,0 +1,33 @@
+package com.example.userservice.datasource;
+
+/**
+ * Counts the JDBC statements executed on the current thread between {@link #begin()} and {@link #end()}. Statements
+ * executed outside such a window are not counted.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    /**
+     * Closes the window and returns the number of statements executed in it.
+     */
+    public static int end() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    static void increment() {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.userservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Counts every statement execution for {@link StatementCounter} and logs executions slower than a threshold with
+ * their SQL and the shapes of their bound parameters (types, never values). A JDBC batch counts as one execution,
+ * since it is one round trip.
+ * <p>
+ * Slow executions are also counted in {@code jdbc.statements.slow}.
+ */
+@Slf4j
+public class StatementMetricsDataSource extends DelegatingDataSource {
+
+    private final long slowThresholdNanos;
+    private final Counter slowStatements;
+
+    public StatementMetricsDataSource(DataSource target, Duration slowThreshold, MeterRegistry meterRegistry) {
+        super(target);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowStatements = Counter.builder("jdbc.statements.slow")
+                .description("JDBC statement executions slower than the slow query threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Identity semantics, so the proxies work as keys of the registries that track open statements
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * {@code Long}, {@code String}, {@code null}, ... for each bound parameter in index order.
+     */
+    static String shapes(Map<Integer, String> parameters) {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        parameters.values().forEach(joiner::add);
+        return joiner.toString();
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementMetricsDataSource.invoke(proxy, target, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, String> parameters = new TreeMap<>();
+        private int batched;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") || args[1] == null
+                        ? "null" : args[1].getClass().getSimpleName());
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batched++;
+            } else if (name.equals("clearBatch")) {
+                batched = 0;
+            }
+            return StatementMetricsDataSource.invoke(proxy, target, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            StatementCounter.increment();
+            long start = System.nanoTime();
+            try {
+                return StatementMetricsDataSource.invoke(proxy, target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= slowThresholdNanos) {
+                    slowStatements.increment();
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    log.warn("[execute] Slow statement took {} ms: {} parameters {}{}", elapsed / 1_000_000, sql,
+                            shapes(parameters), batched > 0 ? " x " + batched + " batched" : "");
+                }
+                if (method.getName().equals("executeBatch") || method.getName().equals("executeLargeBatch")) {
+                    batched = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.userservice.datasource;
+
+import com.example.userservice.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Sets the increment of {@code users_id_seq} to {@link User#ID_ALLOCATION_SIZE} on databases created while user ids
+ * were identity values, whose sequence increments by 1. {@code ddl-auto: update} never alters a sequence, and
+ * Hibernate refuses to start when the increment differs from the allocation size, so this has to run before the
+ * entity manager factory (see {@code SchemaMigrationConfig}). A missing sequence is left for Hibernate to create.
+ */
+@Slf4j
+public class UserIdSequenceMigration implements InitializingBean {
+
+    static final String INCREMENT_QUERY = "SELECT increment FROM information_schema.sequences"
+            + " WHERE lower(sequence_name) = ? AND sequence_schema = current_schema()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserIdSequenceMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> increments = jdbcTemplate.queryForList(INCREMENT_QUERY, String.class, User.ID_SEQUENCE);
+        if (increments.isEmpty() || Long.parseLong(increments.get(0).trim()) == User.ID_ALLOCATION_SIZE) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + User.ID_SEQUENCE + " INCREMENT BY " + User.ID_ALLOCATION_SIZE);
+        log.info("[migrate] Changed the increment of {} from {} to {}", User.ID_SEQUENCE, increments.get(0).trim(),
+                User.ID_ALLOCATION_SIZE);
+    }
+}
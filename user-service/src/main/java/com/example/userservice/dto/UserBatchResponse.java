@@ -0,0 +1,25 @@
+package com.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResponse {
+
+    /**
+     * Users found, in the order their ids were requested; duplicate ids appear once.
+     */
+    private List<UserDto> users;
+
+    /**
+     * Requested ids with no user, in request order.
+     */
+    private List<Long> missingIds;
+}
@@ -0,0 +1,22 @@
+package com.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportError {
+
+    /**
+     * 1-based line of the import body.
+     */
+    private long line;
+
+    private String username;
+
+    private String message;
+}
@@ -0,0 +1,31 @@
+package com.example.userservice.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserImportReport {
+
+    private long received;
+
+    private long imported;
+
+    private long failed;
+
+    private long durationMillis;
+
+    private double rowsPerSecond;
+
+    /**
+     * Rejected rows sorted by line, up to app.users.import.max-reported-errors; {@link #failed} counts all of them.
+     */
+    private List<UserImportError> errors = new ArrayList<>();
+
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,16 @@
+package com.example.userservice.dto;
+
+import lombok.*;
+
+import java.util.Set;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPermissionsDto {
+
+    private Long userId;
+
+    private Set<String> permissions;
+}
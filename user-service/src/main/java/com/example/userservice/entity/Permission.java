@@ -1,11 +1,13 @@
 package com.example.userservice.entity;
 
+import com.example.userservice.permission.PermissionCatalogListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
 @Table(name = "permissions")
+@EntityListeners(PermissionCatalogListener.class)
 @Getter
 @Setter
 public class Permission {
@@ -1,12 +1,15 @@
 package com.example.userservice.entity;
 
+import com.example.userservice.permission.PermissionCatalogListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Set;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(PermissionCatalogListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +24,7 @@ public class Role {
     private String name;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(
             name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
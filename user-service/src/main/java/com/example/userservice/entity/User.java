@@ -1,14 +1,24 @@
 package com.example.userservice.entity;
 
+import com.example.userservice.repository.UserConstraints;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        uniqueConstraints = {
+                @UniqueConstraint(name = UserConstraints.USERNAME, columnNames = "username"),
+                @UniqueConstraint(name = UserConstraints.EMAIL, columnNames = "email")
+        },
+        indexes = {
+                @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+                @Index(name = "idx_users_updated_at", columnList = "updated_at")
+        })
 @Getter
 @Setter
 public class User {
@@ -17,14 +27,22 @@ public class User {
         ACTIVE, INACTIVE
     }
 
+    public static final String ID_SEQUENCE = "users_id_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Allocated in blocks of 50 from the sequence (pooled optimizer), so inserts can be batched; the database
+     * sequence must increment by the same amount, which {@code UserIdSequenceMigration} ensures on startup.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String username;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -40,7 +58,8 @@ public class User {
     @Column(nullable = false)
     private Instant updatedAt;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,20 @@
+package com.example.userservice.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a bounded resource is saturated; answered with 503 and a {@code Retry-After} header.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.userservice.exporter;
+
+import com.example.userservice.repository.UserExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header row; fields containing a comma, quote or line break are quoted.
+ */
+public class CsvUserRowWriter implements UserRowWriter {
+
+    static final String HEADER = "id,username,email,status,createdAt,updatedAt";
+
+    private final Writer writer;
+
+    public CsvUserRowWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(UserExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writeField(row.username());
+        writer.write(',');
+        writeField(row.email());
+        writer.write(',');
+        writeField(row.status() != null ? row.status().name() : null);
+        writer.write(',');
+        writeField(row.createdAt() != null ? row.createdAt().toString() : null);
+        writer.write(',');
+        writeField(row.updatedAt() != null ? row.updatedAt().toString() : null);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.userservice.exporter;
+
+import com.example.userservice.repository.UserExportRow;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+public class NdjsonUserRowWriter implements UserRowWriter {
+
+    private final JsonGenerator generator;
+
+    public NdjsonUserRowWriter(OutputStream out, JsonFactory jsonFactory) throws IOException {
+        this.generator = jsonFactory.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are separated by the newline written after each object, not the default space before it
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(UserExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.id());
+        generator.writeStringField("username", row.username());
+        generator.writeStringField("email", row.email());
+        generator.writeStringField("status", row.status() != null ? row.status().name() : null);
+        generator.writeStringField("createdAt", format(row.createdAt()));
+        generator.writeStringField("updatedAt", format(row.updatedAt()));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    private static String format(Instant instant) {
+        return instant != null ? instant.toString() : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.userservice.exporter;
+
+import com.example.userservice.repository.UserExportRow;
+
+import java.io.IOException;
+
+/**
+ * Writes export rows as they are read; implementations buffer at most a few kilobytes.
+ */
+public interface UserRowWriter {
+
+    void write(UserExportRow row) throws IOException;
+
+    /**
+     * Writes anything still buffered; the underlying stream stays open.
+     */
+    void finish() throws IOException;
+}
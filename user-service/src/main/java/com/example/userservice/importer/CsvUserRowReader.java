@@ -0,0 +1,126 @@
+package com.example.userservice.importer;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import com.example.userservice.dto.UserRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Comma-separated rows under a header naming the {@code username}, {@code email} and {@code password} columns in any
+ * order. Fields may be double-quoted, with {@code ""} for a literal quote; a field cannot span lines.
+ */
+public class CsvUserRowReader implements UserRowReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader reader;
+    private long line;
+    private int usernameColumn = -1;
+    private int emailColumn = -1;
+    private int passwordColumn = -1;
+    private int columns;
+
+    public CsvUserRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (columns == 0) {
+            ImportRow headerError = readHeader();
+            if (headerError != null) {
+                return headerError;
+            }
+        }
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+        List<String> fields = split(text);
+        if (fields == null) {
+            return ImportRow.failed(line, "Unterminated quoted field");
+        }
+        if (fields.size() != columns) {
+            return ImportRow.failed(line, "Expected " + columns + " fields but found " + fields.size());
+        }
+        UserRequest user = new UserRequest();
+        user.setUsername(fields.get(usernameColumn));
+        user.setEmail(fields.get(emailColumn));
+        user.setPassword(fields.get(passwordColumn));
+        return ImportRow.parsed(line, user);
+    }
+
+    private ImportRow readHeader() throws IOException {
+        String text = reader.readLine();
+        line++;
+        if (text == null) {
+            columns = -1;
+            return null;
+        }
+        if (!text.isEmpty() && text.charAt(0) == BOM) {
+            text = text.substring(1);
+        }
+        List<String> header = split(text);
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "username" -> usernameColumn = i;
+                    case "email" -> emailColumn = i;
+                    case "password" -> passwordColumn = i;
+                    default -> {
+                        // extra columns are ignored
+                    }
+                }
+            }
+        }
+        if (header == null || usernameColumn < 0 || emailColumn < 0 || passwordColumn < 0) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                    "CSV header must name the username, email and password columns");
+        }
+        columns = header.size();
+        return null;
+    }
+
+    /**
+     * @return the fields of the line, or {@code null} if a quoted field is not closed
+     */
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.userservice.importer;
+
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    public static ImportFormat of(MediaType contentType) {
+        return contentType != null && MediaType.parseMediaType("text/csv").isCompatibleWith(contentType) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.userservice.importer;
+
+import com.example.userservice.dto.UserRequest;
+
+/**
+ * One data line of an import: the parsed user, or the reason it could not be parsed.
+ */
+public record ImportRow(long line, UserRequest user, String error) {
+
+    public static ImportRow parsed(long line, UserRequest user) {
+        return new ImportRow(line, user, null);
+    }
+
+    public static ImportRow failed(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+}
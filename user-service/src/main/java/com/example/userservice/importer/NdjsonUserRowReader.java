@@ -0,0 +1,41 @@
+package com.example.userservice.importer;
+
+import com.example.userservice.dto.UserRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * One JSON object per line with {@code username}, {@code email} and {@code password}; blank lines are skipped.
+ */
+public class NdjsonUserRowReader implements UserRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long line;
+
+    public NdjsonUserRowReader(BufferedReader reader, ObjectReader objectReader) {
+        this.reader = reader;
+        this.objectReader = objectReader.forType(UserRequest.class);
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+        try {
+            UserRequest user = objectReader.readValue(text);
+            return user != null ? ImportRow.parsed(line, user) : ImportRow.failed(line, "Malformed JSON");
+        } catch (JsonProcessingException e) {
+            return ImportRow.failed(line, "Malformed JSON");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.userservice.importer;
+
+import java.io.IOException;
+
+/**
+ * Reads import rows one line at a time, so a body of any size is never held in memory.
+ */
+public interface UserRowReader {
+
+    /**
+     * @return the next data row, or {@code null} at the end of the input
+     */
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,198 @@
+package com.example.userservice.permission;
+
+import com.example.userservice.repository.PermissionRepository;
+import com.example.userservice.repository.RolePermission;
+import com.example.userservice.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory catalog of which permissions each role grants, so authorization checks need no query.
+ * <p>
+ * Every permission code gets a bit index and every role a bitset of its permissions; the effective permissions of a
+ * set of roles are the union of their bitsets. The catalog is an immutable snapshot, rebuilt from the database and
+ * swapped in whole when the application is ready, periodically, and after any transaction that wrote a role or a
+ * permission commits (see {@link PermissionCatalogListener}). Such rebuilds are broadcast on a Redis channel so the
+ * other replicas rebuild too. Bit indexes are only meaningful within one snapshot. Until the first build completes,
+ * no role grants anything.
+ */
+@Slf4j
+@Component
+public class PermissionCatalog implements MessageListener {
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Value("${app.permission-catalog.channel:user-service:permission-catalog}")
+    private String channel;
+
+    private volatile Snapshot current = Snapshot.EMPTY;
+
+    public PermissionCatalog(RoleRepository roleRepository, PermissionRepository permissionRepository,
+                             StringRedisTemplate redisTemplate, PlatformTransactionManager transactionManager) {
+        this.roleRepository = roleRepository;
+        this.permissionRepository = permissionRepository;
+        this.redisTemplate = redisTemplate;
+        // Reads from the primary, in a transaction of its own even when called after another one committed: a
+        // lagging replica, or the finished transaction, could miss the change that triggered the rebuild.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Whether any of the roles grants the permission.
+     */
+    public boolean hasPermission(Collection<Long> roleIds, String code) {
+        Snapshot snapshot = current;
+        Integer bit = snapshot.bits.get(code);
+        if (bit == null) {
+            return false;
+        }
+        for (Long roleId : roleIds) {
+            long[] words = snapshot.roles.get(roleId);
+            if (words != null && PermissionSet.test(words, bit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The union of the permissions the roles grant; unknown roles grant nothing.
+     */
+    public PermissionSet effectivePermissions(Collection<Long> roleIds) {
+        Snapshot snapshot = current;
+        long[] words = new long[snapshot.words];
+        for (Long roleId : roleIds) {
+            long[] granted = snapshot.roles.get(roleId);
+            if (granted != null) {
+                for (int i = 0; i < words.length; i++) {
+                    words[i] |= granted[i];
+                }
+            }
+        }
+        return new PermissionSet(snapshot.bits, snapshot.codes, words);
+    }
+
+    /**
+     * Rebuilds the catalog on every replica once the current transaction commits, or right away outside of one.
+     * Several calls in one transaction rebuild once.
+     */
+    public void changed() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildAndBroadcast();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuildAndBroadcast();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PermissionCatalog.this);
+            }
+        });
+    }
+
+    private void rebuildAndBroadcast() {
+        rebuild();
+        try {
+            redisTemplate.convertAndSend(channel, instanceId);
+        } catch (RuntimeException e) {
+            // Other replicas pick the change up on their next periodic rebuild.
+            log.warn("[changed] Failed to broadcast permission catalog change: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.permission-catalog.rebuild-interval:10m}",
+            fixedDelayString = "${app.permission-catalog.rebuild-interval:10m}")
+    public void rebuild() {
+        // Serialised so an older snapshot can never replace a newer one.
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            Snapshot next = transactionTemplate.execute(status ->
+                    Snapshot.of(permissionRepository.findAllCodes(), roleRepository.findAllRolePermissions()));
+            current = next;
+            log.info("[rebuild] Permission catalog rebuilt with {} permissions over {} roles in {} ms",
+                    next.codes.length, next.roles.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (instanceId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            return;
+        }
+        rebuild();
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = of(List.of(), List.of());
+
+        private final Map<String, Integer> bits;
+        private final String[] codes;
+        private final int words;
+        private final Map<Long, long[]> roles;
+
+        private Snapshot(Map<String, Integer> bits, String[] codes, Map<Long, long[]> roles) {
+            this.bits = bits;
+            this.codes = codes;
+            this.words = PermissionSet.wordsFor(codes.length);
+            this.roles = roles;
+        }
+
+        private static Snapshot of(Collection<String> permissionCodes, List<RolePermission> assignments) {
+            // Sorted, so a permission keeps its index across rebuilds unless codes are added before it.
+            String[] codes = new TreeSet<>(permissionCodes).toArray(String[]::new);
+            Map<String, Integer> bits = new HashMap<>(codes.length * 2);
+            for (int i = 0; i < codes.length; i++) {
+                bits.put(codes[i], i);
+            }
+            int words = PermissionSet.wordsFor(codes.length);
+            Map<Long, long[]> roles = new HashMap<>();
+            for (RolePermission assignment : assignments) {
+                Integer bit = bits.get(assignment.code());
+                if (bit != null) {
+                    PermissionSet.set(roles.computeIfAbsent(assignment.roleId(), id -> new long[words]), bit);
+                }
+            }
+            return new Snapshot(Map.copyOf(bits), codes, Map.copyOf(roles));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.userservice.permission;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Entity listener on roles and permissions that rebuilds the {@link PermissionCatalog} after the writing transaction
+ * commits. Changes to a role's permissions alone do not update the role row and are only seen by the periodic
+ * rebuild, unless the writer calls {@link PermissionCatalog#changed()}.
+ */
+public class PermissionCatalogListener {
+
+    private final ObjectProvider<PermissionCatalog> catalog;
+
+    public PermissionCatalogListener(ObjectProvider<PermissionCatalog> catalog) {
+        this.catalog = catalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(Object entity) {
+        catalog.ifAvailable(PermissionCatalog::changed);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.userservice.permission;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * An immutable set of permissions as a bitset over the bit indexes of one catalog snapshot. Membership is a map
+ * lookup and a bit test; the codes are only materialised by {@link #codes()}.
+ */
+public final class PermissionSet {
+
+    private final Map<String, Integer> bits;
+    private final String[] codes;
+    private final long[] words;
+
+    PermissionSet(Map<String, Integer> bits, String[] codes, long[] words) {
+        this.bits = bits;
+        this.codes = codes;
+        this.words = words;
+    }
+
+    public boolean contains(String code) {
+        Integer bit = bits.get(code);
+        return bit != null && test(words, bit);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * The permission codes, sorted.
+     */
+    public Set<String> codes() {
+        Set<String> result = new TreeSet<>();
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                result.add(codes[i * Long.SIZE + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    static boolean test(long[] words, int bit) {
+        int word = bit >>> 6;
+        return word < words.length && (words[word] & (1L << bit)) != 0;
+    }
+
+    static void set(long[] words, int bit) {
+        words[bit >>> 6] |= 1L << bit;
+    }
+
+    static int wordsFor(int permissions) {
+        return (permissions + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    @Override
+    public String toString() {
+        return codes().toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.userservice.repository;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+/**
+ * Wraps every Spring Data repository method in a {@code repository.invocations} observation, tagged with the
+ * repository interface, the method and the outcome ({@code SUCCESS} or {@code ERROR}). The observation is the
+ * outermost advice, so it covers the repository's own transaction and exception translation. For methods returning
+ * a {@link java.util.stream.Stream}, only opening the stream is timed.
+ */
+public class ObservedRepositoryPostProcessor implements BeanPostProcessor {
+
+    static final String OBSERVATION_NAME = "repository.invocations";
+
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    public ObservedRepositoryPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        // Resolved on first use: post-processors are created before the registry
+        this.observationRegistry = SingletonSupplier.of(
+                () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repository) -> proxyFactory.addAdvice(0,
+                            new ObservingInterceptor(repository.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private final class ObservingInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        private ObservingInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (ReflectionUtils.isObjectMethod(invocation.getMethod())) {
+                return invocation.proceed();
+            }
+            String method = invocation.getMethod().getName();
+            Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry.get())
+                    .contextualName(repository + "#" + method)
+                    .lowCardinalityKeyValue("repository", repository)
+                    .lowCardinalityKeyValue("method", method)
+                    .start();
+            try (Observation.Scope scope = observation.openScope()) {
+                Object result = invocation.proceed();
+                observation.lowCardinalityKeyValue("outcome", "SUCCESS");
+                return result;
+            } catch (Throwable e) {
+                observation.lowCardinalityKeyValue("outcome", "ERROR");
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+            }
+        }
+    }
+}
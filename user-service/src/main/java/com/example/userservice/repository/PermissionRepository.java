@@ -2,6 +2,12 @@ package com.example.userservice.repository;
 
 import com.example.userservice.entity.Permission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
+
+    @Query("select p.code from Permission p")
+    List<String> findAllCodes();
 }
@@ -0,0 +1,7 @@
+package com.example.userservice.repository;
+
+/**
+ * One row of the role to permission assignment, without loading either entity.
+ */
+public record RolePermission(Long roleId, String code) {
+}
@@ -1,11 +1,22 @@
 package com.example.userservice.repository;
 
 import com.example.userservice.entity.Role;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
 
     Optional<Role> findByName(String name);
+
+    Window<Role> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("select new com.example.userservice.repository.RolePermission(r.id, p.code) from Role r join r.permissions p")
+    List<RolePermission> findAllRolePermissions();
 }
@@ -0,0 +1,65 @@
+package com.example.userservice.repository;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Names of the unique constraints on {@code users}, and their translation into the conflicts reported to clients.
+ * <p>
+ * Databases whose table was created by {@code ddl-auto} before the constraints were named keep Hibernate's generated
+ * {@code uk...} names, so a violation is also recognised by the column the driver reports: PostgreSQL's detail
+ * {@code Key (username)=(...) already exists} or H2's {@code PUBLIC.USERS(USERNAME NULLS FIRST)}.
+ */
+public final class UserConstraints {
+
+    public static final String USERNAME = "uk_users_username";
+    public static final String EMAIL = "uk_users_email";
+
+    private UserConstraints() {
+    }
+
+    /**
+     * Translates a unique violation on {@code username} or {@code email} into a {@link ErrorCode#CONFLICT}; any other
+     * violation is returned unchanged.
+     */
+    public static RuntimeException translate(DataIntegrityViolationException e) {
+        String violation = describe(e).toLowerCase(Locale.ROOT);
+        if (violation.contains(USERNAME) || isOnColumn(violation, "username")) {
+            return new BusinessException(ErrorCode.CONFLICT, "Username already exists", e);
+        }
+        if (violation.contains(EMAIL) || isOnColumn(violation, "email")) {
+            return new BusinessException(ErrorCode.CONFLICT, "Email already exists", e);
+        }
+        return e;
+    }
+
+    private static boolean isOnColumn(String violation, String column) {
+        return violation.contains("key (" + column + ")=")
+                || violation.contains("users(" + column + " ")
+                || violation.contains("users(" + column + ")");
+    }
+
+    /**
+     * The constraint name Hibernate extracted, if any, followed by the driver messages, which name the constraint or
+     * its backing index and usually the violated columns; Hibernate extracts no name for a failed JDBC batch.
+     */
+    private static String describe(Throwable e) {
+        StringBuilder description = new StringBuilder();
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                description.append(violation.getConstraintName()).append('\n');
+            }
+            if (cause instanceof SQLException sqlException) {
+                for (SQLException next = sqlException; next != null; next = next.getNextException()) {
+                    description.append(next.getMessage()).append('\n');
+                }
+            }
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.userservice.repository;
+
+/**
+ * The columns a login needs to check a password, without loading the entity.
+ */
+public record UserCredentials(Long id, String username, String email, String password) {
+}
@@ -0,0 +1,12 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.User;
+
+import java.time.Instant;
+
+/**
+ * The exported columns of a user; the password hash is never exported.
+ */
+public record UserExportRow(Long id, String username, String email, User.Status status, Instant createdAt,
+                            Instant updatedAt) {
+}
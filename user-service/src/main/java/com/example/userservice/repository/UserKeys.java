@@ -0,0 +1,7 @@
+package com.example.userservice.repository;
+
+/**
+ * The lookup keys of a user, without loading the entity.
+ */
+public record UserKeys(Long id, String username, String email) {
+}
@@ -1,12 +1,88 @@
 package com.example.userservice.repository;
 
 import com.example.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    @Query("select new com.example.userservice.repository.UserCredentials(u.id, u.username, u.email, u.password)"
+            + " from User u where u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    @Query("select r.id from User u join u.roles r where u.id = :id")
+    List<Long> findRoleIdsById(@Param("id") Long id);
+
+    /**
+     * Replaces the password hash only if it is still {@code currentPassword}, so a concurrent password change wins.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id and u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("currentPassword") String currentPassword,
+                                  @Param("password") String password);
+
+    /**
+     * Streams the export columns of users with the given status, or all users when it is {@code null}, from a
+     * server-side cursor; must be consumed inside a transaction and closed.
+     */
+    @Query("select new com.example.userservice.repository.UserExportRow(u.id, u.username, u.email, u.status,"
+            + " u.createdAt, u.updatedAt) from User u where (:status is null or u.status = :status)")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserExportRow> streamForExport(@Param("status") User.Status status, Sort sort);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * The users after {@code (createdAt, id)} in ascending order. The row-value comparison is one range scan of
+     * {@code idx_users_created_at_id}, where the derived keyset query would expand it into an {@code or}.
+     */
+    @Query("select u from User u where (u.createdAt, u.id) > (:createdAt, :id) order by u.createdAt asc, u.id asc")
+    List<User> findCreatedAfter(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * The users before {@code (createdAt, id)} in descending order; see {@link #findCreatedAfter}.
+     */
+    @Query("select u from User u where (u.createdAt, u.id) < (:createdAt, :id) order by u.createdAt desc, u.id desc")
+    List<User> findCreatedBefore(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Streams id, username and email of every user; must be consumed inside a transaction and closed.
+     */
+    @Query("select new com.example.userservice.repository.UserKeys(u.id, u.username, u.email) from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserKeys> streamAllKeys();
+
+    /**
+     * Keys of the users created or updated at or after {@code since}, served by {@code idx_users_updated_at}.
+     */
+    @Query("select new com.example.userservice.repository.UserKeys(u.id, u.username, u.email) from User u"
+            + " where u.updatedAt >= :since")
+    List<UserKeys> findKeysUpdatedSince(@Param("since") Instant since);
 }
@@ -0,0 +1,157 @@
+package com.example.userservice.security;
+
+import com.example.userservice.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks passwords on a dedicated pool sized to the CPUs, so slow hashes during a login burst cannot take every
+ * servlet thread. The pool's queue is bounded: when it is full, or a check has waited longer than
+ * {@code max-wait} for a thread, the caller gets a {@link ServiceBusyException} instead of queueing further.
+ * <p>
+ * A matching password whose stored hash is weaker than the configured encoder is re-hashed in the same task, so the
+ * caller can store the upgraded hash.
+ */
+@Slf4j
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                            @Value("${app.password-hashing.threads:0}") int threads,
+                            @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+                            @Value("${app.password-hashing.max-wait:2s}") Duration maxWait,
+                            @Value("${app.password-hashing.retry-after:1s}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("password.hash.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password checks waiting for a hashing thread")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hash.wait")
+                .description("Time a password check waited for a hashing thread")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hash.duration")
+                .description("Time spent checking, and if needed re-hashing, a password")
+                .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("password.hash.rejected").tag("reason", "queue_full")
+                .description("Password checks refused on arrival because the hashing pool's queue was full")
+                .register(meterRegistry);
+        this.timeoutRejections = Counter.builder("password.hash.rejected").tag("reason", "timeout")
+                .description("Password checks dropped from the queue after waiting longer than max-wait for a thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Checks {@code rawPassword} against {@code encodedPassword} on the hashing pool.
+     *
+     * @throws ServiceBusyException if the pool cannot start the check within {@code max-wait}
+     */
+    public Result verify(String rawPassword, String encodedPassword) {
+        long submitted = System.nanoTime();
+        // Whoever flips this first decides: the pool thread runs the check, or the caller gives up waiting for it.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<Result> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTimer.record(() -> check(rawPassword, encodedPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullRejections.increment();
+            throw busy();
+        }
+
+        try {
+            try {
+                return future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    executor.remove((Runnable) future);
+                    timeoutRejections.increment();
+                    throw busy();
+                }
+                // Already hashing; abandoning it now would waste the work.
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            claimed.set(true);
+            executor.remove((Runnable) future);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Result check(String rawPassword, String encodedPassword) {
+        if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+            return Result.MISMATCH;
+        }
+        String upgradedHash = passwordEncoder.upgradeEncoding(encodedPassword)
+                ? passwordEncoder.encode(rawPassword)
+                : null;
+        return new Result(true, upgradedHash);
+    }
+
+    private ServiceBusyException busy() {
+        log.warn("[verify] Password hashing pool saturated: {} queued", executor.getQueue().size());
+        return new ServiceBusyException("Password verification is saturated", retryAfter);
+    }
+
+    /**
+     * @param matches      whether the password matched
+     * @param upgradedHash a re-encoded hash to store in place of a weaker one, or {@code null}
+     */
+    public record Result(boolean matches, String upgradedHash) {
+
+        public static final Result MISMATCH = new Result(false, null);
+    }
+}
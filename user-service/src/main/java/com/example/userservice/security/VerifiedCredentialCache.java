@@ -0,0 +1,88 @@
+package com.example.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Remembers successful password checks for a few seconds so retried and repeated logins skip BCrypt.
+ * <p>
+ * Each entry holds an HMAC of the verified password under a key generated at startup, never the password itself,
+ * together with the stored hash it was verified against. A hit requires both to match, so a password changed on
+ * any replica stops matching at once; {@link #invalidate} drops entries early on this replica. Disabled unless
+ * {@code app.password-hashing.verified-cache.enabled} is set.
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final Cache<String, Entry> entries;
+
+    public VerifiedCredentialCache(MeterRegistry meterRegistry,
+                                   @Value("${app.password-hashing.verified-cache.enabled:false}") boolean enabled,
+                                   @Value("${app.password-hashing.verified-cache.ttl:10s}") Duration ttl,
+                                   @Value("${app.password-hashing.verified-cache.maximum-size:10000}") long maximumSize) {
+        this.enabled = enabled;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "verified-credentials");
+    }
+
+    /**
+     * Whether {@code rawPassword} was verified against {@code passwordHash} for this user within the TTL.
+     */
+    public boolean isVerified(String username, String rawPassword, String passwordHash) {
+        if (!enabled || rawPassword == null) {
+            return false;
+        }
+        Entry entry = entries.getIfPresent(username);
+        return entry != null
+                && entry.passwordHash().equals(passwordHash)
+                && MessageDigest.isEqual(entry.mac(), mac(username, rawPassword));
+    }
+
+    public void put(String username, String rawPassword, String passwordHash) {
+        if (enabled && rawPassword != null) {
+            entries.put(username, new Entry(mac(username, rawPassword), passwordHash));
+        }
+    }
+
+    public void invalidate(String username) {
+        entries.invalidate(username);
+    }
+
+    private byte[] mac(String username, String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private record Entry(byte[] mac, String passwordHash) {
+    }
+}
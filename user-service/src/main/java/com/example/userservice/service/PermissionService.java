@@ -0,0 +1,10 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserPermissionsDto;
+
+public interface PermissionService {
+
+    UserPermissionsDto getUserPermissions(Long userId);
+
+    boolean hasPermission(Long userId, String code);
+}
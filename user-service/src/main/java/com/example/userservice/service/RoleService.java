@@ -1,5 +1,7 @@
 package com.example.userservice.service;
 
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
 import com.example.userservice.dto.RoleDto;
 import com.example.userservice.dto.RoleRequest;
@@ -16,4 +18,6 @@ public interface RoleService {
     void delete(Long id);
 
     PageResponse<RoleDto> getAll(Pageable pageable);
+
+    CursorPageResponse<RoleDto> getAll(CursorRequest request);
 }
@@ -0,0 +1,19 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.User;
+import com.example.userservice.exporter.ExportFormat;
+import org.springframework.data.domain.Sort;
+
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    /**
+     * Writes every user with the given status, or all users when it is {@code null}, to {@code out} in sort order,
+     * row by row as they are read from the database. Stops early, without failing, when {@code out} can no longer be
+     * written to, e.g. because the client disconnected.
+     *
+     * @return the number of rows written
+     */
+    long export(User.Status status, Sort sort, ExportFormat format, OutputStream out);
+}
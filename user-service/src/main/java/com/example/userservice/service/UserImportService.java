@@ -0,0 +1,16 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserImportReport;
+import com.example.userservice.importer.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    /**
+     * Creates a user for every valid row of a UTF-8 body; rows that fail validation or conflict with an existing
+     * user are reported and skipped without affecting the others.
+     */
+    UserImportReport importUsers(InputStream body, ImportFormat format) throws IOException;
+}
@@ -1,19 +1,28 @@
 package com.example.userservice.service;
 
 import com.cursor.common.dto.UserResponse;
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
 import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.UserBatchResponse;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface UserService {
     UserDto create(UserRequest request);
 
     UserDto getById(Long id);
 
+    UserBatchResponse getByIds(List<Long> ids);
+
     PageResponse<UserDto> list(Pageable pageable);
 
+    CursorPageResponse<UserDto> list(CursorRequest request);
+
     UserDto update(Long id, UserRequest request);
 
     void delete(Long id);
@@ -0,0 +1,49 @@
+package com.example.userservice.service.impl;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import com.example.userservice.dto.UserPermissionsDto;
+import com.example.userservice.permission.PermissionCatalog;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.PermissionService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Resolves a user's role ids with one query and their permissions from the {@link PermissionCatalog}.
+ */
+@Service
+@AllArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class PermissionServiceImpl implements PermissionService {
+
+    private final UserRepository userRepository;
+
+    private final PermissionCatalog permissionCatalog;
+
+    @Override
+    public UserPermissionsDto getUserPermissions(Long userId) {
+        List<Long> roleIds = roleIds(userId);
+        return new UserPermissionsDto(userId, permissionCatalog.effectivePermissions(roleIds).codes());
+    }
+
+    @Override
+    public boolean hasPermission(Long userId, String code) {
+        return permissionCatalog.hasPermission(roleIds(userId), code);
+    }
+
+    private List<Long> roleIds(Long userId) {
+        List<Long> roleIds = userRepository.findRoleIdsById(userId);
+        // Only users without roles need the second query
+        if (roleIds.isEmpty() && !userRepository.existsById(userId)) {
+            log.error("[roleIds] User with id {} not found", userId);
+            throw new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "User not found");
+        }
+        return roleIds;
+    }
+}
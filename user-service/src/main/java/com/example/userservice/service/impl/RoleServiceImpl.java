@@ -2,6 +2,8 @@ package com.example.userservice.service.impl;
 
 import com.cursor.common.exception.BusinessException;
 import com.cursor.common.exception.ErrorCode;
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
 import com.example.userservice.dto.RoleDto;
 import com.example.userservice.dto.RoleRequest;
@@ -15,15 +17,21 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Set;
+
 @Service
 @AllArgsConstructor
 @Transactional
 @Slf4j
 public class RoleServiceImpl implements RoleService {
 
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("id", "name");
+    private static final Set<String> UNIQUE_SORT_PROPERTIES = Set.of("name");
+
     private final RoleRepository roleRepository;
 
     private final RoleMapper roleMapper;
@@ -42,9 +50,11 @@ public class RoleServiceImpl implements RoleService {
 
     }
 
+    /**
+     * Reads from the primary, not a replica, because the result is cached.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "roles", key = "#id")
+    @Cacheable(value = "roles", key = "#id", sync = true)
     public RoleDto getById(Long id) {
         Role role = roleRepository.findById(id).orElseThrow(
                 () -> {
@@ -96,4 +106,14 @@ public class RoleServiceImpl implements RoleService {
         return PageResponse.from(page);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<RoleDto> getAll(CursorRequest request) {
+        CursorRequest sorted = request.requireSortedBy(CURSOR_SORT_PROPERTIES)
+                .withUniqueSortProperties(UNIQUE_SORT_PROPERTIES);
+        Window<RoleDto> window = roleRepository.findAllBy(sorted.position(), sorted.sort(), sorted.limit())
+                .map(roleMapper::toDto);
+        return CursorPageResponse.from(window, sorted.sort());
+    }
+
 }
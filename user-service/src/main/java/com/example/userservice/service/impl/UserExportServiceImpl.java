@@ -0,0 +1,74 @@
+package com.example.userservice.service.impl;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import com.example.userservice.entity.User;
+import com.example.userservice.exporter.CsvUserRowWriter;
+import com.example.userservice.exporter.ExportFormat;
+import com.example.userservice.exporter.NdjsonUserRowWriter;
+import com.example.userservice.exporter.UserRowWriter;
+import com.example.userservice.repository.UserExportRow;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Streams users from a server-side cursor straight into the response, so memory use does not grow with the table.
+ * The cursor lives in a read-only transaction; when a write fails the stream is closed at once, which closes the
+ * statement and ends the query instead of reading the remaining rows.
+ */
+@Slf4j
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "username", "email", "createdAt");
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public UserExportServiceImpl(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(User.Status status, Sort sort, ExportFormat format, OutputStream out) {
+        for (Sort.Order order : sort) {
+            if (!SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new BusinessException(ErrorCode.VALIDATION_ERROR,
+                        "Unsupported sort property: " + order.getProperty());
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        long written = 0;
+        try (Stream<UserExportRow> rows = userRepository.streamForExport(status, sort)) {
+            UserRowWriter writer = format == ExportFormat.CSV
+                    ? new CsvUserRowWriter(out)
+                    : new NdjsonUserRowWriter(out, objectMapper.getFactory());
+            Iterator<UserExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                written++;
+            }
+            writer.finish();
+        } catch (IOException | UncheckedIOException e) {
+            log.info("[export] Client went away after {} rows: {}", written, e.getMessage());
+            return written;
+        }
+        log.info("[export] Exported {} users as {} in {} ms", written, format, System.currentTimeMillis() - start);
+        return written;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.userservice.service.impl;
+
+import com.cursor.common.exception.BusinessException;
+import com.example.userservice.bloom.UserLookupFilter;
+import com.example.userservice.dto.UserImportError;
+import com.example.userservice.dto.UserImportReport;
+import com.example.userservice.dto.UserRequest;
+import com.example.userservice.entity.User;
+import com.example.userservice.importer.CsvUserRowReader;
+import com.example.userservice.importer.ImportFormat;
+import com.example.userservice.importer.ImportRow;
+import com.example.userservice.importer.NdjsonUserRowReader;
+import com.example.userservice.importer.UserRowReader;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserConstraints;
+import com.example.userservice.repository.UserKeys;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports users in chunks: each chunk is checked against existing users with two IN queries, its passwords are hashed
+ * in parallel, and it is inserted in its own transaction with JDBC batching. If a concurrent writer takes one of the
+ * chunk's usernames or emails, the chunk is retried row by row so only the conflicting rows fail. Duplicates are
+ * tracked per chunk only; a row repeating one from an earlier chunk fails that chunk's check against the database,
+ * so memory does not grow with the size of the import.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final UserLookupFilter userLookupFilter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService hashExecutor;
+    private final Counter importedRows;
+    private final Counter failedRows;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    private volatile double lastRowsPerSecond;
+
+    public UserImportServiceImpl(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                                 UserLookupFilter userLookupFilter, Validator validator, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 @Value("${app.users.import.chunk-size:500}") int chunkSize,
+                                 @Value("${app.users.import.hash-threads:0}") int hashThreads,
+                                 @Value("${app.users.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.userLookupFilter = userLookupFilter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.importedRows = Counter.builder("users.import.rows").tag("result", "imported")
+                .description("Rows created by bulk imports").register(meterRegistry);
+        this.failedRows = Counter.builder("users.import.rows").tag("result", "failed")
+                .description("Rows rejected by bulk imports").register(meterRegistry);
+        Gauge.builder("users.import.rows.per.second", this, service -> service.lastRowsPerSecond)
+                .description("Throughput of the running or most recent bulk import")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportReport importUsers(InputStream body, ImportFormat format) throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        UserRowReader reader = format == ImportFormat.CSV
+                ? new CsvUserRowReader(lines)
+                : new NdjsonUserRowReader(lines, objectMapper.reader());
+
+        Run run = new Run();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while ((row = reader.next()) != null) {
+            run.report.setReceived(run.report.getReceived() + 1);
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error != null) {
+                run.fail(row, error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, run);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, run);
+        }
+
+        UserImportReport report = run.finish();
+        log.info("[importUsers] Imported {} of {} users in {} ms ({} rows/s)", report.getImported(),
+                report.getReceived(), report.getDurationMillis(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private String validate(UserRequest user) {
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void importChunk(List<ImportRow> rows, Run run) {
+        Set<String> takenUsernames = userRepository.findExistingUsernames(
+                rows.stream().map(row -> row.user().getUsername()).toList());
+        Set<String> takenEmails = userRepository.findExistingEmails(
+                rows.stream().map(row -> row.user().getEmail()).toList());
+        Set<String> usernames = new HashSet<>(rows.size() * 2);
+        Set<String> emails = new HashSet<>(rows.size() * 2);
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (takenUsernames.contains(row.user().getUsername())) {
+                run.fail(row, "Username already exists");
+            } else if (takenEmails.contains(row.user().getEmail())) {
+                run.fail(row, "Email already exists");
+            } else if (!usernames.add(row.user().getUsername())) {
+                run.fail(row, "Duplicate username in import");
+            } else if (!emails.add(row.user().getEmail())) {
+                run.fail(row, "Duplicate email in import");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = hashPasswords(accepted);
+        try {
+            insert(toUsers(accepted, hashes, 0, accepted.size()));
+            run.imported(accepted.size());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("[importChunk] Chunk conflicted with a concurrent write, retrying row by row: {}", e.getMessage());
+            for (int i = 0; i < accepted.size(); i++) {
+                try {
+                    insert(toUsers(accepted, hashes, i, i + 1));
+                    run.imported(1);
+                } catch (DataIntegrityViolationException rowConflict) {
+                    RuntimeException conflict = UserConstraints.translate(rowConflict);
+                    run.fail(accepted.get(i), conflict instanceof BusinessException
+                            ? conflict.getMessage()
+                            : "Username or email already exists");
+                }
+            }
+        }
+        run.updateThroughput();
+    }
+
+    private List<String> hashPasswords(List<ImportRow> rows) {
+        List<CompletableFuture<String>> hashes = rows.stream()
+                .map(row -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(row.user().getPassword()), hashExecutor))
+                .toList();
+        return hashes.stream().map(CompletableFuture::join).toList();
+    }
+
+    private List<User> toUsers(List<ImportRow> rows, List<String> hashes, int from, int to) {
+        List<User> users = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            User user = userMapper.toEntity(rows.get(i).user());
+            user.setPassword(hashes.get(i));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private void insert(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAll(users);
+            userRepository.flush();
+            userLookupFilter.addAll(users.stream()
+                    .map(user -> new UserKeys(user.getId(), user.getUsername(), user.getEmail()))
+                    .toList());
+        });
+    }
+
+    /**
+     * State of one import call.
+     */
+    private final class Run {
+        private final long startNanos = System.nanoTime();
+        private final UserImportReport report = new UserImportReport();
+        // Conflicts are found a chunk after validation errors, so keep the lowest lines rather than the first found
+        private final TreeMap<Long, UserImportError> errors = new TreeMap<>();
+
+        private void fail(ImportRow row, String message) {
+            report.setFailed(report.getFailed() + 1);
+            failedRows.increment();
+            String username = row.user() != null ? row.user().getUsername() : null;
+            errors.put(row.line(), new UserImportError(row.line(), username, message));
+            if (errors.size() > maxReportedErrors) {
+                errors.pollLastEntry();
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        private void imported(int count) {
+            report.setImported(report.getImported() + count);
+            importedRows.increment(count);
+        }
+
+        private double rowsPerSecond(long elapsedNanos) {
+            return elapsedNanos > 0 ? report.getReceived() * 1_000_000_000d / elapsedNanos : 0;
+        }
+
+        private void updateThroughput() {
+            lastRowsPerSecond = rowsPerSecond(System.nanoTime() - startNanos);
+        }
+
+        private UserImportReport finish() {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            report.setDurationMillis(elapsedNanos / 1_000_000);
+            report.setRowsPerSecond(rowsPerSecond(elapsedNanos));
+            report.setErrors(new ArrayList<>(errors.values()));
+            lastRowsPerSecond = report.getRowsPerSecond();
+            return report;
+        }
+    }
+}
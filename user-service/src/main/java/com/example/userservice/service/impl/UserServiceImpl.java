@@ -3,55 +3,130 @@ package com.example.userservice.service.impl;
 import com.cursor.common.dto.UserResponse;
 import com.cursor.common.exception.BusinessException;
 import com.cursor.common.exception.ErrorCode;
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
+import com.example.userservice.bloom.UserLookupFilter;
+import com.example.userservice.cache.BatchCache;
 import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.UserBatchResponse;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.entity.User;
 import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserConstraints;
+import com.example.userservice.repository.UserCredentials;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.PasswordVerifier;
+import com.example.userservice.security.VerifiedCredentialCache;
 import com.example.userservice.service.UserService;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Slf4j
 @Service
 @Transactional
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final String USERS_CACHE = "users";
+
+    /** Properties backed by an index whose trailing column is id, so keyset pages are range scans. */
+    private static final Set<String> CURSOR_SORT_PROPERTIES = Set.of("id", "username", "email", "createdAt");
+    private static final Set<String> UNIQUE_SORT_PROPERTIES = Set.of("username", "email");
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+
     private final UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+
+    private final VerifiedCredentialCache verifiedCredentials;
 
     private final UserMapper userMapper;
 
+    private final UserLookupFilter userLookupFilter;
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Inserts without checking for an existing username or email first: the unique constraints decide, in the same
+     * statement, even under concurrent registrations.
+     */
     @Override
     public UserDto create(UserRequest request) {
-        userRepository.findByUsername(request.getUsername()).ifPresent(u -> {
-            throw new BusinessException(ErrorCode.CONFLICT, "Username already exists");
-        });
-        userRepository.findByEmail(request.getEmail()).ifPresent(u -> {
-            throw new BusinessException(ErrorCode.CONFLICT, "Email already exists");
-        });
-        User user = userMapper.toEntity(request);
-        user = userRepository.save(user);
+        User user = saveAndFlush(userMapper.toEntity(request));
+        userLookupFilter.add(user.getId(), user.getUsername(), user.getEmail());
         return userMapper.toDto(user);
     }
 
+    /**
+     * Reads from the primary, not a replica: the result is cached, so a replica's lag would be served until evicted,
+     * and a user read right after being created could be reported as missing.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = "users", key = "#id", sync = true)
     public UserDto getById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "User not found"));
-        return userMapper.toDto(user);
+        return userMapper.toDto(findExisting(id));
+    }
+
+    /**
+     * Loads cache misses from the primary, like {@link #getById}.
+     */
+    @Override
+    public UserBatchResponse getByIds(List<Long> ids) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> candidates = requested.stream().filter(userLookupFilter::mightContainId).toList();
+
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        Map<Long, UserDto> found = new HashMap<>();
+        getCached(cache, candidates).forEach((id, user) -> found.put((Long) id, (UserDto) user));
+
+        List<Long> misses = candidates.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            Map<Long, UserDto> loaded = new HashMap<>();
+            for (User user : userRepository.findAllById(misses)) {
+                loaded.put(user.getId(), userMapper.toDto(user));
+            }
+            putCached(cache, loaded);
+            found.putAll(loaded);
+        }
+
+        List<UserDto> users = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            UserDto user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new UserBatchResponse(users, missingIds);
     }
 
     @Override
@@ -62,48 +137,168 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @CacheEvict(value = "users", key = "#id")
-    public UserDto update(Long id, UserRequest request) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "User not found"));
-        if (!user.getUsername().equals(request.getUsername())) {
-            userRepository.findByUsername(request.getUsername()).ifPresent(u -> {
-                throw new BusinessException(ErrorCode.CONFLICT, "Username already exists");
-            });
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserDto> list(CursorRequest request) {
+        CursorRequest sorted = request.requireSortedBy(CURSOR_SORT_PROPERTIES)
+                .withUniqueSortProperties(UNIQUE_SORT_PROPERTIES);
+        Window<User> users = isCreatedAtPage(sorted)
+                ? scrollByCreatedAt(sorted)
+                : userRepository.findAllBy(sorted.position(), sorted.sort(), sorted.limit());
+        return CursorPageResponse.from(users.map(userMapper::toDto), sorted.sort());
+    }
+
+    /**
+     * Whether this is a page after the first sorted by {@code createdAt, id}, which the row-value queries serve.
+     */
+    private static boolean isCreatedAtPage(CursorRequest request) {
+        if (!(request.position() instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return false;
         }
-        if (!user.getEmail().equals(request.getEmail())) {
-            userRepository.findByEmail(request.getEmail()).ifPresent(u -> {
-                throw new BusinessException(ErrorCode.CONFLICT, "Email already exists");
-            });
+        Sort.Direction direction = request.sort().iterator().next().getDirection();
+        return request.sort().equals(Sort.by(direction, CREATED_AT, ID));
+    }
+
+    private Window<User> scrollByCreatedAt(CursorRequest request) {
+        Map<String, Object> keys = ((KeysetScrollPosition) request.position()).getKeys();
+        if (!(keys.get(CREATED_AT) instanceof Instant createdAt) || !(keys.get(ID) instanceof Long id)) {
+            throw new BusinessException(ErrorCode.VALIDATION_ERROR, "Invalid cursor");
         }
+        int max = request.limit().max();
+        // One extra row tells whether there is a next page
+        Limit limit = Limit.of(max + 1);
+        List<User> rows = request.sort().getOrderFor(CREATED_AT).isAscending()
+                ? userRepository.findCreatedAfter(createdAt, id, limit)
+                : userRepository.findCreatedBefore(createdAt, id, limit);
+        List<User> page = rows.size() > max ? rows.subList(0, max) : rows;
+        return Window.from(page, i -> ScrollPosition.forward(
+                Map.of(CREATED_AT, page.get(i).getCreatedAt(), ID, page.get(i).getId())), rows.size() > max);
+    }
+
+    @Override
+    @CacheEvict(value = "users", key = "#id")
+    public UserDto update(Long id, UserRequest request) {
+        User user = findExisting(id);
+        verifiedCredentials.invalidate(user.getUsername());
+        boolean usernameChanged = !user.getUsername().equals(request.getUsername());
+        boolean emailChanged = !user.getEmail().equals(request.getEmail());
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         if (request.getPassword() != null && !request.getPassword().isBlank()) {
             user.setPassword(request.getPassword());
         }
-        return userMapper.toDto(userRepository.save(user));
+        user = saveAndFlush(user);
+        if (usernameChanged || emailChanged) {
+            userLookupFilter.add(user.getId(), user.getUsername(), user.getEmail());
+        }
+        return userMapper.toDto(user);
     }
 
     @Override
     @CacheEvict(value = "users", key = "#id")
     public void delete(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "User not found"));
+        User user = findExisting(id);
+        verifiedCredentials.invalidate(user.getUsername());
         user.setStatus(User.Status.INACTIVE);
         userRepository.save(user);
     }
 
+    /**
+     * Runs outside a transaction so no connection is held while the password is hashed; the lookup and the optional
+     * hash upgrade each use their own short transaction.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponse validateUser(LoginRequest loginRequest) {
         UserResponse unauthenticated = new UserResponse();
         unauthenticated.setStatus(HttpStatus.UNAUTHORIZED.value());
-        return userRepository.findByUsername(loginRequest.getUsername())
+        if (!userLookupFilter.mightContainUsername(loginRequest.getUsername())) {
+            return unauthenticated;
+        }
+        return userRepository.findCredentialsByUsername(loginRequest.getUsername())
                 .map(user -> {
-                    boolean valid = passwordEncoder.matches(loginRequest.getPassword(), user.getPassword());
-                    if(valid) {
-                        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), HttpStatus.OK.value());
+                    String password = loginRequest.getPassword();
+                    if (verifiedCredentials.isVerified(user.username(), password, user.password())) {
+                        return authenticated(user);
                     }
-                    return unauthenticated;
+                    PasswordVerifier.Result result = passwordVerifier.verify(password, user.password());
+                    if (!result.matches()) {
+                        return unauthenticated;
+                    }
+                    String storedHash = result.upgradedHash() != null && upgradePassword(user, result.upgradedHash())
+                            ? result.upgradedHash()
+                            : user.password();
+                    verifiedCredentials.put(user.username(), password, storedHash);
+                    return authenticated(user);
                 }).orElse(unauthenticated);
     }
+
+    private static UserResponse authenticated(UserCredentials user) {
+        return new UserResponse(user.id(), user.username(), user.email(), HttpStatus.OK.value());
+    }
+
+    private boolean upgradePassword(UserCredentials user, String upgradedHash) {
+        try {
+            if (userRepository.updatePasswordIfUnchanged(user.id(), user.password(), upgradedHash) == 0) {
+                return false;
+            }
+            Cache cache = cacheManager.getCache(USERS_CACHE);
+            if (cache != null) {
+                cache.evict(user.id());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // The old hash still works; the next login retries.
+            log.warn("[validateUser] Failed to upgrade password hash of user {}: {}", user.id(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * One multi-get when the cache supports it, one lookup per key otherwise.
+     */
+    private static Map<Object, Object> getCached(Cache cache, List<Long> ids) {
+        if (cache instanceof BatchCache batchCache) {
+            return batchCache.getAll(ids);
+        }
+        Map<Object, Object> found = new HashMap<>();
+        if (cache != null) {
+            for (Long id : ids) {
+                Cache.ValueWrapper wrapper = cache.get(id);
+                if (wrapper != null && wrapper.get() != null) {
+                    found.put(id, wrapper.get());
+                }
+            }
+        }
+        return found;
+    }
+
+    private static void putCached(Cache cache, Map<Long, UserDto> users) {
+        if (cache instanceof BatchCache batchCache) {
+            batchCache.putAll(users);
+        } else if (cache != null) {
+            users.forEach(cache::put);
+        }
+    }
+
+    /**
+     * Loads a user, answering ids the lookup filter has never seen with a 404 without querying the database.
+     */
+    private User findExisting(Long id) {
+        if (!userLookupFilter.mightContainId(id)) {
+            throw new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "User not found");
+        }
+        return userRepository.findById(id)
+                .orElseThrow(() -> new BusinessException(ErrorCode.RESOURCE_NOT_FOUND, "User not found"));
+    }
+
+    /**
+     * Writes the user now, so a taken username or email surfaces here as a conflict rather than at commit.
+     */
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw UserConstraints.translate(e);
+        }
+    }
 }
@@ -1,9 +1,16 @@
 CREATE TABLE IF NOT EXISTS users (
     id BIGSERIAL PRIMARY KEY,
-    username VARCHAR(100) NOT NULL UNIQUE,
-    email VARCHAR(255) NOT NULL UNIQUE,
+    username VARCHAR(100) NOT NULL CONSTRAINT uk_users_username UNIQUE,
+    email VARCHAR(255) NOT NULL CONSTRAINT uk_users_email UNIQUE,
     password VARCHAR(255) NOT NULL,
     status VARCHAR(20) NOT NULL,
     created_at TIMESTAMP WITH TIME ZONE NOT NULL,
     updated_at TIMESTAMP WITH TIME ZONE NOT NULL
 );
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
+
+-- User ids are allocated by Hibernate in blocks of 50 (User.id); UserIdSequenceMigration applies this on startup to
+-- databases created with increment 1.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
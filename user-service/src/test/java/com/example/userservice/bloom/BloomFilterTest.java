@@ -0,0 +1,97 @@
+package com.example.userservice.bloom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void addedValues_areAlwaysReported() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // When
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+            filter.put("user" + id);
+        }
+
+        // Then
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id));
+            assertTrue(filter.mightContain("user" + id));
+        }
+    }
+
+    @Test
+    void falsePositiveRate_sequentialIds_atCapacity() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (long id = 10_001; id <= 110_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void falsePositiveRate_atCapacity() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("present-" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilter_containsNothing() {
+        // Given
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        // When & Then
+        assertFalse(filter.mightContain(1L));
+        assertFalse(filter.mightContain("john"));
+    }
+
+    @Test
+    void sizing_followsStandardFormula() {
+        // When
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        // Then: ~9.6 bits and 7 hash functions per element
+        assertEquals(9_585_088, filter.bitSize());
+        assertEquals(7, filter.hashFunctions());
+    }
+
+    @Test
+    void invalidArguments_throwException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.userservice.bloom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.userservice.repository.UserKeys;
+import com.example.userservice.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupFilterTest {
+
+    private static final String CHANNEL = "user-keys";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private UserLookupFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new UserLookupFilter(userRepository, redisTemplate);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(filter, "channel", CHANNEL);
+        ReflectionTestUtils.setField(filter, "syncOverlap", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(filter, "maxStaleness", Duration.ofSeconds(5));
+    }
+
+    @Test
+    void beforeRebuild_everythingMightExist() {
+        // When & Then
+        assertTrue(filter.mightContainId(42L));
+        assertTrue(filter.mightContainUsername("ghost"));
+        assertTrue(filter.mightContainEmail("ghost@example.com"));
+    }
+
+    @Test
+    void rebuild_loadsKeysFromDatabase() {
+        // Given
+        rebuildWith(new UserKeys(1L, "john", "john@example.com"));
+
+        // When & Then
+        assertTrue(filter.mightContainId(1L));
+        assertTrue(filter.mightContainUsername("john"));
+        assertTrue(filter.mightContainEmail("john@example.com"));
+        assertFalse(filter.mightContainId(2L));
+        assertFalse(filter.mightContainUsername("jane"));
+        assertFalse(filter.mightContainEmail("jane@example.com"));
+    }
+
+    @Test
+    void rebuild_disabled_keepsFailingOpen() {
+        // Given
+        ReflectionTestUtils.setField(filter, "enabled", false);
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertTrue(filter.mightContainId(2L));
+    }
+
+    @Test
+    void add_recordsLocally_andBroadcasts() {
+        // Given
+        rebuildWith();
+
+        // When
+        filter.add(2L, "jane", "jane@example.com");
+
+        // Then
+        assertTrue(filter.mightContainId(2L));
+        assertTrue(filter.mightContainUsername("jane"));
+        assertTrue(filter.mightContainEmail("jane@example.com"));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        assertTrue(message.getValue().contains("\"username\":\"jane\""));
+    }
+
+    @Test
+    void add_broadcastFailure_stillRecordsLocally() {
+        // Given
+        rebuildWith();
+        doThrow(new IllegalStateException("redis down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        // When
+        filter.add(2L, "jane", "jane@example.com");
+
+        // Then
+        assertTrue(filter.mightContainUsername("jane"));
+    }
+
+    @Test
+    void onMessage_fromOtherReplica_recordsKeys() {
+        // Given
+        rebuildWith();
+
+        // When
+        filter.onMessage(message("{\"origin\":\"other\",\"id\":3,\"username\":\"bob\",\"email\":\"bob@example.com\"}"),
+                null);
+        filter.onMessage(message("garbage"), null);
+
+        // Then
+        assertTrue(filter.mightContainId(3L));
+        assertTrue(filter.mightContainUsername("bob"));
+        assertTrue(filter.mightContainEmail("bob@example.com"));
+    }
+
+    @Test
+    void addAll_broadcastsOnce_andOtherReplicasRecordTheBatch() {
+        // Given
+        when(userRepository.streamAllKeys()).thenAnswer(invocation -> Stream.empty());
+        filter.rebuild();
+        UserLookupFilter other = new UserLookupFilter(userRepository, redisTemplate);
+        ReflectionTestUtils.setField(other, "enabled", true);
+        ReflectionTestUtils.setField(other, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(other, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(other, "maxStaleness", Duration.ofSeconds(5));
+        other.rebuild();
+
+        // When
+        filter.addAll(List.of(new UserKeys(4L, "ann", "ann@example.com"), new UserKeys(5L, "ben", "ben@example.com")));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        other.onMessage(message(message.getValue()), null);
+
+        // Then
+        assertTrue(filter.mightContainUsername("ann"));
+        assertTrue(other.mightContainId(4L));
+        assertTrue(other.mightContainEmail("ben@example.com"));
+        assertFalse(other.mightContainUsername("carl"));
+    }
+
+    @Test
+    void sync_addsUsersWrittenElsewhereWhoseBroadcastWasLost() {
+        // Given
+        rebuildWith(new UserKeys(1L, "john", "john@example.com"));
+        when(userRepository.findKeysUpdatedSince(any(Instant.class)))
+                .thenReturn(List.of(new UserKeys(6L, "dora", "dora@example.com")));
+
+        // When
+        filter.sync();
+
+        // Then
+        assertTrue(filter.mightContainId(6L));
+        assertTrue(filter.mightContainUsername("dora"));
+        assertTrue(filter.mightContainEmail("dora@example.com"));
+        assertFalse(filter.mightContainUsername("jane"));
+    }
+
+    @Test
+    void sync_readsFromBeforeTheLastCatchUp_byTheOverlap() {
+        // Given
+        rebuildWith();
+        Instant rebuiltAt = (Instant) ReflectionTestUtils.getField(filter, "syncedAt");
+        when(userRepository.findKeysUpdatedSince(any(Instant.class))).thenReturn(List.of());
+
+        // When
+        filter.sync();
+
+        // Then
+        verify(userRepository).findKeysUpdatedSince(rebuiltAt.minusSeconds(5));
+    }
+
+    @Test
+    void staleCatchUp_reportsEverythingAsPossiblyPresent() {
+        // Given
+        rebuildWith(new UserKeys(1L, "john", "john@example.com"));
+        ReflectionTestUtils.setField(filter, "syncedAt", Instant.now().minusSeconds(6));
+        when(userRepository.findKeysUpdatedSince(any(Instant.class))).thenThrow(new IllegalStateException("db down"));
+
+        // When
+        filter.sync();
+
+        // Then
+        assertTrue(filter.mightContainId(2L));
+        assertTrue(filter.mightContainUsername("jane"));
+        assertTrue(filter.mightContainEmail("jane@example.com"));
+    }
+
+    private void rebuildWith(UserKeys... keys) {
+        when(userRepository.count()).thenReturn((long) keys.length);
+        when(userRepository.streamAllKeys()).thenReturn(Stream.of(keys));
+        filter.rebuild();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.userservice.config.RedisConfig;
+import com.example.userservice.dto.RoleDto;
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.entity.User;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class CompactCacheSerializerTest {
+
+    private CompactCacheSerializer serializer;
+    private RedisSerializer<Object> jsonSerializer;
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        serializer = RedisConfig.compactValueSerializer();
+        jsonSerializer = RedisConfig.jsonValueSerializer();
+        userDto = new UserDto(1L, "john", "john@example.com", "encoded", User.Status.ACTIVE);
+    }
+
+    @Test
+    void roundTrip_user_preservesAllFields() {
+        // When
+        UserDto result = (UserDto) serializer.deserialize(serializer.serialize(userDto));
+
+        // Then
+        assertEquals(1L, result.getId());
+        assertEquals("john", result.getUsername());
+        assertEquals("john@example.com", result.getEmail());
+        assertEquals("encoded", result.getPassword());
+        assertEquals(User.Status.ACTIVE, result.getStatus());
+    }
+
+    @Test
+    void roundTrip_role() {
+        // When
+        Object result = serializer.deserialize(serializer.serialize(new RoleDto(2L, "ADMIN")));
+
+        // Then
+        RoleDto role = assertInstanceOf(RoleDto.class, result);
+        assertEquals(2L, role.getId());
+        assertEquals("ADMIN", role.getName());
+    }
+
+    @Test
+    void serialize_writesVersionedHeader_andIsSmallerThanJson() {
+        // When
+        byte[] compact = serializer.serialize(userDto);
+
+        // Then
+        assertEquals(CompactCacheSerializer.MAGIC, compact[0]);
+        assertEquals(CompactCacheSerializer.VERSION, compact[1]);
+        assertEquals(1, compact[2]);
+        assertTrue(compact.length < jsonSerializer.serialize(userDto).length);
+    }
+
+    @Test
+    void deserialize_legacyJsonEntry_isRead() {
+        // Given
+        byte[] legacy = jsonSerializer.serialize(userDto);
+
+        // When
+        Object result = serializer.deserialize(legacy);
+
+        // Then
+        assertEquals("john", assertInstanceOf(UserDto.class, result).getUsername());
+    }
+
+    @Test
+    void deserialize_unknownVersion_isTreatedAsMiss() {
+        // Given
+        byte[] entry = serializer.serialize(userDto);
+        entry[1] = (byte) (CompactCacheSerializer.VERSION + 1);
+
+        // When & Then
+        assertNull(serializer.deserialize(entry));
+    }
+
+    @Test
+    void deserialize_unknownTypeId_isTreatedAsMiss() {
+        // Given
+        byte[] entry = serializer.serialize(userDto);
+        entry[2] = 99;
+
+        // When & Then
+        assertNull(serializer.deserialize(entry));
+    }
+
+    @Test
+    void deserialize_corruptEntries_areTreatedAsMiss() {
+        // Given
+        byte[] entry = serializer.serialize(userDto);
+
+        // When & Then
+        assertNull(serializer.deserialize(Arrays.copyOf(entry, entry.length / 2)));
+        assertNull(serializer.deserialize(Arrays.copyOf(entry, 2)));
+        assertNull(serializer.deserialize("not json".getBytes()));
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+    }
+
+    @Test
+    void serialize_unregisteredType_throwsException() {
+        // When & Then
+        assertThrows(SerializationException.class, () -> serializer.serialize("plain string"));
+    }
+
+    @Test
+    void register_duplicateOrOutOfRange_throwsException() {
+        // Given
+        CacheTypeRegistry registry = new CacheTypeRegistry().register(1, UserDto.class);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> registry.register(1, RoleDto.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(2, UserDto.class));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(128, RoleDto.class));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+import com.example.userservice.config.RedisConfig;
+import com.example.userservice.dto.UserDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+@ExtendWith(MockitoExtension.class)
+class MeasuredRedisCacheManagerTest {
+
+    @Mock
+    private RedisCacheWriter cacheWriter;
+
+    private final CacheStatisticsCollector statistics = CacheStatisticsCollector.create();
+    private SimpleMeterRegistry meterRegistry;
+    private MeasuredRedisCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(cacheWriter.getCacheStatistics(anyString()))
+                .thenAnswer(invocation -> statistics.getCacheStatistics(invocation.getArgument(0)));
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(RedisConfig.compactValueSerializer()));
+        cacheManager = new MeasuredRedisCacheManager(cacheWriter, config, meterRegistry);
+    }
+
+    @Test
+    void put_recordsSerializedValueSize() {
+        // Given
+        UserDto userDto = new UserDto();
+        userDto.setId(1L);
+        userDto.setUsername("john");
+        Cache cache = cacheManager.getCache("users");
+
+        // When
+        cache.put(1L, userDto);
+
+        // Then
+        ArgumentCaptor<byte[]> written = ArgumentCaptor.forClass(byte[].class);
+        verify(cacheWriter).put(eq("users"), any(byte[].class), written.capture(), any(Duration.class));
+        DistributionSummary valueSize = meterRegistry.get("cache.value.size").tag("cache", "users").summary();
+        assertEquals(1, valueSize.count());
+        assertEquals(written.getValue().length, valueSize.totalAmount());
+    }
+
+    @Test
+    void createdCaches_exposeRedisStatistics() {
+        // Given
+        cacheManager.getCache("roles");
+
+        // When
+        statistics.incGets("roles");
+        statistics.incHits("roles");
+        statistics.incPuts("roles");
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "roles", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.puts").tag("cache", "roles").functionCounter().count());
+        assertNotNull(meterRegistry.get("cache.removals").tag("cache", "roles").functionCounter());
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.userservice.config.RedisConfig;
+import com.example.userservice.dto.UserDto;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerTest {
+
+    private static final String CHANNEL = "cache-invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("users");
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, redisTemplate, CHANNEL,
+                100, Duration.ofMinutes(1), CacheLoadSettings.DEFAULTS, meterRegistry, CacheStatisticsCollector.none());
+
+        userDto = new UserDto();
+        userDto.setId(1L);
+        userDto.setUsername("john");
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void get_remoteHit_backfillsLocal() {
+        // Given
+        remoteCacheManager.getCache("users").put(1L, userDto);
+        Cache cache = cacheManager.getCache("users");
+
+        // When
+        Cache.ValueWrapper first = cache.get(1L);
+        remoteCacheManager.getCache("users").evict(1L);
+        Cache.ValueWrapper second = cache.get(1L);
+
+        // Then
+        assertSame(userDto, first.get());
+        assertSame(userDto, second.get());
+        assertEquals(1.0, hits("l1"));
+        assertEquals(1.0, hits("l2"));
+        assertEquals(0.5, meterRegistry.get("cache.level.hit.ratio").tags("cache", "users", "level", "l1")
+                .gauge().value());
+    }
+
+    @Test
+    void get_missOnBothLevels_returnsNull() {
+        // When
+        Cache.ValueWrapper result = cacheManager.getCache("users").get(42L);
+
+        // Then
+        assertNull(result);
+        assertEquals(1.0, misses("l1"));
+        assertEquals(1.0, misses("l2"));
+    }
+
+    @Test
+    void getWithLoader_missLoadsAndStoresInBothLevels() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+
+        // When
+        UserDto result = cache.get(1L, () -> userDto);
+
+        // Then
+        assertSame(userDto, result);
+        assertSame(userDto, remoteCacheManager.getCache("users").get(1L).get());
+        assertSame(userDto, cache.get(1L, () -> null));
+    }
+
+    @Test
+    void getWithLoader_loaderFails_wrapsException() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+
+        // When & Then
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(1L, () -> {
+            throw new IllegalStateException("db down");
+        }));
+    }
+
+    @Test
+    void getWithType_wrongType_throwsException() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, userDto);
+
+        // When & Then
+        assertSame(userDto, cache.get(1L, UserDto.class));
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, String.class));
+    }
+
+    @Test
+    void evict_removesBothLevels_andPublishes() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, userDto);
+
+        // When
+        cache.evict(1L);
+
+        // Then
+        assertNull(cache.get(1L));
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), endsWith("|evict|users|1"));
+    }
+
+    @Test
+    void clear_removesBothLevels_andPublishes() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, userDto);
+
+        // When
+        cache.clear();
+
+        // Then
+        assertNull(cache.get(1L));
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), endsWith("|clear|users|"));
+    }
+
+    @Test
+    void evict_publishFailure_isSwallowed() {
+        // Given
+        doThrow(new IllegalStateException("redis down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, userDto);
+
+        // When
+        cache.evict(1L);
+
+        // Then
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void onMessage_fromOtherReplica_evictsOnlyLocalCopy() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, userDto);
+
+        // When
+        cacheManager.onMessage(message("other-instance|evict|users|1"), null);
+
+        // Then: the next read misses L1 and is served by L2
+        assertSame(userDto, cache.get(1L).get());
+        assertEquals(1.0, misses("l1"));
+        assertEquals(1.0, hits("l2"));
+    }
+
+    @Test
+    void onMessage_clear_dropsAllLocalEntries() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, userDto);
+        cache.put(2L, userDto);
+
+        // When
+        cacheManager.onMessage(message("other-instance|clear|users|"), null);
+        cache.get(1L);
+        cache.get(2L);
+
+        // Then
+        assertEquals(2.0, misses("l1"));
+    }
+
+    @Test
+    void onMessage_unknownCacheOrMalformed_isIgnored() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, userDto);
+
+        // When
+        cacheManager.onMessage(message("other-instance|evict|roles|1"), null);
+        cacheManager.onMessage(message("garbage"), null);
+        cache.get(1L);
+
+        // Then
+        assertEquals(1.0, hits("l1"));
+    }
+
+    @Test
+    void getWithLoader_takesLeaseForTheKey() {
+        // Given
+        when(valueOperations.setIfAbsent(eq("users::lease::1"), anyString(), eq(CacheLoadSettings.DEFAULTS.leaseTtl())))
+                .thenReturn(true);
+
+        // When
+        cacheManager.getCache("users").get(1L, () -> userDto);
+
+        // Then
+        verify(redisTemplate).execute(any(), eq(List.of("users::lease::1")), anyString());
+        assertEquals(1.0, meterRegistry.get("cache.loads").tags("cache", "users").functionTimer().count());
+    }
+
+    @Test
+    void tryAcquireLease_redisDown_grantsLease() {
+        // Given
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenThrow(new IllegalStateException("redis down"));
+
+        // When & Then
+        assertTrue(cacheManager.tryAcquireLease("users", "1"));
+    }
+
+    @Test
+    void getWithTtlAndWriteTtl_nonRedisCache_haveUnknownTtl() {
+        // Given
+        cacheManager.getCache("users");
+        remoteCacheManager.getCache("users").put(1L, userDto);
+
+        // When
+        CacheLoadCoordinator.RemoteEntry entry = cacheManager.getWithTtl("users", 1L);
+
+        // Then
+        assertSame(userDto, entry.value());
+        assertEquals(CacheLoadCoordinator.UNKNOWN_TTL, entry.ttlMillis());
+        assertNull(cacheManager.getWithTtl("users", 2L));
+        assertEquals(CacheLoadCoordinator.UNKNOWN_TTL, cacheManager.writeTtlMillis("users", 1L, userDto));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getWithTtl_redisCache_readsValueAndTtlInOnePipeline() {
+        // Given
+        RedisSerializer<Object> serializer = RedisConfig.compactValueSerializer();
+        RedisCacheManager redisCacheManager = new RedisCacheManager(mock(RedisCacheWriter.class),
+                RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(Duration.ofMinutes(10))
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer)));
+        redisCacheManager.afterPropertiesSet();
+        CacheStatisticsCollector statistics = CacheStatisticsCollector.create();
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, CHANNEL,
+                100, Duration.ofMinutes(1), CacheLoadSettings.DEFAULTS, meterRegistry, statistics);
+        manager.getCache("users");
+        when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenReturn(List.of(serializer.serialize(userDto), 30_000L));
+
+        // When
+        CacheLoadCoordinator.RemoteEntry entry = manager.getWithTtl("users", 1L);
+
+        // Then
+        assertEquals("john", ((UserDto) entry.value()).getUsername());
+        assertEquals(30_000L, entry.ttlMillis());
+        assertEquals(Duration.ofMinutes(10).toMillis(), manager.writeTtlMillis("users", 1L, userDto));
+        assertEquals(1, statistics.getCacheStatistics("users").getHits());
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class), any(RedisSerializer.class));
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    void getWithTtl_undecodableRedisValue_isAMiss() {
+        // Given
+        RedisSerializer<Object> serializer = RedisConfig.compactValueSerializer();
+        RedisCacheManager redisCacheManager = new RedisCacheManager(mock(RedisCacheWriter.class),
+                RedisCacheConfiguration.defaultCacheConfig()
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer)));
+        redisCacheManager.afterPropertiesSet();
+        CacheStatisticsCollector statistics = CacheStatisticsCollector.create();
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(redisCacheManager, redisTemplate, CHANNEL,
+                100, Duration.ofMinutes(1), CacheLoadSettings.DEFAULTS, meterRegistry, statistics);
+        manager.getCache("users");
+        byte[] unknownType = {CompactCacheSerializer.MAGIC, CompactCacheSerializer.VERSION, 99, 0};
+        when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenReturn(List.of(unknownType, 30_000L));
+
+        // When
+        CacheLoadCoordinator.RemoteEntry entry = manager.getWithTtl("users", 1L);
+
+        // Then
+        assertNull(entry);
+        assertEquals(0, statistics.getCacheStatistics("users").getHits());
+        assertEquals(1, statistics.getCacheStatistics("users").getMisses());
+    }
+
+    @Test
+    void multiGetAndMultiPut_nonRedisCache_fallBackToPerKeyCalls() {
+        // Given
+        cacheManager.getCache("users");
+
+        // When
+        cacheManager.multiPut("users", Map.of(1L, userDto));
+        Map<Object, Object> result = cacheManager.multiGet("users", List.of(1L, 2L));
+
+        // Then
+        assertSame(userDto, remoteCacheManager.getCache("users").get(1L).get());
+        assertEquals(Map.of(1L, userDto), result);
+    }
+
+    @Test
+    void remoteCalls_areTimedPerOperation() {
+        // Given
+        Cache cache = cacheManager.getCache("users");
+
+        // When
+        cache.put(1L, userDto);
+        cacheManager.getCache("users").evict(1L);
+        cache.get(1L);
+
+        // Then
+        assertEquals(1, remoteLatency("put").count());
+        assertEquals(1, remoteLatency("evict").count());
+        assertEquals(1, remoteLatency("get").count());
+    }
+
+    @Test
+    void getCache_unknownRemoteCache_throwsException() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> cacheManager.getCache("unknown"));
+    }
+
+    private Timer remoteLatency(String operation) {
+        return meterRegistry.get("cache.remote.latency").tags("cache", "users", "operation", operation).timer();
+    }
+
+    private double hits(String level) {
+        return meterRegistry.get("cache.level.gets")
+                .tags("cache", "users", "level", level, "result", "hit")
+                .functionCounter().count();
+    }
+
+    private double misses(String level) {
+        return meterRegistry.get("cache.level.gets")
+                .tags("cache", "users", "level", level, "result", "miss")
+                .functionCounter().count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.userservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.userservice.cache.CacheLoadCoordinator.RemoteEntry;
+import com.example.userservice.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    private static final CacheLoadSettings SETTINGS =
+            new CacheLoadSettings(Duration.ofMillis(500), 1.0, Duration.ofMillis(100));
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    @Mock
+    private CacheLoadCoordinator coordinator;
+
+    @Mock
+    private RemoteCacheBatch remoteBatch;
+
+    private ConcurrentMapCache remote;
+    private TwoLevelCache cache;
+    private ExecutorService executor;
+    private UserDto userDto;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("users");
+        cache = new TwoLevelCache("users", Caffeine.newBuilder().build(), remote, publisher, coordinator,
+                remoteBatch, SETTINGS);
+        executor = Executors.newFixedThreadPool(8);
+        userDto = new UserDto();
+        userDto.setId(1L);
+        lenient().when(coordinator.getWithTtl(anyString(), any())).thenAnswer(invocation -> {
+            Cache.ValueWrapper wrapper = remote.get(invocation.getArgument(1));
+            return wrapper != null ? new RemoteEntry(wrapper.get(), CacheLoadCoordinator.UNKNOWN_TTL) : null;
+        });
+        lenient().when(coordinator.writeTtlMillis(anyString(), any(), any()))
+                .thenReturn(CacheLoadCoordinator.UNKNOWN_TTL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMisses_runLoaderOnce() throws Exception {
+        // Given
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(true);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<UserDto>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get(1L, () -> {
+                loaderCalls.incrementAndGet();
+                release.await();
+                return userDto;
+            })));
+        }
+        waitUntil(() -> cache.localMisses.sum() == 8 && loaderCalls.get() == 1);
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        for (Future<UserDto> result : results) {
+            assertSame(userDto, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loaderCalls.get());
+        assertEquals(1, cache.loads.sum());
+        assertEquals(7, cache.localCoalesced.sum());
+        verify(coordinator).releaseLease("users", "1");
+    }
+
+    @Test
+    void concurrentMisses_loaderFails_allCallersSeeFailure() throws Exception {
+        // Given
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(true);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<UserDto> leader = executor.submit(() -> cache.get(1L, () -> {
+            release.await();
+            throw new IllegalStateException("db down");
+        }));
+        waitUntil(() -> cache.localMisses.sum() == 1);
+        Future<UserDto> follower = executor.submit(() -> cache.get(1L, () -> userDto));
+        waitUntil(() -> cache.localMisses.sum() == 2);
+
+        // When
+        release.countDown();
+
+        // Then
+        assertCause(Cache.ValueRetrievalException.class, leader);
+        assertCause(Cache.ValueRetrievalException.class, follower);
+        verify(coordinator).releaseLease("users", "1");
+    }
+
+    @Test
+    void undecodableRemoteValue_isAMiss_loadedAndOverwritten() {
+        // Given
+        when(coordinator.getWithTtl("users", 1L))
+                .thenReturn(new RemoteEntry(null, CacheLoadCoordinator.UNKNOWN_TTL))
+                .thenAnswer(invocation -> new RemoteEntry(remote.get(1L).get(), CacheLoadCoordinator.UNKNOWN_TTL));
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(true);
+
+        // When
+        UserDto loaded = cache.get(1L, () -> userDto);
+
+        // Then
+        assertSame(userDto, loaded);
+        assertSame(userDto, remote.get(1L).get());
+        assertEquals(1, cache.loads.sum());
+        assertEquals(0, cache.remoteHits.sum());
+    }
+
+    @Test
+    void leaseHeldByOtherReplica_waitsForItsValue() throws Exception {
+        // Given
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(false);
+        executor.submit(() -> {
+            Thread.sleep(100);
+            remote.put(1L, userDto);
+            return null;
+        });
+
+        // When
+        UserDto result = cache.get(1L, () -> {
+            throw new AssertionError("loader must not run");
+        });
+
+        // Then
+        assertSame(userDto, result);
+        assertEquals(1, cache.remoteCoalesced.sum());
+        assertEquals(1, cache.remoteWaits.sum());
+        verify(coordinator, never()).releaseLease(anyString(), anyString());
+    }
+
+    @Test
+    void leaseHeldByOtherReplica_expires_loadsLocally() {
+        // Given
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(false);
+
+        // When
+        UserDto result = cache.get(1L, () -> userDto);
+
+        // Then
+        assertSame(userDto, result);
+        assertSame(userDto, remote.get(1L).get());
+        assertEquals(0, cache.remoteCoalesced.sum());
+        assertEquals(1, cache.loads.sum());
+    }
+
+    @Test
+    void hitAtRemoteExpiry_refreshesEarly() {
+        // Given
+        when(coordinator.writeTtlMillis(eq("users"), eq(1L), any())).thenReturn(0L);
+        when(coordinator.getWithTtl("users", 1L)).thenAnswer(invocation -> new RemoteEntry(remote.get(1L).get(), 0L));
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(true);
+        cache.put(1L, userDto);
+        UserDto refreshed = new UserDto();
+
+        // When
+        UserDto result = cache.get(1L, () -> refreshed);
+
+        // Then
+        assertSame(refreshed, result);
+        assertSame(refreshed, remote.get(1L).get());
+        assertEquals(1, cache.earlyRefreshes.sum());
+        verify(coordinator).releaseLease("users", "1");
+    }
+
+    @Test
+    void hitFarFromExpiry_servesCachedValue() {
+        // Given
+        when(coordinator.writeTtlMillis(eq("users"), eq(1L), any())).thenReturn(Duration.ofMinutes(10).toMillis());
+        cache.put(1L, userDto);
+
+        // When
+        UserDto result = cache.get(1L, () -> new UserDto());
+
+        // Then
+        assertSame(userDto, result);
+        assertEquals(0, cache.earlyRefreshes.sum());
+        verify(coordinator, never()).tryAcquireLease(anyString(), anyString());
+    }
+
+    @Test
+    void earlyRefresh_leaseHeldElsewhere_servesCachedValue() {
+        // Given
+        when(coordinator.writeTtlMillis(eq("users"), eq(1L), any())).thenReturn(0L);
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(false);
+        cache.put(1L, userDto);
+
+        // When
+        UserDto result = cache.get(1L, () -> new UserDto());
+
+        // Then
+        assertSame(userDto, result);
+        assertEquals(0, cache.loads.sum());
+    }
+
+    @Test
+    void earlyRefresh_loaderFails_servesCachedValue() {
+        // Given
+        when(coordinator.writeTtlMillis(eq("users"), eq(1L), any())).thenReturn(0L);
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(true);
+        cache.put(1L, userDto);
+
+        // When
+        UserDto result = cache.get(1L, () -> {
+            throw new IllegalStateException("db down");
+        });
+
+        // Then
+        assertSame(userDto, result);
+        verify(coordinator).releaseLease("users", "1");
+    }
+
+    @Test
+    void earlyRefresh_alreadyRewrittenByOtherReplica_adoptsRemoteValue() {
+        // Given
+        when(coordinator.writeTtlMillis(eq("users"), eq(1L), any())).thenReturn(0L);
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(true);
+        cache.put(1L, userDto);
+        UserDto rewritten = new UserDto();
+        when(coordinator.getWithTtl("users", 1L))
+                .thenReturn(new RemoteEntry(rewritten, Duration.ofMinutes(10).toMillis()));
+
+        // When
+        UserDto result = cache.get(1L, () -> {
+            throw new AssertionError("loader must not run");
+        });
+
+        // Then
+        assertSame(rewritten, result);
+        assertEquals(0, cache.earlyRefreshes.sum());
+    }
+
+    @Test
+    void remoteHit_fillsLocalWithTheTtlReadAlongside() {
+        // Given
+        when(coordinator.getWithTtl("users", 1L)).thenReturn(new RemoteEntry(userDto, 0L));
+        when(coordinator.tryAcquireLease("users", "1")).thenReturn(true);
+        UserDto refreshed = new UserDto();
+
+        // When: the L2 hit fills L1 with an expiry that is already due, so the next hit refreshes
+        UserDto first = cache.get(1L, () -> {
+            throw new AssertionError("loader must not run");
+        });
+        UserDto second = cache.get(1L, () -> refreshed);
+
+        // Then
+        assertSame(userDto, first);
+        assertSame(refreshed, second);
+        assertEquals(1, cache.earlyRefreshes.sum());
+    }
+
+    @Test
+    void put_takesLocalExpiryFromWriteTtl_withoutReadingRemote() {
+        // Given
+        when(coordinator.writeTtlMillis("users", 1L, userDto)).thenReturn(Duration.ofMinutes(10).toMillis());
+
+        // When
+        cache.put(1L, userDto);
+
+        // Then
+        assertSame(userDto, cache.get(1L).get());
+        verify(coordinator, never()).getWithTtl(anyString(), any());
+    }
+
+    @Test
+    void getAll_servesLocalHits_andFetchesRestInOneRemoteCall() {
+        // Given
+        cache.put(1L, userDto);
+        UserDto second = new UserDto();
+        when(remoteBatch.multiGet("users", List.of(2L, 3L))).thenReturn(Map.of(2L, second));
+
+        // When
+        Map<Object, Object> result = cache.getAll(List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(Map.of(1L, userDto, 2L, second), result);
+        assertEquals(1, cache.localHits.sum());
+        assertEquals(1, cache.remoteHits.sum());
+        assertEquals(1, cache.remoteMisses.sum());
+        assertSame(second, cache.getAll(List.of(2L)).get(2L));
+        verify(remoteBatch).multiGet(anyString(), any());
+    }
+
+    @Test
+    void putAll_writesRemoteInOneCall_andFillsLocal() {
+        // Given
+        Map<Long, UserDto> entries = Map.of(1L, userDto);
+
+        // When
+        cache.putAll(entries);
+
+        // Then
+        verify(remoteBatch).multiPut("users", entries);
+        assertSame(userDto, cache.getAll(List.of(1L)).get(1L));
+        verify(remoteBatch, never()).multiGet(anyString(), any());
+    }
+
+    private static void assertCause(Class<? extends Throwable> type, Future<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(type.isInstance(e.getCause()), () -> "Unexpected cause: " + e.getCause());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
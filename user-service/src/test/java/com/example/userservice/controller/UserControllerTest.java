@@ -16,17 +16,31 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
+import com.example.userservice.dto.UserBatchResponse;
 import com.example.userservice.dto.UserDto;
+import com.example.userservice.dto.UserImportError;
+import com.example.userservice.dto.UserImportReport;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.entity.User;
+import com.example.userservice.exception.ServiceBusyException;
+import com.example.userservice.exporter.ExportFormat;
+import com.example.userservice.importer.ImportFormat;
+import com.example.userservice.service.UserExportService;
+import com.example.userservice.service.UserImportService;
 import com.example.userservice.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -34,6 +48,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -48,6 +65,12 @@ class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private UserImportService userImportService;
+
+    @MockitoBean
+    private UserExportService userExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -129,11 +152,133 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.username", is("john_doe")))
                 .andExpect(jsonPath("$.email", is("john@example.com")))
-                .andExpect(jsonPath("$.status", is("ACTIVE")));
+                .andExpect(jsonPath("$.status", is("ACTIVE")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=30"));
 
         verify(userService, times(1)).getById(1L);
     }
 
+    @Test
+    @DisplayName("GET /users/batch - Should return found users and missing IDs")
+    void getBatch_ShouldReturnUsersAndMissingIds() throws Exception {
+        // Given
+        when(userService.getByIds(List.of(1L, 7L)))
+                .thenReturn(new UserBatchResponse(List.of(userDto), List.of(7L)));
+
+        // When & Then
+        mockMvc.perform(get("/users/batch").param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(1)))
+                .andExpect(jsonPath("$.users[0].id", is(1)))
+                .andExpect(jsonPath("$.missingIds[0]", is(7)));
+    }
+
+    @Test
+    @DisplayName("GET /users/batch - Should return 400 without IDs or above the size cap")
+    void getBatch_WithoutIdsOrTooMany_ShouldReturnBadRequest() throws Exception {
+        // Given
+        String tooMany = String.join(",", LongStream.rangeClosed(1, 101)
+                .mapToObj(String::valueOf).toList());
+
+        // When & Then
+        mockMvc.perform(get("/users/batch"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/batch").param("ids", tooMany))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getByIds(any());
+    }
+
+    @Test
+    @DisplayName("POST /users/import - Should stream CSV to the importer and return its report")
+    void importUsers_Csv_ShouldReturnReport() throws Exception {
+        // Given
+        UserImportReport report = new UserImportReport();
+        report.setReceived(2);
+        report.setImported(1);
+        report.setFailed(1);
+        report.getErrors().add(new UserImportError(3, "bob", "Username already exists"));
+        when(userImportService.importUsers(any(), eq(ImportFormat.CSV))).thenReturn(report);
+
+        // When & Then
+        mockMvc.perform(post("/users/import")
+                        .contentType("text/csv")
+                        .content("username,email,password\nann,ann@example.com,secret1\nbob,bob@example.com,secret1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)))
+                .andExpect(jsonPath("$.errors[0].message", is("Username already exists")));
+    }
+
+    @Test
+    @DisplayName("GET /users/export - Should stream CSV filtered by status and sorted with an id tie-breaker")
+    void export_Csv_ShouldStreamRows() throws Exception {
+        // Given
+        when(userExportService.export(eq(User.Status.ACTIVE),
+                eq(Sort.by(Sort.Direction.DESC, "createdAt", "id")), eq(ExportFormat.CSV), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(3).write("id,username\r\n1,john_doe\r\n".getBytes());
+                    return 1L;
+                });
+
+        // When & Then
+        mockMvc.perform(get("/users/export").param("format", "csv").param("status", "active")
+                        .param("sortBy", "createdAt").param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id,username\r\n1,john_doe\r\n"));
+    }
+
+    @Test
+    @DisplayName("GET /users/export - Should return 400 for an unknown format or status")
+    void export_WithUnknownFormatOrStatus_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/export").param("status", "BANNED"))
+                .andExpect(status().isBadRequest());
+
+        verify(userExportService, never()).export(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /users/scroll - Should return a page with the next cursor")
+    void scroll_ShouldReturnPageWithNextCursor() throws Exception {
+        // Given
+        CursorPageResponse<UserDto> page = new CursorPageResponse<>(List.of(userDto), 1, "abc", false);
+        when(userService.list(any(CursorRequest.class))).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/users/scroll").param("size", "1").param("sortBy", "username"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("abc")))
+                .andExpect(jsonPath("$.last", is(false)));
+    }
+
+    @Test
+    @DisplayName("GET /users/scroll - Should return 400 for a malformed cursor")
+    void scroll_WithMalformedCursor_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/users/scroll").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).list(any(CursorRequest.class));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} - Should return 503 with Retry-After when a bounded resource is saturated")
+    void getUserById_WhenSaturated_ShouldReturnServiceUnavailable() throws Exception {
+        // Given
+        when(userService.getById(1L)).thenThrow(new ServiceBusyException("busy", Duration.ofSeconds(2)));
+
+        // When & Then
+        mockMvc.perform(get("/users/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
     @Test
     @DisplayName("GET /users/{id} - Should return 404 for non-existent user")
     void getUserById_WithNonExistentId_ShouldReturnNotFound() throws Exception {
@@ -162,7 +307,7 @@ class UserControllerTest {
         PageImpl<UserDto> page = new PageImpl<>(users, PageRequest.of(0, 10), 2);
         PageResponse<UserDto> pageResponse = PageResponse.from(page);
 
-        when(userService.list(any())).thenReturn(pageResponse);
+        when(userService.list(any(Pageable.class))).thenReturn(pageResponse);
 
         // When & Then
         mockMvc.perform(get("/users")
@@ -183,7 +328,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.totalPages", is(1)))
                 .andExpect(jsonPath("$.last", is(true)));
 
-        verify(userService, times(1)).list(any());
+        verify(userService, times(1)).list(any(Pageable.class));
     }
 
     @Test
@@ -194,7 +339,7 @@ class UserControllerTest {
         PageImpl<UserDto> page = new PageImpl<>(users, PageRequest.of(0, 20), 1);
         PageResponse<UserDto> pageResponse = PageResponse.from(page);
 
-        when(userService.list(any())).thenReturn(pageResponse);
+        when(userService.list(any(Pageable.class))).thenReturn(pageResponse);
 
         // When & Then
         mockMvc.perform(get("/users")
@@ -206,7 +351,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.content[0].id", is(1)))
                 .andExpect(jsonPath("$.content[0].username", is("john_doe")));
 
-        verify(userService, times(1)).list(any());
+        verify(userService, times(1)).list(any(Pageable.class));
     }
 
     @Test
@@ -0,0 +1,183 @@
+package com.example.userservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.userservice.config.DataSourceConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs JPA transactions against three in-memory H2 databases standing in for a primary and two replicas; each holds
+ * a marker row with its name, and each replica a row with its simulated lag.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.datasource.replica-urls=" + ReadReplicaRoutingTest.REPLICA_1 + "," + ReadReplicaRoutingTest.REPLICA_2,
+        "app.datasource.replica-lag-query=select seconds from replica_lag",
+        "app.datasource.replica-max-lag=5s"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataSourceConfig.class, ReadReplicaRoutingTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:routing-replica-2;DB_CLOSE_DELAY=-1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        mark(PRIMARY, "primary", null);
+        mark(REPLICA_1, "replica-1", 0);
+        mark(REPLICA_2, "replica-2", 0);
+        replicaLagMonitor.refresh();
+    }
+
+    @Test
+    void readWriteTransaction_usesPrimary() {
+        // When
+        String database = transaction(false).execute(status -> databaseName());
+
+        // Then
+        assertEquals("primary", database);
+    }
+
+    @Test
+    void readOnlyTransactions_alternateBetweenReplicas_andStayOnOneConnection() {
+        // When
+        List<String> first = transaction(true).execute(status -> List.of(databaseName(), databaseName()));
+        String second = transaction(true).execute(status -> databaseName());
+
+        // Then
+        assertTrue(first.get(0).startsWith("replica-"), first::toString);
+        assertEquals(first.get(0), first.get(1));
+        assertTrue(second.startsWith("replica-"), second);
+        assertNotEquals(first.get(0), second);
+    }
+
+    @Test
+    void laggingReplica_isSkipped() throws SQLException {
+        // Given
+        mark(REPLICA_1, "replica-1", 60);
+        replicaLagMonitor.refresh();
+
+        // When & Then
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-2", transaction(true).execute(status -> databaseName()));
+        }
+        assertEquals(60.0, meterRegistry.get("datasource.replica.lag").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    void everyReplicaLagging_fallsBackToPrimary() throws SQLException {
+        // Given
+        mark(REPLICA_1, "replica-1", 60);
+        mark(REPLICA_2, "replica-2", 60);
+        replicaLagMonitor.refresh();
+        double before = primaryReads();
+
+        // When
+        String database = transaction(true).execute(status -> databaseName());
+
+        // Then
+        assertEquals("primary", database);
+        assertEquals(before + 1, primaryReads());
+    }
+
+    @Test
+    void eachPool_exportsMetrics() {
+        // When
+        transaction(true).execute(status -> databaseName());
+
+        // Then
+        for (String pool : List.of("primary", "replica-1", "replica-2")) {
+            assertTrue(meterRegistry.find("hikaricp.connections").tag("pool", pool).gauge() != null, pool);
+        }
+    }
+
+    @Test
+    void eachPool_takesTheHikariSettings() {
+        // When
+        transaction(true).execute(status -> databaseName());
+
+        // Then
+        for (String pool : List.of("primary", "replica-1", "replica-2")) {
+            assertEquals(3, meterRegistry.get("hikaricp.connections.max").tag("pool", pool).gauge().value(), pool);
+        }
+    }
+
+    private String databaseName() {
+        return (String) entityManager.createNativeQuery("select name from db_marker").getSingleResult();
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private double primaryReads() {
+        return meterRegistry.get("datasource.read.connections").tag("target", "primary").counter().count();
+    }
+
+    private static void mark(String url, String name, Integer lagSeconds) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists db_marker (name varchar(20))");
+            statement.execute("delete from db_marker");
+            statement.execute("insert into db_marker values ('" + name + "')");
+            if (lagSeconds != null) {
+                statement.execute("create table if not exists replica_lag (seconds double precision)");
+                statement.execute("delete from replica_lag");
+                statement.execute("insert into replica_lag values (" + lagSeconds + ")");
+            }
+        }
+    }
+}
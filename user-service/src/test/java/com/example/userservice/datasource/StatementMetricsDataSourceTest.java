@@ -0,0 +1,128 @@
+package com.example.userservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatementMetricsDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:statement-metrics;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists item (id bigint, name varchar(50))");
+            statement.execute("delete from item");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.end();
+    }
+
+    @Test
+    void executions_areCountedOnTheCurrentThread_withBatchesAsOne() throws SQLException {
+        // Given
+        StatementMetricsDataSource dataSource = new StatementMetricsDataSource(h2, Duration.ofMinutes(1), meterRegistry);
+        StatementCounter.begin();
+
+        // When
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement("insert into item values (?, ?)")) {
+                for (long id = 1; id <= 3; id++) {
+                    insert.setLong(1, id);
+                    insert.setString(2, "item-" + id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement select = connection.prepareStatement("select count(*) from item where id > ?")) {
+                select.setLong(1, 0);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    resultSet.next();
+                    assertEquals(3, resultSet.getInt(1));
+                }
+            }
+        }
+
+        // Then
+        assertEquals(2, StatementCounter.end());
+        assertEquals(0.0, meterRegistry.get("jdbc.statements.slow").counter().count());
+    }
+
+    @Test
+    void executionsAboveThreshold_areCountedAsSlow() throws SQLException {
+        // Given
+        StatementMetricsDataSource dataSource = new StatementMetricsDataSource(h2, Duration.ZERO, meterRegistry);
+
+        // When
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("insert into item values (?, ?)")) {
+            insert.setLong(1, 1L);
+            insert.setNull(2, Types.VARCHAR);
+            insert.executeUpdate();
+        }
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("jdbc.statements.slow").counter().count());
+    }
+
+    @Test
+    void executionsOutsideACountingWindow_areNotCounted() throws SQLException {
+        // Given
+        StatementMetricsDataSource dataSource = new StatementMetricsDataSource(h2, Duration.ofMinutes(1), meterRegistry);
+
+        // When
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+        }
+        StatementCounter.begin();
+
+        // Then
+        assertEquals(0, StatementCounter.end());
+    }
+
+    @Test
+    void proxies_compareByIdentity() throws SQLException {
+        // Given
+        StatementMetricsDataSource dataSource = new StatementMetricsDataSource(h2, Duration.ofMinutes(1), meterRegistry);
+
+        // When & Then
+        try (Connection connection = dataSource.getConnection();
+             Statement first = connection.createStatement();
+             Statement second = connection.createStatement()) {
+            assertTrue(first.equals(first));
+            assertNotSame(first, second);
+            assertEquals(System.identityHashCode(first), first.hashCode());
+            assertTrue(!first.equals(second));
+        }
+    }
+
+    @Test
+    void shapes_listParameterTypesInIndexOrder() {
+        // Given
+        Map<Integer, String> parameters = new TreeMap<>(Map.of(2, "String", 1, "Long", 3, "null"));
+
+        // When & Then
+        assertEquals("[Long, String, null]", StatementMetricsDataSource.shapes(parameters));
+    }
+}
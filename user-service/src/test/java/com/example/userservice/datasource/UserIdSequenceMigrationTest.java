@@ -0,0 +1,67 @@
+package com.example.userservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+class UserIdSequenceMigrationTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:sequence-migration", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Test
+    void sequenceCreatedWithIncrementOne_isChangedToTheAllocationSize() {
+        // Given
+        jdbcTemplate.execute("CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 1");
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_id_seq", Long.class);
+
+        // When
+        new UserIdSequenceMigration(dataSource).afterPropertiesSet();
+
+        // Then
+        assertEquals(List.of("50"), increments());
+    }
+
+    @Test
+    void sequenceAlreadyMigrated_isLeftAlone() {
+        // Given
+        jdbcTemplate.execute("CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 50");
+
+        // When
+        new UserIdSequenceMigration(dataSource).afterPropertiesSet();
+
+        // Then
+        assertEquals(List.of("50"), increments());
+    }
+
+    @Test
+    void missingSequence_isLeftForHibernateToCreate() {
+        // When
+        new UserIdSequenceMigration(dataSource).afterPropertiesSet();
+
+        // Then
+        assertTrue(increments().isEmpty());
+    }
+
+    private List<String> increments() {
+        return jdbcTemplate.queryForList(UserIdSequenceMigration.INCREMENT_QUERY, String.class, "users_id_seq");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.userservice.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.cursor.common.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class UserRowReaderTest {
+
+    @Test
+    void ndjson_parsesRowsAndReportsMalformedLines() throws IOException {
+        // Given
+        UserRowReader reader = ndjson("""
+                {"username":"alice","email":"alice@example.com","password":"secret1"}
+
+                {"username":
+                null
+                """);
+
+        // When
+        ImportRow first = reader.next();
+        ImportRow malformed = reader.next();
+        ImportRow nullLine = reader.next();
+
+        // Then
+        assertEquals(1, first.line());
+        assertEquals("alice", first.user().getUsername());
+        assertEquals("secret1", first.user().getPassword());
+        assertEquals(3, malformed.line());
+        assertEquals("Malformed JSON", malformed.error());
+        assertEquals("Malformed JSON", nullLine.error());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csv_mapsColumnsByHeaderName_andHandlesQuotes() throws IOException {
+        // Given
+        UserRowReader reader = csv("""
+                ﻿Email,extra,Username,password
+                bob@example.com,x,bob,"pa,ss""word"
+                "carol@example.com",,carol,secret2
+                """);
+
+        // When
+        ImportRow bob = reader.next();
+        ImportRow carol = reader.next();
+
+        // Then
+        assertEquals(2, bob.line());
+        assertEquals("bob", bob.user().getUsername());
+        assertEquals("bob@example.com", bob.user().getEmail());
+        assertEquals("pa,ss\"word", bob.user().getPassword());
+        assertEquals("carol@example.com", carol.user().getEmail());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csv_reportsBadRows() throws IOException {
+        // Given
+        UserRowReader reader = csv("""
+                username,email,password
+                dave,"dave@example.com,secret3
+                erin,erin@example.com
+                """);
+
+        // When & Then
+        assertEquals("Unterminated quoted field", reader.next().error());
+        assertEquals("Expected 3 fields but found 2", reader.next().error());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csv_headerWithoutRequiredColumns_throwsException() {
+        // Given
+        UserRowReader reader = csv("name,email,password\n");
+
+        // When & Then
+        assertThrows(BusinessException.class, reader::next);
+    }
+
+    @Test
+    void csv_emptyBody_hasNoRows() throws IOException {
+        assertNull(csv("").next());
+    }
+
+    @Test
+    void split_keepsEmptyFields() {
+        assertEquals(List.of("", "a", ""), CsvUserRowReader.split(",a,"));
+        assertNull(CsvUserRowReader.split("\"open"));
+    }
+
+    private static UserRowReader ndjson(String body) {
+        return new NdjsonUserRowReader(new BufferedReader(new StringReader(body)), new ObjectMapper().reader());
+    }
+
+    private static UserRowReader csv(String body) {
+        return new CsvUserRowReader(new BufferedReader(new StringReader(body)));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.userservice.permission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+import com.example.userservice.entity.Permission;
+import com.example.userservice.entity.Role;
+import com.example.userservice.repository.PermissionRepository;
+import com.example.userservice.repository.RoleRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs outside a test transaction so that writes commit and trigger the catalog listener.
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(PermissionCatalog.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PermissionCatalogTest {
+
+    @Autowired
+    private PermissionCatalog catalog;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private StringRedisTemplate redisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+    }
+
+    @Test
+    void effectivePermissions_areTheUnionOfTheRoles() {
+        // Given
+        Permission read = permission("user:read");
+        Permission write = permission("user:write");
+        Permission audit = permission("audit:read");
+        Role viewer = role("VIEWER", read);
+        Role editor = role("EDITOR", read, write);
+        Role empty = role("EMPTY");
+        catalog.rebuild();
+
+        // When
+        PermissionSet permissions = catalog.effectivePermissions(List.of(viewer.getId(), editor.getId()));
+
+        // Then
+        assertEquals(Set.of("user:read", "user:write"), permissions.codes());
+        assertEquals(2, permissions.size());
+        assertFalse(permissions.contains(audit.getCode()));
+        assertTrue(catalog.effectivePermissions(List.of(empty.getId(), 999L)).isEmpty());
+    }
+
+    @Test
+    void hasPermission_checksAnyOfTheRoles() {
+        // Given
+        Permission read = permission("user:read");
+        Permission write = permission("user:write");
+        Role viewer = role("VIEWER", read);
+        Role editor = role("EDITOR", write);
+        catalog.rebuild();
+
+        // When & Then
+        assertTrue(catalog.hasPermission(List.of(viewer.getId(), editor.getId()), "user:write"));
+        assertFalse(catalog.hasPermission(List.of(viewer.getId()), "user:write"));
+        assertFalse(catalog.hasPermission(List.of(viewer.getId()), "unknown"));
+        assertFalse(catalog.hasPermission(List.of(), "user:read"));
+    }
+
+    @Test
+    void permissionsBeyondOneWord_keepTheirBits() {
+        // Given
+        Permission[] permissions = IntStream.range(0, 130)
+                .mapToObj(i -> permission(String.format("perm:%03d", i)))
+                .toArray(Permission[]::new);
+        Role role = role("WIDE", permissions[0], permissions[64], permissions[129]);
+        catalog.rebuild();
+
+        // When
+        PermissionSet granted = catalog.effectivePermissions(List.of(role.getId()));
+
+        // Then
+        assertEquals(Set.of("perm:000", "perm:064", "perm:129"), granted.codes());
+        assertTrue(catalog.hasPermission(List.of(role.getId()), "perm:129"));
+        assertFalse(catalog.hasPermission(List.of(role.getId()), "perm:063"));
+    }
+
+    @Test
+    void committedRoleChange_rebuildsAndBroadcasts() {
+        // Given
+        Permission read = permission("user:read");
+        catalog.rebuild();
+
+        // When: the save commits, and the listener rebuilds without an explicit call
+        Role viewer = role("VIEWER", read);
+
+        // Then
+        assertTrue(catalog.hasPermission(List.of(viewer.getId()), "user:read"));
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq("user-service:permission-catalog"), anyString());
+    }
+
+    @Test
+    void onMessage_fromAnotherReplica_rebuilds() {
+        // Given: an assignment written by another replica, bypassing this one's listener
+        Permission read = permission("user:read");
+        Role viewer = role("VIEWER");
+        jdbcTemplate.update("insert into role_permissions (role_id, permission_id) values (?, ?)",
+                viewer.getId(), read.getId());
+        assertFalse(catalog.hasPermission(List.of(viewer.getId()), "user:read"));
+
+        // When
+        catalog.onMessage(new DefaultMessage("user-service:permission-catalog".getBytes(StandardCharsets.UTF_8),
+                "another-replica".getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertTrue(catalog.hasPermission(List.of(viewer.getId()), "user:read"));
+    }
+
+    private Permission permission(String code) {
+        Permission permission = new Permission();
+        permission.setCode(code);
+        return permissionRepository.save(permission);
+    }
+
+    private Role role(String name, Permission... permissions) {
+        Role role = new Role();
+        role.setName(name);
+        role.setPermissions(new HashSet<>(List.of(permissions)));
+        return roleRepository.save(role);
+    }
+}
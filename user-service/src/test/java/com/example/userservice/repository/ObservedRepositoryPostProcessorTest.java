@@ -0,0 +1,104 @@
+package com.example.userservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.userservice.config.ObservabilityConfig;
+import com.example.userservice.datasource.StatementCountFilter;
+import com.example.userservice.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ObservabilityConfig.class, ObservedRepositoryPostProcessorTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ObservedRepositoryPostProcessorTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StatementCountFilter statementCountFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObservationRegistry observationRegistry(MeterRegistry meterRegistry) {
+            ObservationRegistry registry = ObservationRegistry.create();
+            registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+            return registry;
+        }
+    }
+
+    @Test
+    void repositoryMethods_areObservedWithRepositoryMethodAndOutcome() {
+        // When
+        userRepository.findByUsername("nobody");
+        userRepository.findByUsername("nobody");
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> userRepository.findById(null));
+
+        // Then
+        assertEquals(2, invocations("findByUsername", "SUCCESS"));
+        assertEquals(1, invocations("findById", "ERROR"));
+    }
+
+    @Test
+    void statementCountFilter_recordsStatementsPerRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}");
+                userRepository.findById(1L);
+                User user = new User();
+                user.setUsername("counted");
+                user.setEmail("counted@example.com");
+                user.setPassword("secret");
+                userRepository.save(user);
+            }
+        };
+
+        // When
+        statementCountFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(servlet));
+
+        // Then
+        assertEquals(1, meterRegistry.get("http.server.requests.jdbc.statements")
+                .tags("method", "GET", "uri", "/users/{id}").summary().count());
+        assertEquals(3, meterRegistry.get("http.server.requests.jdbc.statements")
+                .tags("method", "GET", "uri", "/users/{id}").summary().totalAmount());
+    }
+
+    private long invocations(String method, String outcome) {
+        return meterRegistry.get(ObservedRepositoryPostProcessor.OBSERVATION_NAME)
+                .tags("repository", "UserRepository", "method", method, "outcome", outcome)
+                .timer().count();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.userservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
+import com.cursor.common.pagination.PageUtils;
+import com.example.userservice.entity.User;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 25; i++) {
+            User user = new User();
+            user.setUsername(String.format("user%02d", (i * 7) % 25));
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("secret");
+            userRepository.save(user);
+        }
+        // Read back what the database stored, as a later request would
+        entityManager.flush();
+        entityManager.clear();
+        users = userRepository.findAll(Sort.by("id"));
+    }
+
+    @Test
+    void scroll_byId_visitsEveryUserOnce() {
+        // When
+        List<CursorPageResponse<User>> pages = scrollAll("id", "asc");
+
+        // Then
+        assertEquals(3, pages.size());
+        assertEquals(users.stream().map(User::getId).toList(), ids(pages));
+        assertTrue(pages.get(2).isLast());
+        assertNull(pages.get(2).getNextCursor());
+    }
+
+    @Test
+    void scroll_byUsernameDescending_followsSortOrder() {
+        // When
+        List<CursorPageResponse<User>> pages = scrollAll("username", "desc");
+
+        // Then
+        List<Long> expected = users.stream()
+                .sorted(Comparator.comparing(User::getUsername).reversed())
+                .map(User::getId)
+                .toList();
+        assertEquals(expected, ids(pages));
+    }
+
+    @Test
+    void scroll_byCreatedAt_breaksTiesById() {
+        // Given: rows saved in a tight loop share createdAt values
+        List<Long> expected = users.stream()
+                .sorted(Comparator.comparing(User::getCreatedAt).thenComparing(User::getId))
+                .map(User::getId)
+                .toList();
+
+        // When
+        List<CursorPageResponse<User>> pages = scrollAll("createdAt", "asc");
+
+        // Then
+        assertEquals(expected, ids(pages));
+        assertFalse(pages.get(0).isLast());
+    }
+
+    @Test
+    void findCreatedAfterAndBefore_continueFromTheRowValue() {
+        // Given
+        List<User> ascending = users.stream()
+                .sorted(Comparator.comparing(User::getCreatedAt).thenComparing(User::getId))
+                .toList();
+        User tenth = ascending.get(9);
+
+        // When
+        List<User> after = userRepository.findCreatedAfter(tenth.getCreatedAt(), tenth.getId(), Limit.of(10));
+        List<User> before = userRepository.findCreatedBefore(tenth.getCreatedAt(), tenth.getId(), Limit.of(5));
+
+        // Then
+        assertEquals(ids(ascending.subList(10, 20)), ids(after));
+        assertEquals(List.of(9, 8, 7, 6, 5).stream().map(i -> ascending.get(i - 1).getId()).toList(), ids(before));
+    }
+
+    private List<CursorPageResponse<User>> scrollAll(String sortBy, String direction) {
+        List<CursorPageResponse<User>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorRequest request = PageUtils.buildCursorRequest(cursor, 10, sortBy, direction)
+                    .withUniqueSortProperties(Set.of("username", "email"));
+            CursorPageResponse<User> page = CursorPageResponse.from(
+                    userRepository.findAllBy(request.position(), request.sort(), request.limit()), request.sort());
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private static List<Long> ids(List<CursorPageResponse<User>> pages) {
+        return pages.stream().flatMap(page -> page.getContent().stream()).map(User::getId).toList();
+    }
+
+    private static List<Long> ids(Collection<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
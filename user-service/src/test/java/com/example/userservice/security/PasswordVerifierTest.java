@@ -0,0 +1,148 @@
+package com.example.userservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.userservice.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordVerifierTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService callers;
+    private PasswordVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (verifier != null) {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void verify_matchingPassword_atConfiguredCost_needsNoUpgrade() {
+        // Given
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        verifier = verifier(encoder, 2, 8, Duration.ofSeconds(5));
+        String hash = encoder.encode("secret");
+
+        // When
+        PasswordVerifier.Result match = verifier.verify("secret", hash);
+        PasswordVerifier.Result mismatch = verifier.verify("wrong", hash);
+
+        // Then
+        assertTrue(match.matches());
+        assertNull(match.upgradedHash());
+        assertFalse(mismatch.matches());
+        assertEquals(2, meterRegistry.get("password.hash.duration").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash.wait").timer().count());
+    }
+
+    @Test
+    void verify_matchingPassword_atLowerCost_returnsUpgradedHash() {
+        // Given
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(5);
+        verifier = verifier(encoder, 1, 8, Duration.ofSeconds(5));
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+
+        // When
+        PasswordVerifier.Result result = verifier.verify("secret", weakHash);
+
+        // Then
+        assertTrue(result.matches());
+        assertTrue(result.upgradedHash().startsWith("$2a$05$"));
+        assertTrue(encoder.matches("secret", result.upgradedHash()));
+    }
+
+    @Test
+    void verify_queueFull_failsFastWithRetryAfter() throws Exception {
+        // Given: the only thread is busy and the single queue slot is taken
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        verifier = verifier(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5));
+        callers.submit(() -> verifier.verify("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> verifier.verify("b", "b"));
+        waitForQueueDepth(1);
+
+        // When
+        ServiceBusyException e = assertThrows(ServiceBusyException.class, () -> verifier.verify("c", "c"));
+
+        // Then
+        release.countDown();
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+        assertEquals(1, meterRegistry.get("password.hash.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void verify_waitExceedsMaxWait_failsAndFreesQueueSlot_butRunningCheckCompletes() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        verifier = verifier(blockingEncoder(started, release), 1, 4, Duration.ofMillis(100));
+        Future<PasswordVerifier.Result> running = callers.submit(() -> verifier.verify("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        assertThrows(ServiceBusyException.class, () -> verifier.verify("b", "b"));
+        release.countDown();
+
+        // Then
+        assertTrue(running.get(5, TimeUnit.SECONDS).matches());
+        assertEquals(1, meterRegistry.get("password.hash.rejected").tag("reason", "timeout").counter().count());
+        assertEquals(0, meterRegistry.get("password.hash.queue.depth").gauge().value());
+    }
+
+    private PasswordVerifier verifier(PasswordEncoder encoder, int threads, int queueCapacity, Duration maxWait) {
+        return new PasswordVerifier(encoder, meterRegistry, threads, queueCapacity, maxWait, Duration.ofSeconds(1));
+    }
+
+    private void waitForQueueDepth(double depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.hash.queue.depth").gauge().value() != depth) {
+            assertTrue(System.nanoTime() < deadline, "Queue depth not reached in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.userservice.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class VerifiedCredentialCacheTest {
+
+    private final VerifiedCredentialCache cache =
+            new VerifiedCredentialCache(new SimpleMeterRegistry(), true, Duration.ofMinutes(1), 100);
+
+    @Test
+    void isVerified_samePasswordAndHash_hits() {
+        // Given
+        cache.put("john", "secret", "$2a$10$hash");
+
+        // When & Then
+        assertTrue(cache.isVerified("john", "secret", "$2a$10$hash"));
+    }
+
+    @Test
+    void isVerified_otherPasswordUserOrHash_misses() {
+        // Given
+        cache.put("john", "secret", "$2a$10$hash");
+
+        // When & Then
+        assertFalse(cache.isVerified("john", "Secret", "$2a$10$hash"));
+        assertFalse(cache.isVerified("jane", "secret", "$2a$10$hash"));
+        assertFalse(cache.isVerified("john", "secret", "$2a$10$changed"));
+        assertFalse(cache.isVerified("john", null, "$2a$10$hash"));
+    }
+
+    @Test
+    void invalidate_dropsEntry() {
+        // Given
+        cache.put("john", "secret", "$2a$10$hash");
+
+        // When
+        cache.invalidate("john");
+
+        // Then
+        assertFalse(cache.isVerified("john", "secret", "$2a$10$hash"));
+    }
+
+    @Test
+    void disabled_neverHits() {
+        // Given
+        VerifiedCredentialCache disabled =
+                new VerifiedCredentialCache(new SimpleMeterRegistry(), false, Duration.ofMinutes(1), 100);
+        disabled.put("john", "secret", "$2a$10$hash");
+
+        // When & Then
+        assertFalse(disabled.isVerified("john", "secret", "$2a$10$hash"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.userservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import com.example.userservice.permission.PermissionCatalog;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.impl.PermissionServiceImpl;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PermissionCatalog permissionCatalog;
+
+    @InjectMocks
+    private PermissionServiceImpl permissionService;
+
+    @Test
+    void hasPermission_checksTheUsersRolesInTheCatalog() {
+        // Given
+        when(userRepository.findRoleIdsById(1L)).thenReturn(List.of(10L, 11L));
+        when(permissionCatalog.hasPermission(List.of(10L, 11L), "user:write")).thenReturn(true);
+
+        // When & Then
+        assertTrue(permissionService.hasPermission(1L, "user:write"));
+        verify(userRepository, never()).existsById(1L);
+    }
+
+    @Test
+    void hasPermission_userWithoutRoles_isDenied() {
+        // Given
+        when(userRepository.findRoleIdsById(1L)).thenReturn(List.of());
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        // When & Then
+        assertFalse(permissionService.hasPermission(1L, "user:write"));
+    }
+
+    @Test
+    void getUserPermissions_unknownUser_throwsNotFound() {
+        // Given
+        when(userRepository.findRoleIdsById(99L)).thenReturn(List.of());
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> permissionService.getUserPermissions(99L));
+        assertEquals(ErrorCode.RESOURCE_NOT_FOUND, exception.getErrorCode());
+    }
+}
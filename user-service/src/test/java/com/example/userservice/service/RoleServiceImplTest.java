@@ -1,6 +1,7 @@
 package com.example.userservice.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.times;
@@ -9,7 +10,10 @@ import static org.mockito.Mockito.when;
 
 import com.cursor.common.exception.BusinessException;
 import com.cursor.common.exception.ErrorCode;
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
 import com.cursor.common.pagination.PageResponse;
+import com.cursor.common.pagination.PageUtils;
 import com.example.userservice.dto.RoleDto;
 import com.example.userservice.dto.RoleRequest;
 import com.example.userservice.entity.Role;
@@ -17,6 +21,7 @@ import com.example.userservice.mapper.RoleMapper;
 import com.example.userservice.repository.RoleRepository;
 import com.example.userservice.service.impl.RoleServiceImpl;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +33,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
 
 @ExtendWith(MockitoExtension.class)
 class RoleServiceImplTest {
@@ -260,4 +269,44 @@ class RoleServiceImplTest {
         assertEquals(1, res.getTotalPages());
     }
 
+    @Test
+    void getAllByCursor_returnsNextCursor() {
+        // GIVEN
+        CursorRequest request = PageUtils.buildCursorRequest(null, 1, "name", "asc");
+        Window<Role> window = Window.from(List.of(testRole),
+                i -> ScrollPosition.forward(Map.of("name", testRole.getName())), true);
+        when(roleRepository.findAllBy(request.position(), Sort.by("name"), request.limit())).thenReturn(window);
+        when(roleMapper.toDto(testRole)).thenReturn(testRoleDto);
+
+        // WHEN
+        CursorPageResponse<RoleDto> res = roleService.getAll(request);
+
+        // THEN
+        assertEquals(List.of(testRoleDto), res.getContent());
+        // role names are unique, so they need no id tie-breaker
+        assertEquals(Sort.by("name"), PageUtils.buildCursorRequest(res.getNextCursor(), 1, null, null).sort());
+    }
+
+    @Test
+    void getAllByCursor_unsupportedSort_throwsValidationError() {
+        // GIVEN
+        CursorRequest request = PageUtils.buildCursorRequest(null, 10, "permissions", "asc");
+
+        // WHEN
+        BusinessException ex = assertThrows(BusinessException.class, () -> roleService.getAll(request));
+
+        // THEN
+        assertEquals(ErrorCode.VALIDATION_ERROR, ex.getErrorCode());
+    }
+
+    @Test
+    void getById_runsInAReadWriteTransaction_soItUsesThePrimary() throws NoSuchMethodException {
+        // GIVEN
+        AnnotationTransactionAttributeSource attributes = new AnnotationTransactionAttributeSource();
+
+        // WHEN & THEN
+        assertFalse(attributes.getTransactionAttribute(
+                RoleServiceImpl.class.getMethod("getById", Long.class), RoleServiceImpl.class).isReadOnly());
+    }
+
 }
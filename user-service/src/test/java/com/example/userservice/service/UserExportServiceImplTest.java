@@ -0,0 +1,145 @@
+package com.example.userservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.cursor.common.exception.BusinessException;
+import com.example.userservice.entity.User;
+import com.example.userservice.exporter.ExportFormat;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.impl.UserExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({UserExportServiceImpl.class, ObjectMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserExportServiceImplTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 30; i++) {
+            User user = new User();
+            user.setUsername(String.format("user%02d", (i * 7) % 30));
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("secret");
+            if (i % 3 == 0) {
+                user.setStatus(User.Status.INACTIVE);
+            }
+            userRepository.save(user);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void ndjson_writesOneObjectPerLine_inSortOrder_withoutPasswords() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = userExportService.export(null, Sort.by(Sort.Direction.DESC, "username", "id"),
+                ExportFormat.NDJSON, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(30, written);
+        assertEquals(30, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("user29", first.get("username").asText());
+        assertEquals("user28", objectMapper.readTree(lines.get(1)).get("username").asText());
+        assertTrue(first.hasNonNull("createdAt"));
+        assertFalse(first.has("password"));
+        User second = userRepository.findByUsername("user28").orElseThrow();
+        String expected = "{\"id\":" + second.getId() + ",\"username\":\"user28\",\"email\":\"user4@example.com\""
+                + ",\"status\":\"ACTIVE\",\"createdAt\":\"" + second.getCreatedAt()
+                + "\",\"updatedAt\":\"" + second.getUpdatedAt() + "\"}\n";
+        String[] rawLines = out.toString(StandardCharsets.UTF_8).split("(?<=\n)");
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), rawLines[1].getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csv_honoursStatusFilter() {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = userExportService.export(User.Status.INACTIVE, Sort.by("id"), ExportFormat.CSV, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(10, written);
+        assertEquals("id,username,email,status,createdAt,updatedAt", lines.get(0));
+        assertEquals(11, lines.size());
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.contains(",INACTIVE,")));
+        assertTrue(lines.get(1).contains(",user00,user0@example.com,"));
+    }
+
+    @Test
+    void clientDisconnect_stopsReadingAndReturns() {
+        // Given: more rows than the writer buffers, and a client that goes away after the first kilobyte
+        List<User> more = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            User user = new User();
+            user.setUsername("more" + i);
+            user.setEmail("more" + i + "@example.com");
+            user.setPassword("secret");
+            more.add(user);
+        }
+        userRepository.saveAll(more);
+        OutputStream out = new OutputStream() {
+            private int count;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++count > 1024) {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        // When
+        long written = userExportService.export(null, Sort.by("id"), ExportFormat.CSV, out);
+
+        // Then
+        assertTrue(written < 330, () -> "Written: " + written);
+        assertEquals(330, userRepository.count());
+    }
+
+    @Test
+    void unsupportedSortProperty_isRejected() {
+        // When & Then
+        assertThrows(BusinessException.class, () -> userExportService.export(null, Sort.by("password"),
+                ExportFormat.CSV, new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.userservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+import com.example.userservice.bloom.UserLookupFilter;
+import com.example.userservice.dto.UserImportError;
+import com.example.userservice.dto.UserImportReport;
+import com.example.userservice.entity.User;
+import com.example.userservice.importer.ImportFormat;
+import com.example.userservice.mapper.UserMapperImpl;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.impl.UserImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "app.users.import.chunk-size=50",
+        "app.users.import.hash-threads=4",
+        "app.users.import.max-reported-errors=3"
+})
+@Import({UserImportServiceImpl.class, UserMapperImpl.class, UserImportServiceImplTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceImplTest {
+
+    private static final PasswordEncoder ENCODER = new BCryptPasswordEncoder(4);
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserLookupFilter userLookupFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void ndjson_insertsInBatches_withHashedPasswords() throws IOException {
+        // Given
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            body.append("{\"username\":\"user").append(i).append("\",\"email\":\"user").append(i)
+                    .append("@example.com\",\"password\":\"secret").append(i).append("\"}\n");
+        }
+
+        double importedBefore = importedRows();
+
+        // When
+        UserImportReport report = userImportService.importUsers(stream(body.toString()), ImportFormat.NDJSON);
+
+        // Then
+        assertEquals(120, report.getReceived());
+        assertEquals(120, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertTrue(report.getRowsPerSecond() > 0);
+        assertEquals(120, statistics.getEntityInsertCount());
+        // 3 chunks x (2 conflict checks + 1 batched insert) + a few sequence calls for blocks of 50 ids
+        assertTrue(statistics.getPrepareStatementCount() <= 9 + 4,
+                () -> "Statements: " + statistics.getPrepareStatementCount());
+        User user = userRepository.findByUsername("user7").orElseThrow();
+        assertTrue(ENCODER.matches("secret7", user.getPassword()));
+        assertEquals(120.0, importedRows() - importedBefore);
+    }
+
+    @Test
+    void csv_reportsEveryRejectedRow_andImportsTheRest() throws IOException {
+        // Given
+        userImportService.importUsers(stream("username,email,password\ntaken,taken@example.com,secret1\n"),
+                ImportFormat.CSV);
+        String body = """
+                username,email,password
+                ok1,ok1@example.com,secret1
+                taken,new@example.com,secret1
+                bad,not-an-email,secret1
+                ok1,other@example.com,secret1
+                "broken,x@example.com,secret1
+                ok2,ok2@example.com,secret1
+                """;
+
+        // When
+        UserImportReport report = userImportService.importUsers(stream(body), ImportFormat.CSV);
+
+        // Then
+        assertEquals(6, report.getReceived());
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertTrue(report.isErrorsTruncated());
+        assertEquals(List.of(3L, 4L, 5L), report.getErrors().stream().map(UserImportError::getLine).toList());
+        assertEquals("Username already exists", report.getErrors().get(0).getMessage());
+        assertEquals("email must be a well-formed email address", report.getErrors().get(1).getMessage());
+        assertEquals("Duplicate username in import", report.getErrors().get(2).getMessage());
+        assertTrue(userRepository.findByUsername("ok2").isPresent());
+    }
+
+    @Test
+    void duplicateOfAnEarlierChunk_failsThatChunksCheck() throws IOException {
+        // Given: chunks of 50, so the last row repeats a user the first chunk already inserted
+        StringBuilder body = new StringBuilder("username,email,password\n");
+        for (int i = 0; i < 50; i++) {
+            body.append("user").append(i).append(",user").append(i).append("@example.com,secret1\n");
+        }
+        body.append("user0,other@example.com,secret1\n");
+
+        // When
+        UserImportReport report = userImportService.importUsers(stream(body.toString()), ImportFormat.CSV);
+
+        // Then
+        assertEquals(50, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(52L, report.getErrors().get(0).getLine());
+        assertEquals("Username already exists", report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void concurrentConflict_retriesRowByRow() throws IOException {
+        // Given: the conflict check misses a user created after it ran
+        userImportService.importUsers(stream("username,email,password\nrace,race@example.com,secret1\n"),
+                ImportFormat.CSV);
+        doReturn(Set.of()).when(userRepository).findExistingUsernames(anyCollection());
+        String body = """
+                username,email,password
+                amy1,amy1@example.com,secret1
+                race,race2@example.com,secret1
+                amy2,amy2@example.com,secret1
+                """;
+
+        // When
+        UserImportReport report = userImportService.importUsers(stream(body), ImportFormat.CSV);
+
+        // Then
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals("Username already exists", report.getErrors().get(0).getMessage());
+        assertTrue(userRepository.findByUsername("amy2").isPresent());
+        assertFalse(userRepository.findByEmail("race2@example.com").isPresent());
+    }
+
+    private double importedRows() {
+        return meterRegistry.get("users.import.rows").tag("result", "imported").counter().count();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return ENCODER;
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -6,7 +6,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,28 +18,50 @@ import static org.mockito.Mockito.when;
 import com.cursor.common.dto.UserResponse;
 import com.cursor.common.exception.BusinessException;
 import com.cursor.common.exception.ErrorCode;
+import com.cursor.common.pagination.CursorPageResponse;
+import com.cursor.common.pagination.CursorRequest;
+import com.cursor.common.pagination.KeysetCursor;
 import com.cursor.common.pagination.PageResponse;
+import com.cursor.common.pagination.PageUtils;
+import com.example.userservice.bloom.UserLookupFilter;
+import com.example.userservice.cache.BatchCache;
+import com.example.userservice.dto.UserBatchResponse;
 import com.example.userservice.dto.LoginRequest;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.entity.User;
 import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserCredentials;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.PasswordVerifier;
+import com.example.userservice.security.VerifiedCredentialCache;
 import com.example.userservice.service.impl.UserServiceImpl;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -44,11 +70,20 @@ class UserServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerifier passwordVerifier;
+
+    @Mock
+    private VerifiedCredentialCache verifiedCredentials;
 
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserLookupFilter userLookupFilter;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -56,9 +91,14 @@ class UserServiceImplTest {
     private User user;
     private UserDto userDto;
     private LoginRequest loginRequest;
+    private UserCredentials credentials;
 
     @BeforeEach
     void setup() {
+        lenient().when(userLookupFilter.mightContainId(anyLong())).thenReturn(true);
+        lenient().when(userLookupFilter.mightContainUsername(anyString())).thenReturn(true);
+        lenient().when(userLookupFilter.mightContainEmail(anyString())).thenReturn(true);
+
         userRequest = new UserRequest();
         userRequest.setUsername("john");
         userRequest.setEmail("john@example.com");
@@ -79,6 +119,8 @@ class UserServiceImplTest {
         loginRequest = new LoginRequest();
         loginRequest.setUsername("john");
         loginRequest.setPassword("secret123");
+
+        credentials = new UserCredentials(1L, "john", "john@example.com", "encodedPassword");
     }
 
     // ========== CREATE METHOD TESTS ==========
@@ -86,10 +128,8 @@ class UserServiceImplTest {
     @Test
     void create_success() {
         // Given
-        when(userRepository.findByUsername("john")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
         when(userMapper.toEntity(userRequest)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userDto);
 
         // When
@@ -100,18 +140,19 @@ class UserServiceImplTest {
         assertEquals("john", result.getUsername());
         assertEquals("john@example.com", result.getEmail());
 
-        verify(userRepository).findByUsername("john");
-        verify(userRepository).findByEmail("john@example.com");
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).findByEmail(anyString());
         verify(userMapper).toEntity(userRequest);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
         verify(userMapper).toDto(user);
+        verify(userLookupFilter).add(1L, "john", "john@example.com");
     }
 
     @Test
-    void create_usernameConflict_throwsBusinessException() {
+    void create_usernameTaken_translatesConstraintToConflict() {
         // Given
-        User existingUser = new User();
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(existingUser));
+        when(userMapper.toEntity(userRequest)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(violation("uk_users_username"));
 
         // When & Then
         BusinessException ex = assertThrows(BusinessException.class,
@@ -119,18 +160,46 @@ class UserServiceImplTest {
 
         assertEquals(ErrorCode.CONFLICT, ex.getErrorCode());
         assertEquals("Username already exists", ex.getMessage());
+        verify(userLookupFilter, never()).add(any(), any(), any());
+    }
 
-        verify(userRepository).findByUsername("john");
-        verify(userRepository, never()).findByEmail(any());
-        verify(userRepository, never()).save(any());
+    @Test
+    void create_emailTaken_translatesConstraintToConflict() {
+        // Given
+        when(userMapper.toEntity(userRequest)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(violation("PUBLIC.UK_USERS_EMAIL_INDEX_4"));
+
+        // When & Then
+        BusinessException ex = assertThrows(BusinessException.class,
+            () -> userService.create(userRequest));
+
+        assertEquals(ErrorCode.CONFLICT, ex.getErrorCode());
+        assertEquals("Email already exists", ex.getMessage());
     }
 
     @Test
-    void create_emailConflict_throwsBusinessException() {
+    void create_usernameTaken_underGeneratedConstraintName_translatesByColumn() {
         // Given
-        User existingUser = new User();
-        when(userRepository.findByUsername("john")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(existingUser));
+        when(userMapper.toEntity(userRequest)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(violation("ukr43af9ap4edm43mmtq01oddj6",
+                "ERROR: duplicate key value violates unique constraint \"ukr43af9ap4edm43mmtq01oddj6\"\n"
+                        + "  Detail: Key (username)=(john) already exists."));
+
+        // When & Then
+        BusinessException ex = assertThrows(BusinessException.class,
+            () -> userService.create(userRequest));
+
+        assertEquals(ErrorCode.CONFLICT, ex.getErrorCode());
+        assertEquals("Username already exists", ex.getMessage());
+    }
+
+    @Test
+    void create_emailTaken_underGeneratedIndexName_translatesByColumn() {
+        // Given
+        when(userMapper.toEntity(userRequest)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(violation(null,
+                "Unique index or primary key violation: \"PUBLIC.UK6DOTKOTT2KJSP8VW4D0M25FB7_INDEX_4 ON"
+                        + " PUBLIC.USERS(EMAIL NULLS FIRST) VALUES ( /* 1 */ 'john@example.com' )\""));
 
         // When & Then
         BusinessException ex = assertThrows(BusinessException.class,
@@ -138,10 +207,16 @@ class UserServiceImplTest {
 
         assertEquals(ErrorCode.CONFLICT, ex.getErrorCode());
         assertEquals("Email already exists", ex.getMessage());
+    }
 
-        verify(userRepository).findByUsername("john");
-        verify(userRepository).findByEmail("john@example.com");
-        verify(userRepository, never()).save(any());
+    @Test
+    void create_otherConstraint_isNotTranslated() {
+        // Given
+        when(userMapper.toEntity(userRequest)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(violation("users_password_not_null"));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> userService.create(userRequest));
     }
 
     // ========== GET BY ID METHOD TESTS ==========
@@ -180,8 +255,146 @@ class UserServiceImplTest {
         verify(userMapper, never()).toDto(any());
     }
 
+    @Test
+    void getById_filterRulesOutId_throwsWithoutQuery() {
+        // Given
+        when(userLookupFilter.mightContainId(99L)).thenReturn(false);
+
+        // When & Then
+        BusinessException ex = assertThrows(BusinessException.class, () -> userService.getById(99L));
+
+        assertEquals(ErrorCode.RESOURCE_NOT_FOUND, ex.getErrorCode());
+        verify(userRepository, never()).findById(any());
+    }
+
+    // ========== BATCH METHOD TESTS ==========
+
+    @Test
+    void getByIds_mixesCacheAndDatabase_inRequestOrder() {
+        // Given
+        ConcurrentMapCache cache = new ConcurrentMapCache("users");
+        UserDto cached = new UserDto();
+        cached.setId(2L);
+        cache.put(2L, cached);
+        when(cacheManager.getCache("users")).thenReturn(cache);
+        when(userLookupFilter.mightContainId(9L)).thenReturn(false);
+        when(userRepository.findAllById(List.of(3L, 1L))).thenReturn(List.of(user));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        // When
+        UserBatchResponse result = userService.getByIds(List.of(3L, 2L, 9L, 1L, 2L));
+
+        // Then
+        assertEquals(List.of(cached, userDto), result.getUsers());
+        assertEquals(List.of(3L, 9L), result.getMissingIds());
+        assertEquals(userDto, cache.get(1L).get());
+        assertNull(cache.get(3L));
+    }
+
+    @Test
+    void getByIds_batchCache_usesSingleMultiGetAndPutAll() {
+        // Given
+        BatchCache cache = mock(BatchCache.class);
+        when(cacheManager.getCache("users")).thenReturn(cache);
+        when(cache.getAll(List.of(1L, 2L))).thenReturn(Map.of(2L, userDto));
+        when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        // When
+        UserBatchResponse result = userService.getByIds(List.of(1L, 2L));
+
+        // Then
+        assertEquals(2, result.getUsers().size());
+        assertTrue(result.getMissingIds().isEmpty());
+        verify(cache).putAll(Map.of(1L, userDto));
+    }
+
+    @Test
+    void getByIds_allCached_skipsDatabase() {
+        // Given
+        ConcurrentMapCache cache = new ConcurrentMapCache("users");
+        cache.put(1L, userDto);
+        when(cacheManager.getCache("users")).thenReturn(cache);
+
+        // When
+        UserBatchResponse result = userService.getByIds(List.of(1L));
+
+        // Then
+        assertEquals(List.of(userDto), result.getUsers());
+        verify(userRepository, never()).findAllById(any());
+    }
+
     // ========== LIST METHOD TESTS ==========
 
+    @Test
+    void listByCursor_lastPage_hasNoCursor() {
+        // Given
+        CursorRequest request = PageUtils.buildCursorRequest(null, 10, "createdAt", "desc");
+        when(userRepository.findAllBy(request.position(), request.sort(), request.limit()))
+                .thenReturn(Window.from(List.of(user), i -> ScrollPosition.offset(), false));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        // When
+        CursorPageResponse<UserDto> result = userService.list(request);
+
+        // Then
+        assertEquals(List.of(userDto), result.getContent());
+        assertTrue(result.isLast());
+        assertNull(result.getNextCursor());
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void listByCursor_createdAtNextPage_usesTheRowValueQuery() {
+        // Given
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+        String cursor = new KeysetCursor(Sort.by(Sort.Direction.DESC, "createdAt", "id"),
+                Map.of("createdAt", createdAt, "id", 5L)).encode();
+        CursorRequest request = PageUtils.buildCursorRequest(cursor, 1, null, null);
+        user.setCreatedAt(createdAt.minusSeconds(1));
+        User older = new User();
+        older.setId(4L);
+        when(userRepository.findCreatedBefore(createdAt, 5L, Limit.of(2))).thenReturn(List.of(user, older));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        // When
+        CursorPageResponse<UserDto> result = userService.list(request);
+
+        // Then
+        assertEquals(List.of(userDto), result.getContent());
+        assertFalse(result.isLast());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(request.sort(), next.sort());
+        assertEquals(user.getId(), next.keys().get("id"));
+        verify(userRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void listByCursor_uniqueSort_dropsIdTieBreaker() {
+        // Given
+        CursorRequest request = PageUtils.buildCursorRequest(null, 10, "email", "asc");
+        when(userRepository.findAllBy(request.position(), Sort.by("email"), request.limit()))
+                .thenReturn(Window.from(List.of(user), i -> ScrollPosition.offset(), false));
+        when(userMapper.toDto(user)).thenReturn(userDto);
+
+        // When
+        CursorPageResponse<UserDto> result = userService.list(request);
+
+        // Then
+        assertEquals(List.of(userDto), result.getContent());
+    }
+
+    @Test
+    void listByCursor_unindexedSort_throwsValidationError() {
+        // Given
+        CursorRequest request = PageUtils.buildCursorRequest(null, 10, "password", "asc");
+
+        // When & Then
+        BusinessException ex = assertThrows(BusinessException.class, () -> userService.list(request));
+        assertEquals(ErrorCode.VALIDATION_ERROR, ex.getErrorCode());
+        verify(userRepository, never()).findAllBy(any(), any(), any());
+    }
+
     @Test
     void list_success() {
         // Given
@@ -229,9 +442,7 @@ class UserServiceImplTest {
         updateRequest.setPassword("newPassword");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.findByUsername("johnny")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("johnny@example.com")).thenReturn(Optional.empty());
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userDto);
 
         // When
@@ -241,11 +452,14 @@ class UserServiceImplTest {
         assertNotNull(result);
 
         verify(userRepository).findById(1L);
-        verify(userRepository).findByUsername("johnny");
-        verify(userRepository).findByEmail("johnny@example.com");
-        verify(userRepository).save(user);
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository).saveAndFlush(user);
         verify(userMapper).toDto(user);
 
+        verify(userLookupFilter).add(1L, "johnny", "johnny@example.com");
+        verify(verifiedCredentials).invalidate("john");
+
         // Verify user properties were updated
         assertEquals("johnny", user.getUsername());
         assertEquals("johnny@example.com", user.getEmail());
@@ -261,7 +475,7 @@ class UserServiceImplTest {
         updateRequest.setPassword("newPassword");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userDto);
 
         // When
@@ -271,10 +485,9 @@ class UserServiceImplTest {
         assertNotNull(result);
 
         verify(userRepository).findById(1L);
-        // Should not check for conflicts when username/email are the same
-        verify(userRepository, never()).findByUsername("john");
-        verify(userRepository, never()).findByEmail("john@example.com");
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
+        // The lookup filter only needs to learn new keys
+        verify(userLookupFilter, never()).add(any(), any(), any());
     }
 
     @Test
@@ -284,9 +497,8 @@ class UserServiceImplTest {
         updateRequest.setUsername("existingUser");
         updateRequest.setEmail("john@example.com");
 
-        User conflictUser = new User();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.findByUsername("existingUser")).thenReturn(Optional.of(conflictUser));
+        when(userRepository.saveAndFlush(user)).thenThrow(violation("uk_users_username"));
 
         // When & Then
         BusinessException ex = assertThrows(BusinessException.class,
@@ -294,8 +506,7 @@ class UserServiceImplTest {
 
         assertEquals(ErrorCode.CONFLICT, ex.getErrorCode());
         assertEquals("Username already exists", ex.getMessage());
-
-        verify(userRepository, never()).save(any());
+        verify(userLookupFilter, never()).add(any(), any(), any());
     }
 
     @Test
@@ -305,9 +516,8 @@ class UserServiceImplTest {
         updateRequest.setUsername("john");
         updateRequest.setEmail("existing@example.com");
 
-        User conflictUser = new User();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.findByEmail("existing@example.com")).thenReturn(Optional.of(conflictUser));
+        when(userRepository.saveAndFlush(user)).thenThrow(violation("uk_users_email"));
 
         // When & Then
         BusinessException ex = assertThrows(BusinessException.class,
@@ -315,8 +525,6 @@ class UserServiceImplTest {
 
         assertEquals(ErrorCode.CONFLICT, ex.getErrorCode());
         assertEquals("Email already exists", ex.getMessage());
-
-        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -332,7 +540,7 @@ class UserServiceImplTest {
         assertEquals("User not found", ex.getMessage());
 
         verify(userRepository).findById(1L);
-        verify(userRepository, never()).save(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -345,7 +553,7 @@ class UserServiceImplTest {
 
         String originalPassword = user.getPassword();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userDto);
 
         // When
@@ -353,7 +561,7 @@ class UserServiceImplTest {
 
         // Then
         assertEquals(originalPassword, user.getPassword()); // Password should remain unchanged
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
     }
 
     @Test
@@ -366,7 +574,7 @@ class UserServiceImplTest {
 
         String originalPassword = user.getPassword();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userDto);
 
         // When
@@ -374,7 +582,7 @@ class UserServiceImplTest {
 
         // Then
         assertEquals(originalPassword, user.getPassword()); // Password should remain unchanged
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
     }
 
     // ========== DELETE METHOD TESTS ==========
@@ -391,6 +599,7 @@ class UserServiceImplTest {
         assertEquals(User.Status.INACTIVE, user.getStatus());
         verify(userRepository).findById(1L);
         verify(userRepository).save(user);
+        verify(verifiedCredentials).invalidate("john");
     }
 
     @Test
@@ -414,8 +623,9 @@ class UserServiceImplTest {
     @Test
     void validateUser_success() {
         // Given
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("secret123", "encodedPassword")).thenReturn(true);
+        when(userRepository.findCredentialsByUsername("john")).thenReturn(Optional.of(credentials));
+        when(passwordVerifier.verify("secret123", "encodedPassword"))
+                .thenReturn(new PasswordVerifier.Result(true, null));
 
         // When
         UserResponse result = userService.validateUser(loginRequest);
@@ -426,15 +636,67 @@ class UserServiceImplTest {
         assertEquals("john@example.com", result.getEmail());
         assertEquals(HttpStatus.OK.value(), result.getStatus());
 
-        verify(userRepository).findByUsername("john");
-        verify(passwordEncoder).matches("secret123", "encodedPassword");
+        verify(userRepository).findCredentialsByUsername("john");
+        verify(passwordVerifier).verify("secret123", "encodedPassword");
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyLong(), anyString(), anyString());
+        verify(verifiedCredentials).put("john", "secret123", "encodedPassword");
+    }
+
+    @Test
+    void validateUser_recentlyVerified_skipsPasswordCheck() {
+        // Given
+        when(userRepository.findCredentialsByUsername("john")).thenReturn(Optional.of(credentials));
+        when(verifiedCredentials.isVerified("john", "secret123", "encodedPassword")).thenReturn(true);
+
+        // When
+        UserResponse result = userService.validateUser(loginRequest);
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), result.getStatus());
+        assertEquals(1L, result.getId());
+        verify(passwordVerifier, never()).verify(any(), any());
+    }
+
+    @Test
+    void validateUser_weakerStoredHash_storesUpgradedHashAndEvictsCache() {
+        // Given
+        Cache cache = mock(Cache.class);
+        when(cacheManager.getCache("users")).thenReturn(cache);
+        when(userRepository.findCredentialsByUsername("john")).thenReturn(Optional.of(credentials));
+        when(passwordVerifier.verify("secret123", "encodedPassword"))
+                .thenReturn(new PasswordVerifier.Result(true, "strongerHash"));
+        when(userRepository.updatePasswordIfUnchanged(1L, "encodedPassword", "strongerHash")).thenReturn(1);
+
+        // When
+        UserResponse result = userService.validateUser(loginRequest);
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), result.getStatus());
+        verify(cache).evict(1L);
+        verify(verifiedCredentials).put("john", "secret123", "strongerHash");
+    }
+
+    @Test
+    void validateUser_upgradeFails_stillAuthenticates() {
+        // Given
+        when(userRepository.findCredentialsByUsername("john")).thenReturn(Optional.of(credentials));
+        when(passwordVerifier.verify("secret123", "encodedPassword"))
+                .thenReturn(new PasswordVerifier.Result(true, "strongerHash"));
+        when(userRepository.updatePasswordIfUnchanged(1L, "encodedPassword", "strongerHash"))
+                .thenThrow(new IllegalStateException("db down"));
+
+        // When
+        UserResponse result = userService.validateUser(loginRequest);
+
+        // Then
+        assertEquals(HttpStatus.OK.value(), result.getStatus());
     }
 
     @Test
     void validateUser_invalidPassword_returnsUnauthorized() {
         // Given
-        when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("wrongPassword", "encodedPassword")).thenReturn(false);
+        when(userRepository.findCredentialsByUsername("john")).thenReturn(Optional.of(credentials));
+        when(passwordVerifier.verify("wrongPassword", "encodedPassword")).thenReturn(PasswordVerifier.Result.MISMATCH);
 
         loginRequest.setPassword("wrongPassword");
 
@@ -447,14 +709,14 @@ class UserServiceImplTest {
         assertNull(result.getUsername());
         assertNull(result.getEmail());
 
-        verify(userRepository).findByUsername("john");
-        verify(passwordEncoder).matches("wrongPassword", "encodedPassword");
+        verify(userRepository).findCredentialsByUsername("john");
+        verify(passwordVerifier).verify("wrongPassword", "encodedPassword");
     }
 
     @Test
     void validateUser_userNotFound_returnsUnauthorized() {
         // Given
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.findCredentialsByUsername("nonexistent")).thenReturn(Optional.empty());
 
         loginRequest.setUsername("nonexistent");
 
@@ -467,8 +729,22 @@ class UserServiceImplTest {
         assertNull(result.getUsername());
         assertNull(result.getEmail());
 
-        verify(userRepository).findByUsername("nonexistent");
-        verify(passwordEncoder, never()).matches(any(), any());
+        verify(userRepository).findCredentialsByUsername("nonexistent");
+        verify(passwordVerifier, never()).verify(any(), any());
+    }
+
+    @Test
+    void validateUser_filterRulesOutUsername_returnsUnauthorizedWithoutQuery() {
+        // Given
+        when(userLookupFilter.mightContainUsername("nonexistent")).thenReturn(false);
+        loginRequest.setUsername("nonexistent");
+
+        // When
+        UserResponse result = userService.validateUser(loginRequest);
+
+        // Then
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), result.getStatus());
+        verify(userRepository, never()).findCredentialsByUsername(anyString());
     }
 
     // ========== EDGE CASE TESTS ==========
@@ -502,4 +778,25 @@ class UserServiceImplTest {
         // When & Then
         assertThrows(Exception.class, () -> userService.validateUser(null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void cacheFillingReads_runInReadWriteTransactions_soTheyUseThePrimary() throws NoSuchMethodException {
+        // Given
+        AnnotationTransactionAttributeSource attributes = new AnnotationTransactionAttributeSource();
+
+        // When & Then
+        assertFalse(attributes.getTransactionAttribute(
+                UserServiceImpl.class.getMethod("getById", Long.class), UserServiceImpl.class).isReadOnly());
+        assertFalse(attributes.getTransactionAttribute(
+                UserServiceImpl.class.getMethod("getByIds", List.class), UserServiceImpl.class).isReadOnly());
+    }
+
+    private static DataIntegrityViolationException violation(String constraint) {
+        return violation(constraint, "duplicate key");
+    }
+
+    private static DataIntegrityViolationException violation(String constraint, String driverMessage) {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(driverMessage), constraint));
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.userservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.cursor.common.pagination.PageUtils;
+import com.cursor.common.exception.BusinessException;
+import com.cursor.common.exception.ErrorCode;
+import com.example.userservice.bloom.UserLookupFilter;
+import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.UserRequest;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.mapper.UserMapperImpl;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.PasswordVerifier;
+import com.example.userservice.security.VerifiedCredentialCache;
+import com.example.userservice.service.impl.UserServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * Pins the number of SQL statements each {@link UserService} method issues, so an eager association or a per-row
+ * lazy load shows up as a failing count rather than as latency in production.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Import({UserServiceImpl.class, UserMapperImpl.class})
+class UserServiceStatementCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private PasswordVerifier passwordVerifier;
+
+    @MockitoBean
+    private VerifiedCredentialCache verifiedCredentials;
+
+    @MockitoBean
+    private UserLookupFilter userLookupFilter;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        when(userLookupFilter.mightContainId(any())).thenReturn(true);
+        when(userLookupFilter.mightContainUsername(anyString())).thenReturn(true);
+        when(userLookupFilter.mightContainEmail(anyString())).thenReturn(true);
+        when(passwordVerifier.verify(anyString(), anyString())).thenReturn(new PasswordVerifier.Result(true, null));
+
+        Role admin = entityManager.persist(new Role(null, "ADMIN", null));
+        Role member = entityManager.persist(new Role(null, "MEMBER", null));
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("encoded");
+            user.setRoles(Set.of(admin, member));
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        ids = userRepository.findAll().stream().map(User::getId).sorted().toList();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getById_issuesOneSelect() {
+        // When
+        userService.getById(ids.get(0));
+
+        // Then
+        assertStatements(1);
+    }
+
+    @Test
+    void getByIds_issuesOneSelect() {
+        // When
+        userService.getByIds(ids);
+
+        // Then
+        assertStatements(1);
+    }
+
+    @Test
+    void list_issuesOneSelectAndOneCount() {
+        // When
+        userService.list(PageRequest.of(0, 2));
+
+        // Then
+        assertStatements(2);
+    }
+
+    @Test
+    void listByCursor_issuesOneSelect() {
+        // When
+        userService.list(PageUtils.buildCursorRequest(null, 2, "username", "asc"));
+
+        // Then
+        assertStatements(1);
+    }
+
+    @Test
+    void validateUser_issuesOneSelect() {
+        // Given
+        LoginRequest request = new LoginRequest();
+        request.setUsername("user1");
+        request.setPassword("secret");
+
+        // When
+        userService.validateUser(request);
+
+        // Then
+        assertStatements(1);
+    }
+
+    @Test
+    void create_issuesOneInsert() {
+        // Given
+        UserRequest request = new UserRequest();
+        request.setUsername("new");
+        request.setEmail("new@example.com");
+        request.setPassword("secret");
+
+        // When
+        userService.create(request);
+        entityManager.flush();
+
+        // Then
+        assertStatements(1);
+    }
+
+    @Test
+    void update_sameKeys_issuesOneSelectAndOneUpdate() {
+        // Given
+        UserRequest request = new UserRequest();
+        request.setUsername("user0");
+        request.setEmail("user0@example.com");
+        request.setPassword("changed");
+
+        // When
+        userService.update(ids.get(0), request);
+        entityManager.flush();
+
+        // Then
+        assertStatements(2);
+    }
+
+    @Test
+    void update_newKeys_issuesOneSelectAndOneUpdate() {
+        // Given
+        UserRequest request = new UserRequest();
+        request.setUsername("renamed");
+        request.setEmail("renamed@example.com");
+        request.setPassword("changed");
+
+        // When
+        userService.update(ids.get(0), request);
+        entityManager.flush();
+
+        // Then
+        assertStatements(2);
+    }
+
+    @Test
+    void create_takenUsername_isAConflict() {
+        // Given
+        UserRequest request = new UserRequest();
+        request.setUsername("user1");
+        request.setEmail("other@example.com");
+        request.setPassword("secret");
+
+        // When
+        BusinessException ex = assertThrows(BusinessException.class, () -> userService.create(request));
+
+        // Then
+        assertEquals(ErrorCode.CONFLICT, ex.getErrorCode());
+        assertEquals("Username already exists", ex.getMessage());
+        assertStatements(1);
+    }
+
+    @Test
+    void delete_issuesOneSelectAndOneUpdate() {
+        // When
+        userService.delete(ids.get(0));
+        entityManager.flush();
+
+        // Then
+        assertStatements(2);
+    }
+
+    @Test
+    void rolesOfAPage_loadInOneBatch() {
+        // Given
+        List<User> users = userRepository.findAllById(ids);
+
+        // When
+        users.forEach(user -> user.getRoles().size());
+
+        // Then
+        assertStatements(2);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), () -> "Unexpected statement count");
+    }
+}